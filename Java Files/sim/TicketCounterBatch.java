@@ -0,0 +1,213 @@
+// TicketCounterBatch.java
+package sim;
+
+import sim.model.Flight;
+import sim.service.Distribution;
+import sim.service.ParameterSweep;
+import sim.service.RunMetrics;
+import sim.service.Scenario;
+import sim.service.ScenarioFile;
+import sim.service.SweepPoint;
+import sim.service.SweepResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToIntFunction;
+
+/**
+ * Headless entry point: runs a scenario file without the setup window and
+ * writes tab-separated metrics. Loads no AWT or Swing class, so it suits
+ * batch servers, cron jobs and CI checks.
+ *
+ * <pre>
+ * java -cp ... sim.TicketCounterBatch day.scn                       one deterministic run
+ * java -cp ... sim.TicketCounterBatch day.scn --replications 200    stochastic replications
+ * java -cp ... sim.TicketCounterBatch day.scn --counters 4..12 --checkpoints 1..4
+ * </pre>
+ *
+ * Exit status: 0 ok, 1 bad arguments or scenario, 2 a run missed more than
+ * {@code --max-missed-fraction} of some flight.
+ */
+public class TicketCounterBatch {
+    private static final String USAGE = String.join("\n",
+        "usage: sim.TicketCounterBatch <scenario> [options]",
+        "  --replications N          stochastic runs per configuration (default 1 = deterministic)",
+        "  --seed S                  master seed for replications (default 1)",
+        "  --counters V              sweep axes; V is a value list such as 1, 2..4, 0.5..1 step 0.25",
+        "  --counter-rate V",
+        "  --checkpoints V",
+        "  --checkpoint-rate V",
+        "  --in-person V",
+        "  --transit-delay V",
+        "  --hold-delay V",
+        "  --threads N               worker threads (default: all cores)",
+        "  --flights                 also list arrived and missed per flight",
+        "  --out FILE                write metrics to FILE instead of stdout",
+        "  --max-missed-fraction F   exit with status 2 if any flight misses more than F");
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            System.err.println("error: " + ex.getMessage());
+            System.exit(1);
+        } catch (IOException ex) {
+            System.err.println("error: " + ex);
+            System.exit(1);
+        }
+    }
+
+    static int run(String[] args) throws IOException {
+        if (args.length == 0 || args[0].startsWith("--")) throw new IllegalArgumentException("no scenario\n" + USAGE);
+
+        long start = System.nanoTime();
+        Scenario scenario = ScenarioFile.read(Paths.get(args[0]));
+        ParameterSweep sweep = scenario.toSweep();
+
+        int replications = 1;
+        long seed = 1;
+        int threads = 0;
+        boolean perFlight = false;
+        boolean swept = false;
+        String outFile = null;
+        double maxMissedFraction = Double.NaN;
+
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--flights")) {
+                perFlight = true;
+                continue;
+            }
+            if (i + 1 >= args.length) throw new IllegalArgumentException(option + " needs a value\n" + USAGE);
+            String value = args[++i];
+            switch (option) {
+                case "--replications":        replications = Integer.parseInt(value); break;
+                case "--seed":                seed = Long.parseLong(value); break;
+                case "--threads":             threads = Integer.parseInt(value); break;
+                case "--out":                 outFile = value; break;
+                case "--max-missed-fraction": maxMissedFraction = Double.parseDouble(value); break;
+                case "--counters":        sweep.setCounterCounts(ParameterSweep.parseWholeAxis(value)); swept = true; break;
+                case "--counter-rate":    sweep.setCounterRates(ParameterSweep.parseAxis(value)); swept = true; break;
+                case "--checkpoints":     sweep.setCheckpointCounts(ParameterSweep.parseWholeAxis(value)); swept = true; break;
+                case "--checkpoint-rate": sweep.setCheckpointRates(ParameterSweep.parseAxis(value)); swept = true; break;
+                case "--in-person":       sweep.setPercentsInPerson(ParameterSweep.parseAxis(value)); swept = true; break;
+                case "--transit-delay":   sweep.setTransitDelays(ParameterSweep.parseWholeAxis(value)); swept = true; break;
+                case "--hold-delay":      sweep.setHoldDelays(ParameterSweep.parseWholeAxis(value)); swept = true; break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + option + "\n" + USAGE);
+            }
+        }
+        sweep.setReplications(replications, seed);
+
+        ForkJoinPool pool = threads > 0 ? new ForkJoinPool(threads) : ForkJoinPool.commonPool();
+        List<SweepResult> results = swept
+                ? sweep.run(pool, r -> { })
+                : Collections.singletonList(sweep.evaluate(sweep.basePoint(), pool));
+
+        try (PrintWriter out = outFile != null
+                ? new PrintWriter(Files.newBufferedWriter(Paths.get(outFile), StandardCharsets.UTF_8))
+                : new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)))) {
+            if (swept) writeSweep(out, results);
+            else if (replications > 1) writeReplications(out, results.get(0));
+            else writeRun(out, results.get(0).getRuns().get(0));
+            if (perFlight && !swept) writeFlights(out, scenario.getFlights(), results.get(0));
+        }
+        System.err.printf(Locale.ROOT, "%d flights, %d configurations x %d runs in %d ms%n",
+                scenario.getFlights().size(), results.size(), replications,
+                (System.nanoTime() - start) / 1_000_000);
+
+        if (!Double.isNaN(maxMissedFraction)) {
+            for (SweepResult r : results) {
+                if (r.getWorstMissedFraction() > maxMissedFraction) {
+                    System.err.printf(Locale.ROOT, "FAILED: a flight missed %.4f of its passengers (limit %.4f)%n",
+                            r.getWorstMissedFraction(), maxMissedFraction);
+                    return 2;
+                }
+            }
+        }
+        return 0;
+    }
+
+    // === REPORTS ===
+
+    private static void writeRun(PrintWriter out, RunMetrics m) {
+        out.println("metric\tvalue");
+        out.println("total_arrived\t" + m.getTotalArrived());
+        out.println("total_missed\t" + m.getTotalMissed());
+        out.println("worst_missed_fraction\t" + format(m.getWorstMissedFraction()));
+        out.println("peak_ticket_queued\t" + m.getPeakTicketQueued());
+        out.println("peak_checkpoint_queued\t" + m.getPeakCheckpointQueued());
+        out.println("max_ticket_wait\t" + m.getMaxTicketWait());
+        out.println("mean_ticket_wait\t" + format(m.getMeanTicketWait()));
+        out.println("max_checkpoint_wait\t" + m.getMaxCheckpointWait());
+        out.println("mean_checkpoint_wait\t" + format(m.getMeanCheckpointWait()));
+    }
+
+    private static void writeReplications(PrintWriter out, SweepResult result) {
+        out.println("metric\tmean\tmin\tp05\tp50\tp95\tmax");
+        writeSpread(out, "total_arrived", result.getDistribution(RunMetrics::getTotalArrived));
+        writeSpread(out, "total_missed", result.getDistribution(RunMetrics::getTotalMissed));
+        writeSpread(out, "peak_ticket_queued", result.getDistribution(RunMetrics::getPeakTicketQueued));
+        writeSpread(out, "peak_checkpoint_queued", result.getDistribution(RunMetrics::getPeakCheckpointQueued));
+        writeSpread(out, "max_ticket_wait", result.getDistribution(RunMetrics::getMaxTicketWait));
+        writeSpread(out, "max_checkpoint_wait", result.getDistribution(RunMetrics::getMaxCheckpointWait));
+    }
+
+    private static void writeSpread(PrintWriter out, String name, Distribution d) {
+        out.println(name + "\t" + format(d.getMean()) + "\t" + d.getMin()
+                + "\t" + format(d.getPercentile(0.05)) + "\t" + format(d.getPercentile(0.5))
+                + "\t" + format(d.getPercentile(0.95)) + "\t" + d.getMax());
+    }
+
+    /** Per flight: the counts of a single run, or their means over replications. */
+    private static void writeFlights(PrintWriter out, List<Flight> flights, SweepResult result) {
+        out.println();
+        out.println("flight\tdeparture\tarrived\tmissed");
+        for (int fi = 0; fi < flights.size(); fi++) {
+            int f = fi;
+            out.println(flights.get(fi).getFlightNumber() + "\t" + flights.get(fi).getDepartureTime()
+                    + "\t" + mean(result, m -> m.getArrived(f)) + "\t" + mean(result, m -> m.getMissed(f)));
+        }
+    }
+
+    private static String mean(SweepResult result, ToIntFunction<RunMetrics> measure) {
+        if (result.getRuns().size() == 1) return String.valueOf(measure.applyAsInt(result.getRuns().get(0)));
+        return format(result.getDistribution(measure).getMean());
+    }
+
+    private static void writeSweep(PrintWriter out, List<SweepResult> results) {
+        out.println("counters\tcounter_rate\tcheckpoints\tcheckpoint_rate\tin_person\ttransit_delay\thold_delay"
+                + "\tmean_missed\tworst_missed_fraction\tpeak_ticket_queued\tpeak_checkpoint_queued"
+                + "\tmax_ticket_wait\tmax_checkpoint_wait\tmean_checkpoint_wait");
+        for (SweepResult r : results) {
+            SweepPoint p = r.getPoint();
+            out.println(p.getCounterCount()
+                    + "\t" + (Double.isNaN(p.getCounterRate()) ? "base" : format(p.getCounterRate()))
+                    + "\t" + p.getNumCheckpoints()
+                    + "\t" + format(p.getCheckpointRate())
+                    + "\t" + format(p.getPercentInPerson())
+                    + "\t" + p.getTransitDelayMinutes()
+                    + "\t" + p.getHoldDelayMinutes()
+                    + "\t" + format(r.getMeanTotalMissed())
+                    + "\t" + format(r.getWorstMissedFraction())
+                    + "\t" + r.getPeakTicketQueued()
+                    + "\t" + r.getPeakCheckpointQueued()
+                    + "\t" + r.getMaxTicketWait()
+                    + "\t" + r.getMaxCheckpointWait()
+                    + "\t" + format(r.getMeanCheckpointWait()));
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+}
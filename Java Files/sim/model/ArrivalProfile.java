@@ -0,0 +1,126 @@
+package sim.model;
+
+import java.util.Arrays;
+
+/**
+ * How a flight's passengers spread their arrivals over its arrival window,
+ * from the arrival span before departure up to boarding close.
+ *
+ * Most profiles are a shape over the window as a whole (0 = its start, 1 =
+ * its end), so one profile serves every arrival span; a measured curve may
+ * instead be pinned to minutes before departure. Profiles are values: two
+ * with the same parameters are equal, which lets flights sharing a profile
+ * share their arrival tables.
+ */
+public abstract class ArrivalProfile {
+    /** Boarding closes this many minutes before departure; the window ends there. */
+    public static final int BOARDING_CLOSE_MINUTES = 20;
+
+    /** The default: a normal curve centred on the window, sigma a sixth of it. */
+    public static final ArrivalProfile NORMAL = normal(0.5, 1 / 6.0);
+
+    ArrivalProfile() { }
+
+    /** Normal curve truncated to the window; mean and sigma as fractions of it. */
+    public static ArrivalProfile normal(double mean, double sigma) {
+        return new Bimodal(mean, sigma, mean, sigma, 1.0);
+    }
+
+    /**
+     * Two normal peaks (say an early business crowd and a late leisure one),
+     * {@code firstShare} of the passengers in the first. Positions and widths
+     * are fractions of the window.
+     */
+    public static ArrivalProfile bimodal(double mean1, double sigma1,
+                                         double mean2, double sigma2,
+                                         double firstShare) {
+        if (firstShare < 0 || firstShare > 1) throw new IllegalArgumentException("First share must be in 0..1");
+        return new Bimodal(mean1, sigma1, mean2, sigma2, firstShare);
+    }
+
+    /**
+     * A measured curve: relative show-up weights over equal slices of the
+     * window, earliest first. Any number of slices; they are stretched or
+     * squeezed to the window's minutes.
+     */
+    public static EmpiricalCurve empirical(String name, double[] weights) {
+        return new EmpiricalCurve(name, -1, weights);
+    }
+
+    /**
+     * A measured curve kept on the clock: {@code weights[i]} is the show-up
+     * weight of the minute {@code firstMinuteBefore - i} minutes before
+     * departure. Minutes outside a flight's window are left out and the rest
+     * renormalized.
+     */
+    public static EmpiricalCurve measured(String name, int firstMinuteBefore, double[] weights) {
+        if (firstMinuteBefore - weights.length + 1 < 0) {
+            throw new IllegalArgumentException("Curve " + name + " runs past departure");
+        }
+        return new EmpiricalCurve(name, firstMinuteBefore, weights);
+    }
+
+    /**
+     * Share of the passengers arriving in each of {@code minutes} equal parts
+     * of the window; the shares sum to 1. A new array on every call.
+     */
+    public abstract double[] shares(int minutes);
+
+    // === IMPLEMENTATIONS ===
+
+    /** Mixture of two truncated normals; one normal when the first share is 1. */
+    private static final class Bimodal extends ArrivalProfile {
+        private final double mean1, sigma1, mean2, sigma2, firstShare;
+
+        Bimodal(double mean1, double sigma1, double mean2, double sigma2, double firstShare) {
+            if (!(sigma1 > 0) || !(sigma2 > 0)) throw new IllegalArgumentException("Sigma must be positive");
+            this.mean1 = mean1;
+            this.sigma1 = sigma1;
+            this.mean2 = mean2;
+            this.sigma2 = sigma2;
+            this.firstShare = firstShare;
+        }
+
+        @Override
+        public double[] shares(int minutes) {
+            double[] shares = new double[minutes];
+            // sigma as minutes / (1 / sigma) keeps the default exactly minutes / 6.0
+            double m1 = minutes * mean1, s1 = minutes / (1.0 / sigma1);
+            double m2 = minutes * mean2, s2 = minutes / (1.0 / sigma2);
+            double sum = 0;
+            for (int m = 0; m < minutes; m++) {
+                double x1 = (m + 0.5 - m1) / s1;
+                double pdf = Math.exp(-0.5 * x1 * x1);
+                if (firstShare < 1) {
+                    double x2 = (m + 0.5 - m2) / s2;
+                    pdf = firstShare * pdf / s1 + (1 - firstShare) * Math.exp(-0.5 * x2 * x2) / s2;
+                }
+                shares[m] = pdf;
+                sum += pdf;
+            }
+            for (int m = 0; m < minutes; m++) {
+                shares[m] /= sum;
+            }
+            return shares;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Bimodal)) return false;
+            Bimodal b = (Bimodal) o;
+            return mean1 == b.mean1 && sigma1 == b.sigma1 && mean2 == b.mean2
+                    && sigma2 == b.sigma2 && firstShare == b.firstShare;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new double[] { mean1, sigma1, mean2, sigma2, firstShare });
+        }
+
+        @Override
+        public String toString() {
+            if (firstShare == 1) return String.format("normal(%.3f, %.3f)", mean1, sigma1);
+            return String.format("bimodal(%.3f, %.3f, %.3f, %.3f, %.2f)", mean1, sigma1, mean2, sigma2, firstShare);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package sim.model;
+
+import java.util.Arrays;
+
+/**
+ * A measured show-up curve, earliest first, in one of two forms:
+ * <ul>
+ * <li>spread: relative weights over equal slices of the arrival window, as
+ *     density constant within each slice, stretched or squeezed to any span;
+ * <li>on the clock: one weight per minute before departure, starting at
+ *     {@link #getFirstMinuteBefore()}, so each minute keeps its measured
+ *     share whatever the span (minutes outside the window are left out).
+ * </ul>
+ * Curves are named so scenario files can refer to them; equal name, form and
+ * weights make equal curves.
+ */
+public final class EmpiricalCurve extends ArrivalProfile {
+    private final String name;
+    private final int firstMinuteBefore;   // -1 = spread over the window
+    private final double[] weights;
+    private final int hash;
+
+    EmpiricalCurve(String name, int firstMinuteBefore, double[] weights) {
+        if (name == null || name.isEmpty()) throw new IllegalArgumentException("A curve needs a name");
+        double total = 0;
+        for (double w : weights) {
+            if (!(w >= 0) || Double.isInfinite(w)) throw new IllegalArgumentException("Curve weights must be finite and >= 0");
+            total += w;
+        }
+        if (!(total > 0)) throw new IllegalArgumentException("Curve " + name + " has no weight");
+        this.name = name;
+        this.firstMinuteBefore = firstMinuteBefore;
+        this.weights = weights.clone();
+        this.hash = 31 * (31 * name.hashCode() + firstMinuteBefore) + Arrays.hashCode(this.weights);
+    }
+
+    public String getName() { return name; }
+    /** Minutes before departure of the first weight, or -1 for a curve spread over the window. */
+    public int getFirstMinuteBefore() { return firstMinuteBefore; }
+    public int getSlices() { return weights.length; }
+    /** The weights as given (a copy). */
+    public double[] getWeights() { return weights.clone(); }
+
+    @Override
+    public double[] shares(int minutes) {
+        if (firstMinuteBefore >= 0) return clockShares(minutes);
+        // minute m covers [m, m + 1) * slices / minutes of the slices
+        int slices = weights.length;
+        double[] shares = new double[minutes];
+        double sum = 0;
+        for (int m = 0; m < minutes; m++) {
+            double from = (double) m * slices / minutes;
+            double to = (double) (m + 1) * slices / minutes;
+            double w = 0;
+            for (int s = (int) from; s < slices && s < to; s++) {
+                w += weights[s] * (Math.min(to, s + 1) - Math.max(from, s));
+            }
+            shares[m] = w;
+            sum += w;
+        }
+        for (int m = 0; m < minutes; m++) {
+            shares[m] /= sum;
+        }
+        return shares;
+    }
+
+    /** Window minute m starts (minutes + close - m) minutes before departure. */
+    private double[] clockShares(int minutes) {
+        double[] shares = new double[minutes];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            int m = minutes + BOARDING_CLOSE_MINUTES - (firstMinuteBefore - i);
+            if (m >= 0 && m < minutes) {
+                shares[m] = weights[i];
+                sum += weights[i];
+            }
+        }
+        if (!(sum > 0)) {
+            throw new IllegalArgumentException("Curve " + name + " has no show-ups in an arrival window of "
+                    + minutes + " minutes");
+        }
+        for (int m = 0; m < minutes; m++) {
+            shares[m] /= sum;
+        }
+        return shares;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof EmpiricalCurve)) return false;
+        EmpiricalCurve c = (EmpiricalCurve) o;
+        return hash == c.hash && firstMinuteBefore == c.firstMinuteBefore && name.equals(c.name)
+                && Arrays.equals(weights, c.weights);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
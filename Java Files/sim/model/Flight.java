@@ -10,6 +10,7 @@ public class Flight {
     private int seats;
     private double fillPercent;
     private ShapeType shape;
+    private ArrivalProfile arrivalProfile = ArrivalProfile.NORMAL;
 
     public enum ShapeType { CIRCLE, TRIANGLE, SQUARE, PENTAGON, HEXAGON, OCTAGON }
 
@@ -31,4 +32,9 @@ public class Flight {
     public void setFillPercent(double fillPercent) { this.fillPercent = fillPercent; }
     public ShapeType getShape() { return shape; }
     public void setShape(ShapeType shape) { this.shape = shape; }
+    public ArrivalProfile getArrivalProfile() { return arrivalProfile; }
+    /** How passengers spread over the arrival window; null restores the default normal curve. */
+    public void setArrivalProfile(ArrivalProfile arrivalProfile) {
+        this.arrivalProfile = arrivalProfile != null ? arrivalProfile : ArrivalProfile.NORMAL;
+    }
 }
@@ -0,0 +1,67 @@
+package sim.service;
+
+import java.util.SplittableRandom;
+
+/**
+ * Walker's alias method over a fixed discrete distribution: O(n) to build,
+ * then one uniform draw and one comparison per sample, however many outcomes
+ * there are. Stochastic runs use one per arrival profile and window to place
+ * each passenger in a minute.
+ */
+final class AliasTable {
+    private final double[] probability;  // chance of keeping column i rather than taking its alias
+    private final int[] alias;
+
+    /** Table for outcomes 0..weights.length-1 in proportion to {@code weights} (not all zero). */
+    AliasTable(double[] weights) {
+        int n = weights.length;
+        if (n == 0) throw new IllegalArgumentException("Alias table needs at least one outcome");
+        double total = 0;
+        for (double w : weights) total += w;
+        if (!(total > 0)) throw new IllegalArgumentException("Alias table needs a positive weight");
+
+        probability = new double[n];
+        alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+        // pair each under-full column with an over-full one that tops it up
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+            probability[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1;
+            if (scaled[l] < 1) small[smallCount++] = l;
+            else large[largeCount++] = l;
+        }
+        // what is left is full up to rounding error
+        while (largeCount > 0) {
+            int l = large[--largeCount];
+            probability[l] = 1;
+            alias[l] = l;
+        }
+        while (smallCount > 0) {
+            int s = small[--smallCount];
+            probability[s] = 1;
+            alias[s] = s;
+        }
+    }
+
+    int size() {
+        return probability.length;
+    }
+
+    int sample(SplittableRandom random) {
+        double u = random.nextDouble() * probability.length;
+        int column = (int) u;
+        return u - column < probability[column] ? column : alias[column];
+    }
+}
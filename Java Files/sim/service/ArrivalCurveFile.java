@@ -0,0 +1,113 @@
+package sim.service;
+
+import sim.model.ArrivalProfile;
+import sim.model.EmpiricalCurve;
+import sim.model.Flight;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads measured show-up curves: one row per curve and minute before
+ * departure, with the share (or count) of passengers seen in that minute.
+ *
+ * <pre>
+ * curve,minutes_before,share
+ * morning-business,150,0.002
+ * morning-business,149,0.004
+ * ...
+ * leisure,180,0.001
+ * </pre>
+ *
+ * Fields are separated by commas, semicolons or tabs; a first line whose
+ * second field is not a number is a header, and {@code #} starts a comment.
+ * A curve runs from its earliest to its latest minute, minutes it skips
+ * counting zero, and stays on the clock: the share measured k minutes before
+ * departure lands k minutes before each flight's departure. Minutes outside
+ * a flight's arrival window (before the span, or after boarding close) are
+ * left out and the rest renormalized.
+ */
+public final class ArrivalCurveFile {
+    private ArrivalCurveFile() { }
+
+    /** The curves in the file, in order of first appearance. */
+    public static List<EmpiricalCurve> read(Path path) throws IOException {
+        Map<String, TreeMap<Integer, Double>> rows = new LinkedHashMap<>();
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            boolean seenRow = false;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                int comment = line.indexOf('#');
+                if (comment >= 0) line = line.substring(0, comment);
+                line = line.trim();
+                if (line.isEmpty()) continue;
+                String[] fields = line.split("\\s*[,;\\t]\\s*");
+                if (fields.length != 3) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected curve, minutes before, share");
+                }
+                boolean first = !seenRow;
+                seenRow = true;
+                if (first && !fields[1].matches("-?\\d+")) continue; // header
+                try {
+                    int minutesBefore = Integer.parseInt(fields[1]);
+                    double share = Double.parseDouble(fields[2]);
+                    if (minutesBefore < 0) throw new IllegalArgumentException("negative minutes before departure");
+                    if (!(share >= 0) || Double.isInfinite(share)) throw new IllegalArgumentException("share must be >= 0");
+                    Map<Integer, Double> curve = rows.computeIfAbsent(fields[0], k -> new TreeMap<>());
+                    if (curve.put(minutesBefore, share) != null) {
+                        throw new IllegalArgumentException(fields[0] + " lists minute " + minutesBefore + " twice");
+                    }
+                } catch (IllegalArgumentException ex) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": " + ex.getMessage(), ex);
+                }
+            }
+        }
+
+        List<EmpiricalCurve> curves = new ArrayList<>(rows.size());
+        for (Map.Entry<String, TreeMap<Integer, Double>> e : rows.entrySet()) {
+            TreeMap<Integer, Double> byMinute = e.getValue();
+            int first = byMinute.lastKey();
+            double[] weights = new double[first - byMinute.firstKey() + 1];
+            // earliest (most minutes before departure) first
+            for (Map.Entry<Integer, Double> m : byMinute.entrySet()) weights[first - m.getKey()] = m.getValue();
+            curves.add(ArrivalProfile.measured(e.getKey(), first, weights));
+        }
+        return curves;
+    }
+
+    /**
+     * Give {@code profile} to the flights departing between {@code from} and
+     * {@code to} (inclusive; null = open, and from after to wraps past
+     * midnight) whose number starts with {@code prefix} (empty = any).
+     *
+     * @return the number of flights changed
+     */
+    public static int attach(List<Flight> flights, ArrivalProfile profile,
+                             LocalTime from, LocalTime to, String prefix) {
+        int changed = 0;
+        for (Flight f : flights) {
+            LocalTime departure = f.getDepartureTime();
+            boolean afterFrom = from == null || !departure.isBefore(from);
+            boolean beforeTo = to == null || !departure.isAfter(to);
+            boolean inWindow = from != null && to != null && from.isAfter(to)
+                    ? afterFrom || beforeTo
+                    : afterFrom && beforeTo;
+            if (inWindow && f.getFlightNumber().startsWith(prefix)) {
+                f.setArrivalProfile(profile);
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
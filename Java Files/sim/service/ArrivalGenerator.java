@@ -2,35 +2,44 @@
 package sim.service;
 
 
+import sim.model.ArrivalProfile;
 import sim.model.Flight;
-import java.util.*;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
+
+/**
+ * Turns a flight's {@link ArrivalProfile} into whole passengers per minute of
+ * its arrival window, by largest-remainder rounding of the profile's shares.
+ *
+ * Both steps are cached for the whole process, keyed by (profile, window)
+ * and (profile, window, passengers). Flights with the same profile and
+ * passenger count share one table, so a day of thousands of flights over a
+ * few profiles and seat maps, or every engine of a sweep, costs little
+ * beyond the map lookups. The alias tables stochastic runs sample minutes
+ * from are cached the same way, one per (profile, window).
+ */
 public class ArrivalGenerator {
+    /** Distinct tables kept before the caches start over. */
+    private static final int CACHE_LIMIT = 4096;
+    private static final Map<Key, double[]> SHARES = new ConcurrentHashMap<>();
+    private static final Map<Key, int[]> ARRIVALS = new ConcurrentHashMap<>();
+    private static final Map<Key, AliasTable> SAMPLERS = new ConcurrentHashMap<>();
+
     private final int totalMinutes;       // total minutes from arrival start to cutoff
     private final int intervalMinutes;
-    private final double[] minuteProbabilities;
 
 
     public ArrivalGenerator(int arrivalSpanMinutes, int intervalMinutes) {
         // arrivals span from (departure - arrivalSpan) up to departure - 20
-        this.totalMinutes = arrivalSpanMinutes - 20;
+        this.totalMinutes = arrivalSpanMinutes - CompiledScenario.BOARDING_CLOSE_MINUTES;
         this.intervalMinutes = intervalMinutes;
-
-
-        // build a minute-by-minute probability distribution (normalized PDF)
-        minuteProbabilities = new double[totalMinutes];
-        double mean = totalMinutes / 2.0;
-        double sigma = totalMinutes / 6.0;
-        double sum = 0;
-        for (int m = 0; m < totalMinutes; m++) {
-            double x = (m + 0.5 - mean) / sigma;
-            double pdf = Math.exp(-0.5 * x * x);
-            minuteProbabilities[m] = pdf;
-            sum += pdf;
-        }
-        for (int m = 0; m < totalMinutes; m++) {
-            minuteProbabilities[m] /= sum;
+        if (totalMinutes < 0) {
+            throw new IllegalArgumentException("Arrival span must be at least "
+                    + CompiledScenario.BOARDING_CLOSE_MINUTES + " minutes");
         }
     }
 
@@ -40,21 +49,89 @@ public class ArrivalGenerator {
      * number of arrivals in that minute (summing to totalPassengers).
      */
     public int[] generatePerMinuteArrivals(Flight flight) {
+        return perMinute(flight).clone();
+    }
+
+
+    /** The cached table behind {@link #generatePerMinuteArrivals} (shared, do not modify). */
+    int[] perMinute(Flight flight) {
         int totalPassengers = (int) Math.round(flight.getSeats() * flight.getFillPercent());
-        int[] arrivals = new int[totalMinutes];
-        double[] raw = new double[totalMinutes];
+        ArrivalProfile profile = flight.getArrivalProfile();
+        Key key = new Key(profile, totalMinutes, totalPassengers);
+        int[] arrivals = ARRIVALS.get(key);
+        if (arrivals == null) {
+            arrivals = round(shares(profile, totalMinutes), totalPassengers);
+            cache(ARRIVALS, key, arrivals);
+        }
+        return arrivals;
+    }
+
+
+    /** Profile shares for a window of {@code minutes} (shared, do not modify). */
+    static double[] shares(ArrivalProfile profile, int minutes) {
+        Key key = new Key(profile, minutes, -1);
+        double[] shares = SHARES.get(key);
+        if (shares == null) {
+            shares = profile.shares(minutes);
+            cache(SHARES, key, shares);
+        }
+        return shares;
+    }
+
+
+    /** Alias table over the minutes of the window, in proportion to {@code profile}. */
+    AliasTable sampler(ArrivalProfile profile) {
+        Key key = new Key(profile, totalMinutes, -1);
+        AliasTable sampler = SAMPLERS.get(key);
+        if (sampler == null) {
+            sampler = new AliasTable(shares(profile, totalMinutes));
+            cache(SAMPLERS, key, sampler);
+        }
+        return sampler;
+    }
+
+
+    private static <V> void cache(Map<Key, V> cache, Key key, V value) {
+        if (cache.size() >= CACHE_LIMIT) cache.clear();
+        cache.putIfAbsent(key, value);
+    }
+
+
+    /**
+     * Largest-remainder rounding: floors, then one more passenger for the
+     * minutes with the largest fractions, earlier minutes first on ties.
+     * The cut-off fraction comes from a primitive sort of a copy, so nothing
+     * is boxed.
+     */
+    static int[] round(double[] shares, int totalPassengers) {
+        int n = shares.length;
+        int[] arrivals = new int[n];
+        double[] fraction = new double[n];
         int floorSum = 0;
-        for (int m = 0; m < totalMinutes; m++) {
-            raw[m] = minuteProbabilities[m] * totalPassengers;
-            arrivals[m] = (int) Math.floor(raw[m]);
+        for (int m = 0; m < n; m++) {
+            double raw = shares[m] * totalPassengers;
+            arrivals[m] = (int) Math.floor(raw);
+            fraction[m] = raw - arrivals[m];
             floorSum += arrivals[m];
         }
         int remainder = totalPassengers - floorSum;
-        List<Integer> idx = new ArrayList<>();
-        for (int m = 0; m < totalMinutes; m++) idx.add(m);
-        idx.sort((a, b) -> Double.compare(raw[b] - arrivals[b], raw[a] - arrivals[a]));
-        for (int k = 0; k < remainder; k++) {
-            arrivals[idx.get(k)]++;
+        if (remainder <= 0) return arrivals;
+
+        double[] sorted = fraction.clone();
+        Arrays.sort(sorted);
+        double cutoff = sorted[n - remainder];
+        // everything above the cut-off gets one, then cut-off ties in minute order
+        for (int m = 0; m < n; m++) {
+            if (fraction[m] > cutoff) {
+                arrivals[m]++;
+                remainder--;
+            }
+        }
+        for (int m = 0; m < n && remainder > 0; m++) {
+            if (fraction[m] == cutoff) {
+                arrivals[m]++;
+                remainder--;
+            }
         }
         return arrivals;
     }
@@ -65,7 +142,7 @@ public class ArrivalGenerator {
      * Returns an int[] of length (totalMinutes/intervalMinutes).
      */
     public int[] generateArrivals(Flight flight) {
-        int[] minuteArr = generatePerMinuteArrivals(flight);
+        int[] minuteArr = perMinute(flight);
         int nIntervals = totalMinutes / intervalMinutes;
         int[] bucketed = new int[nIntervals];
         for (int i = 0; i < nIntervals; i++) {
@@ -82,4 +159,29 @@ public class ArrivalGenerator {
     public int getTotalMinutes() {
         return totalMinutes;
     }
+
+
+    private static final class Key {
+        private final ArrivalProfile profile;
+        private final int minutes;
+        private final int passengers;   // -1 for the shares alone
+
+        Key(ArrivalProfile profile, int minutes, int passengers) {
+            this.profile = profile;
+            this.minutes = minutes;
+            this.passengers = passengers;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return minutes == k.minutes && passengers == k.passengers && profile.equals(k.profile);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(profile, minutes, passengers);
+        }
+    }
 }
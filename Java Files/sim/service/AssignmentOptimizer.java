@@ -0,0 +1,248 @@
+package sim.service;
+
+import sim.model.Flight;
+import sim.ui.TicketCounterConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Searches counter-to-flight assignments ({@link TicketCounterConfig}'s
+ * allowed flights) for one that minimizes missed passengers and the peak
+ * ticket queue, by simulated annealing with a short tabu list.
+ *
+ * A move lets one counter take or drop one flight, keeping every counter with
+ * a flight and every flight with a counter. The counts, rates and all other
+ * settings are the {@link ParameterSweep#basePoint() base point} of a sweep,
+ * and the search starts from its counters' current assignment.
+ *
+ * Candidates are not run from scratch. A flight's eligible counters matter
+ * only once its passengers arrive, so each chain keeps one journaled engine,
+ * rewinds it to the moved flight's first arrival minute, and re-simulates
+ * only from there. A rejected move is undone lazily: the next candidate
+ * restarts no later than the minute the rejected one changed.
+ *
+ * Independent chains run in parallel, each from its own seed, so a result
+ * is reproducible for a given seed and chain count.
+ */
+public final class AssignmentOptimizer {
+    private final ParameterSweep setup;
+
+    private int iterations = 2000;
+    private int chains = 0;                 // 0 = the pool's parallelism
+    private long seed = 1;
+    private double missedWeight = 1.0;
+    private double peakQueueWeight = 0.1;
+    private double initialTemperature = 0;  // 0 = 5% of the starting score
+    private int tabuTenure = 7;
+
+    private volatile boolean stopped;
+    private final AtomicInteger evaluations = new AtomicInteger();
+    private AssignmentResult best;
+
+    public AssignmentOptimizer(ParameterSweep setup) {
+        this.setup = setup;
+    }
+
+    /** Moves tried per chain. */
+    public void setIterations(int iterations) { this.iterations = Math.max(1, iterations); }
+    public void setChains(int chains) { this.chains = Math.max(0, chains); }
+    public void setSeed(long seed) { this.seed = seed; }
+    /** Score = missed * missedWeight + peak ticket queue * peakQueueWeight. */
+    public void setWeights(double missedWeight, double peakQueueWeight) {
+        this.missedWeight = missedWeight;
+        this.peakQueueWeight = peakQueueWeight;
+    }
+    public void setInitialTemperature(double temperature) { this.initialTemperature = temperature; }
+    public void setTabuTenure(int tenure) { this.tabuTenure = Math.max(0, tenure); }
+
+    /** Ask running chains to finish after their current candidate. Any thread. */
+    public void stop() {
+        stopped = true;
+    }
+
+    public AssignmentResult solve() {
+        return solve(ForkJoinPool.commonPool(), r -> { });
+    }
+
+    /**
+     * Run every chain on {@code pool} and return the best assignment.
+     * {@code onImprovement} gets each new overall best as chains find it, one
+     * call at a time, from the pool's threads.
+     */
+    public AssignmentResult solve(ForkJoinPool pool, Consumer<AssignmentResult> onImprovement) {
+        stopped = false;
+        evaluations.set(0);
+        best = null;
+        int n = chains > 0 ? chains : pool.getParallelism();
+        long[] seeds = ReplicationRunner.seeds(n, seed);
+        AssignmentResult[] results = new AssignmentResult[n];
+        ParallelRange.forEach(pool, n, c -> results[c] = new Chain(seeds[c], onImprovement).run());
+
+        // lowest score, then lowest chain: independent of which chain finished first
+        AssignmentResult winner = results[0];
+        for (AssignmentResult r : results) {
+            if (r.getScore() < winner.getScore()) winner = r;
+        }
+        return winner;
+    }
+
+    private double score(RunMetrics m) {
+        return m.getTotalMissed() * missedWeight + m.getPeakTicketQueued() * peakQueueWeight;
+    }
+
+    private synchronized void offer(AssignmentResult result, Consumer<AssignmentResult> onImprovement) {
+        if (best == null || result.getScore() < best.getScore()) {
+            best = result;
+            onImprovement.accept(result);
+        }
+    }
+
+    /** One annealing chain with its own engine, counters and generator. */
+    private final class Chain {
+        private final SplittableRandom random;
+        private final Consumer<AssignmentResult> onImprovement;
+
+        private final List<Flight> flights = setup.getFlights();
+        private final List<TicketCounterConfig> counters;
+        private final BitSet[] accepts;     // per counter: flight ordinals it takes
+        private final int[] coverage;       // per flight: counters taking it
+        private final SimulationEngine engine;
+
+        private final int[] tabuCounter = new int[tabuTenure];
+        private final int[] tabuFlight = new int[tabuTenure];
+        private int tabuNext;
+
+        Chain(long seed, Consumer<AssignmentResult> onImprovement) {
+            this.random = new SplittableRandom(seed);
+            this.onImprovement = onImprovement;
+            SweepPoint base = setup.basePoint();
+            this.counters = setup.countersFor(base);
+            this.engine = setup.newEngine(base, counters, SimulationEngine.RewindMode.JOURNAL);
+
+            int nf = flights.size();
+            accepts = new BitSet[counters.size()];
+            coverage = new int[nf];
+            for (int j = 0; j < counters.size(); j++) {
+                accepts[j] = new BitSet(nf);
+                for (int fi = 0; fi < nf; fi++) {
+                    if (counters.get(j).accepts(flights.get(fi))) {
+                        accepts[j].set(fi);
+                        coverage[fi]++;
+                    }
+                }
+            }
+            Arrays.fill(tabuCounter, -1);
+        }
+
+        AssignmentResult run() {
+            CompiledScenario scenario = engine.getScenario();
+            int total = engine.getTotalIntervals();
+            engine.runAllIntervals();
+            evaluations.incrementAndGet();
+
+            RunMetrics metrics = engine.getMetrics();
+            double current = score(metrics);
+            AssignmentResult chainBest = result(metrics, current);
+            offer(chainBest, onImprovement);
+
+            double temperature = initialTemperature > 0 ? initialTemperature : Math.max(1.0, current * 0.05);
+            double cooling = Math.pow(1e-3, 1.0 / iterations);
+            int validUpTo = total;      // engine state matches the current assignment up to here
+
+            for (int it = 0; it < iterations && !stopped; it++, temperature *= cooling) {
+                int move = propose();
+                if (move < 0) continue;
+                int j = move / flights.size();
+                int fi = move % flights.size();
+
+                toggle(j, fi);
+                int restart = Math.min(scenario.getArrivalOffset(fi), validUpTo);
+                engine.goToInterval(restart);
+                engine.refreshEligibility(new int[] { fi });
+                while (engine.getCurrentInterval() < total) engine.simulateInterval();
+                evaluations.incrementAndGet();
+
+                RunMetrics candidate = engine.getMetrics();
+                double score = score(candidate);
+                if (score <= current || random.nextDouble() < Math.exp((current - score) / temperature)) {
+                    current = score;
+                    validUpTo = total;
+                    remember(j, fi);
+                    if (score < chainBest.getScore()) {
+                        chainBest = result(candidate, score);
+                        offer(chainBest, onImprovement);
+                    }
+                } else {
+                    // the engine keeps the candidate's run; it still matches ours before restart
+                    toggle(j, fi);
+                    engine.refreshEligibility(new int[] { fi });
+                    validUpTo = restart;
+                }
+            }
+            return chainBest;
+        }
+
+        /** A random legal, non-tabu move as counter * flights + flight, or -1 if none was found. */
+        private int propose() {
+            int nc = counters.size();
+            int nf = flights.size();
+            for (int attempt = 0; attempt < 64; attempt++) {
+                int j = random.nextInt(nc);
+                int fi = random.nextInt(nf);
+                if (isTabu(j, fi)) continue;
+                // dropping must leave the counter a flight and the flight a counter
+                if (accepts[j].get(fi) && (accepts[j].cardinality() == 1 || coverage[fi] == 1)) continue;
+                return j * nf + fi;
+            }
+            return -1;
+        }
+
+        private void toggle(int j, int fi) {
+            boolean taking = !accepts[j].get(fi);
+            accepts[j].set(fi, taking);
+            coverage[fi] += taking ? 1 : -1;
+            counters.get(j).setAllowedFlights(allowed(j));
+        }
+
+        /** Counter {@code j}'s set in TicketCounterConfig terms: empty when it takes every flight. */
+        private Set<Flight> allowed(int j) {
+            if (accepts[j].cardinality() == flights.size()) return Collections.emptySet();
+            Set<Flight> set = new HashSet<>();
+            for (int fi = accepts[j].nextSetBit(0); fi >= 0; fi = accepts[j].nextSetBit(fi + 1)) {
+                set.add(flights.get(fi));
+            }
+            return set;
+        }
+
+        private AssignmentResult result(RunMetrics metrics, double score) {
+            List<Set<Flight>> sets = new ArrayList<>(counters.size());
+            for (int j = 0; j < counters.size(); j++) sets.add(allowed(j));
+            return new AssignmentResult(sets, metrics, score, evaluations.get());
+        }
+
+        // accepted moves stay frozen for a few iterations so the chain cannot just undo them
+        private void remember(int j, int fi) {
+            if (tabuTenure == 0) return;
+            tabuCounter[tabuNext] = j;
+            tabuFlight[tabuNext] = fi;
+            tabuNext = (tabuNext + 1) % tabuTenure;
+        }
+
+        private boolean isTabu(int j, int fi) {
+            for (int t = 0; t < tabuTenure; t++) {
+                if (tabuCounter[t] == j && tabuFlight[t] == fi) return true;
+            }
+            return false;
+        }
+    }
+}
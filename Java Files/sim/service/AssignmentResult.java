@@ -0,0 +1,46 @@
+package sim.service;
+
+import sim.model.Flight;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A counter-to-flight assignment found by the {@link AssignmentOptimizer} and
+ * what it scored. Immutable.
+ */
+public final class AssignmentResult {
+    private final List<Set<Flight>> allowedFlights;
+    private final int totalMissed;
+    private final int peakTicketQueued;
+    private final double score;
+    private final int evaluations;
+
+    AssignmentResult(List<Set<Flight>> allowedFlights, RunMetrics metrics, double score, int evaluations) {
+        List<Set<Flight>> copy = new ArrayList<>(allowedFlights.size());
+        for (Set<Flight> s : allowedFlights) copy.add(Collections.unmodifiableSet(new LinkedHashSet<>(s)));
+        this.allowedFlights = Collections.unmodifiableList(copy);
+        this.totalMissed = metrics.getTotalMissed();
+        this.peakTicketQueued = metrics.getPeakTicketQueued();
+        this.score = score;
+        this.evaluations = evaluations;
+    }
+
+    /** Allowed flights per counter, in counter order (empty = all flights, as in TicketCounterConfig). */
+    public List<Set<Flight>> getAllowedFlights() { return allowedFlights; }
+    public int getTotalMissed() { return totalMissed; }
+    public int getPeakTicketQueued() { return peakTicketQueued; }
+    /** Weighted objective; lower is better. */
+    public double getScore() { return score; }
+    /** Candidate runs evaluated by all chains when this was found. */
+    public int getEvaluations() { return evaluations; }
+
+    @Override
+    public String toString() {
+        return String.format("missed %d, peak ticket queue %d (score %.1f after %d runs)",
+                totalMissed, peakTicketQueued, score, evaluations);
+    }
+}
@@ -0,0 +1,217 @@
+package sim.service;
+
+import sim.model.ArrivalProfile;
+import sim.model.Flight;
+import sim.ui.GridRenderer;
+import sim.ui.TicketCounterConfig;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The flight schedule and counter setup, resolved once into dense arrays.
+ *
+ * Flights are addressed by ordinal (their index in the engine's flight list).
+ * Arrival offsets and boarding-close minutes are minutes since the global start.
+ * Counter eligibility is a bitset per flight. The engine's per-minute loop and
+ * the UI read these arrays instead of redoing {@code Duration} arithmetic,
+ * {@code accepts()} lookups or {@code indexOf} searches.
+ *
+ * Arrivals are also laid out on the run's timeline: every flight's arrivals
+ * per minute, with running totals over the timeline and over each flight's
+ * table, so point and range counts are O(1) whatever the number of flights.
+ */
+public final class CompiledScenario {
+    /** Boarding closes this many minutes before departure. */
+    public static final int BOARDING_CLOSE_MINUTES = ArrivalProfile.BOARDING_CLOSE_MINUTES;
+
+    private final Flight[] flights;
+    private final Map<Flight, Integer> ordinals = new IdentityHashMap<>();
+    private final LocalTime globalStart;
+    private final int totalIntervals;
+
+    private final int[] arrivalOffset;        // minute of each flight's first arrival bucket
+    private final int[] closeMinute;          // minute boarding closes
+    private final int[][] arrivalsPerMinute;  // per flight, indexed from arrivalOffset; shared, read-only
+    private final int[][] arrivalsBefore;     // per flight, arrivals before each table index (one longer)
+    private final int[] totalArrivals;        // every flight's arrivals in each minute of the run
+    private final int[] totalArrivalsBefore;  // arrivals before each minute (one longer)
+    private final BitSet[] eligibleCounters;  // counters accepting each flight (none = all)
+    private final int[] holdRoomCellSize;
+    private final int[] passengerCount;       // seats x fill, rounded
+    private final ArrivalProfile[] profiles;  // as compiled, for the stochastic samplers
+    private final ArrivalGenerator minuteGenerator;
+
+    CompiledScenario(List<Flight> flightList,
+                     List<TicketCounterConfig> counterConfigs,
+                     int arrivalSpanMinutes,
+                     ArrivalGenerator minuteGenerator) {
+        this.flights = flightList.toArray(new Flight[0]);
+        int n = flights.length;
+        for (int i = 0; i < n; i++) ordinals.putIfAbsent(flights[i], i);
+
+        // global start: earliest departure minus the arrival span
+        LocalTime firstDep = flightList.stream()
+                .map(Flight::getDepartureTime)
+                .min(LocalTime::compareTo)
+                .orElse(LocalTime.MIDNIGHT);
+        this.globalStart = firstDep.minusMinutes(arrivalSpanMinutes);
+
+        arrivalOffset = new int[n];
+        closeMinute = new int[n];
+        arrivalsPerMinute = new int[n][];
+        eligibleCounters = new BitSet[n];
+        holdRoomCellSize = new int[n];
+        passengerCount = new int[n];
+        profiles = new ArrivalProfile[n];
+        this.minuteGenerator = minuteGenerator;
+
+        int maxClose = 0;
+        for (int i = 0; i < n; i++) {
+            Flight f = flights[i];
+            arrivalOffset[i] = (int) Duration.between(globalStart,
+                    f.getDepartureTime().minusMinutes(arrivalSpanMinutes)).toMinutes();
+            closeMinute[i] = (int) Duration.between(globalStart,
+                    f.getDepartureTime().minusMinutes(BOARDING_CLOSE_MINUTES)).toMinutes();
+            maxClose = i == 0 ? closeMinute[i] : Math.max(maxClose, closeMinute[i]);
+            arrivalsPerMinute[i] = minuteGenerator.perMinute(f);
+
+            eligibleCounters[i] = eligibility(f, counterConfigs);
+
+            passengerCount[i] = (int) Math.round(f.getSeats() * f.getFillPercent());
+            profiles[i] = f.getArrivalProfile();
+            holdRoomCellSize[i] = bestCellSize(passengerCount[i]);
+        }
+        // run up to the latest boarding close
+        this.totalIntervals = maxClose + 1;
+
+        // running totals; flights sharing a cached table share its sums too
+        arrivalsBefore = new int[n][];
+        Map<int[], int[]> sums = new IdentityHashMap<>();
+        totalArrivals = new int[totalIntervals];
+        for (int i = 0; i < n; i++) {
+            int[] perMin = arrivalsPerMinute[i];
+            arrivalsBefore[i] = sums.computeIfAbsent(perMin, CompiledScenario::runningTotals);
+            for (int m = 0; m < perMin.length; m++) {
+                int minute = arrivalOffset[i] + m;
+                if (minute >= 0 && minute < totalIntervals) totalArrivals[minute] += perMin[m];
+            }
+        }
+        totalArrivalsBefore = runningTotals(totalArrivals);
+    }
+
+    /** {@code sums[k]} = total of {@code values[0..k)}. */
+    private static int[] runningTotals(int[] values) {
+        int[] sums = new int[values.length + 1];
+        for (int k = 0; k < values.length; k++) sums[k + 1] = sums[k] + values[k];
+        return sums;
+    }
+
+    /** Counters accepting {@code f}; a flight no counter accepts may use them all. */
+    private static BitSet eligibility(Flight f, List<TicketCounterConfig> counterConfigs) {
+        BitSet eligible = new BitSet(counterConfigs.size());
+        for (int j = 0; j < counterConfigs.size(); j++) {
+            if (counterConfigs.get(j).accepts(f)) eligible.set(j);
+        }
+        if (eligible.isEmpty()) eligible.set(0, counterConfigs.size());
+        return eligible;
+    }
+
+    /** Largest square cell that fits {@code total} passengers in a hold-room box. */
+    private static int bestCellSize(int total) {
+        int bestCell = GridRenderer.MIN_CELL_SIZE;
+
+        // try every possible row-count from 1 up to total:
+        for (int rows = 1; rows <= total; rows++) {
+            int cols = (total + rows - 1) / rows;           // ceil division
+            int cellByRows = GridRenderer.HOLD_BOX_SIZE / rows;
+            int cellByCols = GridRenderer.HOLD_BOX_SIZE / cols;
+            int cell = Math.min(cellByRows, cellByCols);
+            bestCell = Math.max(bestCell, cell);
+        }
+        return bestCell;
+    }
+
+    public int getFlightCount() { return flights.length; }
+    public Flight getFlight(int ordinal) { return flights[ordinal]; }
+    public LocalTime getGlobalStart() { return globalStart; }
+    public int getTotalIntervals() { return totalIntervals; }
+
+    /** Ordinal of {@code f} in this scenario, or -1 if it is not one of its flights. */
+    public int ordinalOf(Flight f) {
+        Integer i = f == null ? null : ordinals.get(f);
+        return i == null ? -1 : i;
+    }
+
+    public int getArrivalOffset(int ordinal) { return arrivalOffset[ordinal]; }
+    public int getCloseMinute(int ordinal) { return closeMinute[ordinal]; }
+    public int getHoldRoomCellSize(int ordinal) { return holdRoomCellSize[ordinal]; }
+    public int getPassengerCount(int ordinal) { return passengerCount[ordinal]; }
+    public int getArrivalWindowMinutes() { return minuteGenerator.getTotalMinutes(); }
+
+    /** Arrivals of flight {@code ordinal} during {@code minute} (minutes since global start). */
+    public int getArrivalsAt(int ordinal, int minute) {
+        int idx = minute - arrivalOffset[ordinal];
+        int[] perMin = arrivalsPerMinute[ordinal];
+        return idx >= 0 && idx < perMin.length ? perMin[idx] : 0;
+    }
+
+    /** Arrivals of flight {@code ordinal} in minutes {@code from} (inclusive) to {@code to} (exclusive). */
+    public int getArrivalsBetween(int ordinal, int from, int to) {
+        if (to <= from) return 0;
+        int[] before = arrivalsBefore[ordinal];
+        int last = before.length - 1;
+        int start = Math.max(0, Math.min(last, from - arrivalOffset[ordinal]));
+        int end = Math.max(0, Math.min(last, to - arrivalOffset[ordinal]));
+        return before[end] - before[start];
+    }
+
+    /** Arrivals of every flight during {@code minute} (minutes since global start). */
+    public int getTotalArrivalsAt(int minute) {
+        return minute >= 0 && minute < totalArrivals.length ? totalArrivals[minute] : 0;
+    }
+
+    /** Arrivals of every flight in minutes {@code from} (inclusive) to {@code to} (exclusive). */
+    public int getTotalArrivalsBetween(int from, int to) {
+        if (to <= from) return 0;
+        int last = totalArrivals.length;
+        return totalArrivalsBefore[Math.max(0, Math.min(last, to))]
+                - totalArrivalsBefore[Math.max(0, Math.min(last, from))];
+    }
+
+    /** Every flight's arrivals in each minute of the run (a copy). */
+    public int[] getTotalArrivals() {
+        return totalArrivals.clone();
+    }
+
+    /** Minutes from the global start to {@code time} on the same day (negative before it). */
+    public int minuteOf(LocalTime time) {
+        return (int) Duration.between(globalStart, time).toMinutes();
+    }
+
+    /** Per-minute arrival counts for a flight (shared array, do not modify). */
+    int[] arrivalsPerMinute(int ordinal) { return arrivalsPerMinute[ordinal]; }
+
+    /** Minute-of-window sampler for flight {@code ordinal}'s profile (shared, cached per profile). */
+    AliasTable arrivalSampler(int ordinal) { return minuteGenerator.sampler(profiles[ordinal]); }
+
+    /** Counters accepting flight {@code ordinal} (a copy). */
+    public BitSet getEligibleCounters(int ordinal) {
+        return (BitSet) eligibleCounters[ordinal].clone();
+    }
+
+    BitSet eligibleCounters(int ordinal) { return eligibleCounters[ordinal]; }
+
+    /**
+     * Re-resolve one flight's eligibility after its counters' allowed flights
+     * were edited. Only for a scenario owned by a single engine, see
+     * {@link SimulationEngine#refreshEligibility(int[])}.
+     */
+    void refreshEligibility(int ordinal, List<TicketCounterConfig> counterConfigs) {
+        eligibleCounters[ordinal] = eligibility(flights[ordinal], counterConfigs);
+    }
+}
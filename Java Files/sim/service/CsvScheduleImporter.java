@@ -0,0 +1,438 @@
+package sim.service;
+
+import sim.model.Flight;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Imports flights from a schedule export in CSV form: a header line naming
+ * the columns, then one flight per line.
+ *
+ * The file is memory-mapped and scanned once. Fields are kept as byte
+ * ranges of the mapping; numbers, dates and times are parsed from those
+ * bytes, and the date and terminal filters compare bytes too, so rows that
+ * are filtered out allocate nothing. Only an imported row's flight number
+ * becomes a String.
+ *
+ * Columns are found by header name, ignoring case, spaces and punctuation
+ * ({@code "Flight No."} matches {@code flightno}); {@link #setColumn} adds
+ * other names. Needed: flight number, departure time, seats, and either a
+ * fill (0-1, or a percentage above 1) or a passenger count. The departure
+ * may carry its date ({@code 2024-05-01 06:30}); otherwise a date column is
+ * needed to filter by date. Dates are ISO ({@code yyyy-MM-dd}).
+ *
+ * Flights of one airline (the letters their number starts with) share a
+ * shape, handed out in order of first appearance.
+ */
+public final class CsvScheduleImporter {
+    /** Columns the importer understands. */
+    public enum Column { FLIGHT, DATE, DEPARTURE, SEATS, FILL, PASSENGERS, TERMINAL }
+
+    private static final Map<String, Column> DEFAULT_NAMES = new HashMap<>();
+    static {
+        for (String n : new String[] { "flight", "flightno", "flightnumber", "flightnum", "fltno" })
+            DEFAULT_NAMES.put(n, Column.FLIGHT);
+        for (String n : new String[] { "date", "flightdate", "depdate", "departuredate" })
+            DEFAULT_NAMES.put(n, Column.DATE);
+        for (String n : new String[] { "departure", "deptime", "departuretime", "std", "time" })
+            DEFAULT_NAMES.put(n, Column.DEPARTURE);
+        for (String n : new String[] { "seats", "capacity" })
+            DEFAULT_NAMES.put(n, Column.SEATS);
+        for (String n : new String[] { "fill", "fillpercent", "loadfactor", "lf" })
+            DEFAULT_NAMES.put(n, Column.FILL);
+        for (String n : new String[] { "passengers", "pax", "booked" })
+            DEFAULT_NAMES.put(n, Column.PASSENGERS);
+        DEFAULT_NAMES.put("terminal", Column.TERMINAL);
+    }
+
+    private final Map<String, Column> names = new HashMap<>(DEFAULT_NAMES);
+    private byte delimiter = ',';
+    private int date = -1;                      // yyyymmdd, -1 = every date
+    private byte[][] terminals = new byte[0][]; // ASCII upper case; none = every terminal
+
+    private int rowsScanned;
+
+    /** Also recognize {@code headerName} as {@code column}. */
+    public void setColumn(Column column, String headerName) {
+        names.put(normalize(headerName), column);
+    }
+
+    public void setDelimiter(char delimiter) {
+        if (delimiter > 0x7F || delimiter == '"') throw new IllegalArgumentException("Bad delimiter: " + delimiter);
+        this.delimiter = (byte) delimiter;
+    }
+
+    /** Import only flights departing on {@code date}; null imports every date. */
+    public void setDate(LocalDate date) {
+        this.date = date == null ? -1 : date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+
+    /**
+     * Import only flights from these terminals (ignoring the case of ASCII
+     * letters, as the file's bytes are compared); none imports every terminal.
+     */
+    public void setTerminals(String... terminals) {
+        byte[][] bytes = new byte[terminals.length][];
+        for (int i = 0; i < terminals.length; i++) {
+            bytes[i] = terminals[i].trim().getBytes(StandardCharsets.UTF_8);
+            for (int k = 0; k < bytes[i].length; k++) bytes[i][k] = upperAscii(bytes[i][k]);
+        }
+        this.terminals = bytes;
+    }
+
+    /** {@code b} with a-z raised to A-Z; every other byte, UTF-8 ones included, as it is. */
+    private static byte upperAscii(byte b) {
+        return b >= 'a' && b <= 'z' ? (byte) (b - 32) : b;
+    }
+
+    /** Data lines seen by the last {@link #read}, imported or not. */
+    public int getRowsScanned() { return rowsScanned; }
+
+    /**
+     * Scan {@code path} and return its flights in file order. A malformed
+     * row or a missing column throws IllegalArgumentException naming it.
+     */
+    public List<Flight> read(Path path) throws IOException {
+        MappedByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Schedule files over 2 GB are not supported; split the export");
+            }
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        return read(new Fields(buf, delimiter));
+    }
+
+    private List<Flight> read(Fields row) {
+        rowsScanned = 0;
+        if (!row.next()) throw new IllegalArgumentException("Schedule file is empty");
+
+        EnumMap<Column, Integer> index = new EnumMap<>(Column.class);
+        for (int i = 0; i < row.count; i++) {
+            Column column = names.get(normalize(row.string(i)));
+            if (column != null) index.putIfAbsent(column, i);
+        }
+        int flightCol = require(index, Column.FLIGHT);
+        int departureCol = require(index, Column.DEPARTURE);
+        int seatsCol = require(index, Column.SEATS);
+        int fillCol = index.getOrDefault(Column.FILL, -1);
+        int paxCol = index.getOrDefault(Column.PASSENGERS, -1);
+        if (fillCol < 0 && paxCol < 0) {
+            throw new IllegalArgumentException("Schedule file needs a fill or a passengers column");
+        }
+        int dateCol = index.getOrDefault(Column.DATE, -1);
+        int terminalCol = terminals.length > 0 ? require(index, Column.TERMINAL) : -1;
+        int needed = Math.max(Math.max(flightCol, departureCol), Math.max(seatsCol, Math.max(fillCol, paxCol)));
+        needed = Math.max(needed, Math.max(dateCol, terminalCol)) + 1;
+
+        List<Flight> flights = new ArrayList<>();
+        Map<String, Flight.ShapeType> shapeOfAirline = new LinkedHashMap<>();
+        Flight.ShapeType[] shapes = Flight.ShapeType.values();
+
+        while (row.next()) {
+            if (row.count == 1 && row.start[0] == row.end[0]) continue;     // blank line
+            rowsScanned++;
+            try {
+                if (row.count < needed) throw new IllegalArgumentException("expected " + needed + " fields");
+
+                // filters first: a skipped row costs a few byte comparisons
+                if (terminalCol >= 0 && !row.equalsAnyIgnoreCase(terminalCol, terminals)) continue;
+                if (date >= 0) {
+                    int rowDate = row.dateAt(departureCol);
+                    if (rowDate < 0 && dateCol >= 0) rowDate = row.dateAt(dateCol);
+                    if (rowDate < 0) throw new IllegalArgumentException("no date to filter on");
+                    if (rowDate != date) continue;
+                }
+
+                String number = row.string(flightCol);
+                if (number.isEmpty()) throw new IllegalArgumentException("missing flight number");
+                LocalTime departure = row.time(departureCol);
+                int seats = row.integer(seatsCol);
+                double fill;
+                if (fillCol >= 0 && !row.isEmpty(fillCol)) {
+                    fill = row.decimal(fillCol);
+                    if (fill > 1) fill /= 100;      // a percentage
+                } else if (paxCol >= 0) {
+                    fill = seats > 0 ? Math.min(1.0, row.integer(paxCol) / (double) seats) : 0;
+                } else {
+                    throw new IllegalArgumentException("missing fill");
+                }
+
+                Flight.ShapeType shape = shapeOfAirline.computeIfAbsent(airline(number),
+                        a -> shapes[shapeOfAirline.size() % shapes.length]);
+                flights.add(new Flight(number, departure, seats, fill, shape));
+            } catch (IllegalArgumentException | DateTimeException ex) {
+                throw new IllegalArgumentException("Line " + row.line + ": " + ex.getMessage(), ex);
+            }
+        }
+        return flights;
+    }
+
+    private static int require(Map<Column, Integer> index, Column column) {
+        Integer i = index.get(column);
+        if (i == null) throw new IllegalArgumentException("Schedule file has no " + column.name().toLowerCase(Locale.ROOT) + " column");
+        return i;
+    }
+
+    /** Lower case letters and digits only: "Flight No." -> "flightno". */
+    private static String normalize(String header) {
+        StringBuilder sb = new StringBuilder(header.length());
+        for (int i = 0; i < header.length(); i++) {
+            char c = Character.toLowerCase(header.charAt(i));
+            if (Character.isLetterOrDigit(c)) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /** The carrier part of a flight number: its leading letters, or the first two characters. */
+    private static String airline(String number) {
+        int n = 0;
+        while (n < number.length() && n < 3 && Character.isLetter(number.charAt(n))) n++;
+        return n > 0 ? number.substring(0, n) : number.substring(0, Math.min(2, number.length()));
+    }
+
+    /**
+     * One CSV record at a time as byte ranges of the mapped file. Quoted
+     * fields may hold delimiters, newlines and doubled quotes; their range
+     * excludes the outer quotes.
+     */
+    private static final class Fields {
+        private final MappedByteBuffer buf;
+        private final byte delimiter;
+        private int pos;
+        int line;           // of the current record, from 1
+
+        int count;
+        int[] start = new int[32];
+        int[] end = new int[32];
+        private boolean[] escaped = new boolean[32];   // holds "" to be undoubled
+        private byte[] scratch = new byte[64];
+
+        Fields(MappedByteBuffer buf, byte delimiter) {
+            this.buf = buf;
+            this.delimiter = delimiter;
+            // skip a UTF-8 byte order mark
+            if (buf.limit() >= 3 && (buf.get(0) & 0xFF) == 0xEF && (buf.get(1) & 0xFF) == 0xBB
+                    && (buf.get(2) & 0xFF) == 0xBF) pos = 3;
+        }
+
+        boolean next() {
+            int limit = buf.limit();
+            if (pos >= limit) return false;
+            line++;
+            count = 0;
+            while (true) {
+                if (count == start.length) grow();
+                boolean hasEscapes = false;
+                int s, e;
+                if (pos < limit && buf.get(pos) == '"') {
+                    s = ++pos;
+                    while (true) {
+                        if (pos >= limit) throw new IllegalArgumentException("Line " + line + ": unclosed quote");
+                        byte b = buf.get(pos);
+                        if (b == '"') {
+                            if (pos + 1 < limit && buf.get(pos + 1) == '"') {
+                                hasEscapes = true;
+                                pos += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        if (b == '\n') line++;
+                        pos++;
+                    }
+                    e = pos++;
+                    // anything up to the delimiter after the closing quote is ignored
+                    while (pos < limit && buf.get(pos) != delimiter && buf.get(pos) != '\n') pos++;
+                } else {
+                    s = pos;
+                    while (pos < limit && buf.get(pos) != delimiter && buf.get(pos) != '\n') pos++;
+                    e = pos;
+                    if (e > s && buf.get(e - 1) == '\r') e--;
+                }
+                start[count] = s;
+                end[count] = e;
+                escaped[count] = hasEscapes;
+                count++;
+                if (pos >= limit) return true;
+                byte b = buf.get(pos++);
+                if (b == '\n') return true;
+            }
+        }
+
+        private void grow() {
+            start = Arrays.copyOf(start, count * 2);
+            end = Arrays.copyOf(end, count * 2);
+            escaped = Arrays.copyOf(escaped, count * 2);
+        }
+
+        /** Field range with surrounding blanks trimmed, packed as start << 32 | end. */
+        private long trimmed(int i) {
+            int s = start[i], e = end[i];
+            // unsigned: bytes of multi-byte UTF-8 characters are not blanks
+            while (s < e && (buf.get(s) & 0xFF) <= ' ') s++;
+            while (e > s && (buf.get(e - 1) & 0xFF) <= ' ') e--;
+            return ((long) s << 32) | e;
+        }
+
+        boolean isEmpty(int i) {
+            long r = trimmed(i);
+            return (int) (r >>> 32) == (int) r;
+        }
+
+        String string(int i) {
+            long r = trimmed(i);
+            int s = (int) (r >>> 32), e = (int) r;
+            if (scratch.length < e - s) scratch = new byte[Math.max(e - s, scratch.length * 2)];
+            int n = 0;
+            for (int p = s; p < e; p++) {
+                byte b = buf.get(p);
+                if (b == '"' && escaped[i]) p++;    // "" -> "
+                scratch[n++] = b;
+            }
+            return new String(scratch, 0, n, StandardCharsets.UTF_8);
+        }
+
+        boolean equalsAnyIgnoreCase(int i, byte[][] candidates) {
+            long r = trimmed(i);
+            int s = (int) (r >>> 32), e = (int) r;
+            outer:
+            for (byte[] c : candidates) {
+                if (c.length != e - s) continue;
+                for (int k = 0; k < c.length; k++) {
+                    if (upperAscii(buf.get(s + k)) != c[k]) continue outer;
+                }
+                return true;
+            }
+            return false;
+        }
+
+        int integer(int i) {
+            long r = trimmed(i);
+            int s = (int) (r >>> 32), e = (int) r;
+            long value = 0;
+            if (s == e) throw new IllegalArgumentException("missing number in field " + (i + 1));
+            for (int p = s; p < e; p++) {
+                int d = buf.get(p) - '0';
+                if (d < 0 || d > 9 || value > (Integer.MAX_VALUE - d) / 10) {
+                    throw new IllegalArgumentException("whole number expected in field " + (i + 1));
+                }
+                value = value * 10 + d;
+            }
+            return (int) value;
+        }
+
+        /** Non-negative decimal with a '.' point; at most 15 significant digits are kept exactly. */
+        double decimal(int i) {
+            long r = trimmed(i);
+            int s = (int) (r >>> 32), e = (int) r;
+            long mantissa = 0;
+            int digits = 0;
+            int scale = 0;
+            boolean point = false;
+            for (int p = s; p < e; p++) {
+                byte b = buf.get(p);
+                if (b >= '0' && b <= '9') {
+                    if (digits == 15) {         // beyond double precision: drop the rest
+                        if (!point) scale--;
+                        continue;
+                    }
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (point) scale++;
+                } else if (b == '.' && !point) {
+                    point = true;
+                } else if (b == '%' && p == e - 1) {
+                    return decimalValue(mantissa, scale + 2);
+                } else {
+                    throw new IllegalArgumentException("number expected in field " + (i + 1));
+                }
+            }
+            if (digits == 0) throw new IllegalArgumentException("missing number in field " + (i + 1));
+            return decimalValue(mantissa, scale);
+        }
+
+        private static double decimalValue(long mantissa, int scale) {
+            if (scale <= 0) return mantissa * Math.pow(10, -scale);
+            return scale < POWERS_OF_TEN.length ? mantissa / POWERS_OF_TEN[scale] : mantissa / Math.pow(10, scale);
+        }
+
+        /**
+         * Date at the start of field {@code i} as yyyymmdd, if it starts with
+         * an ISO date; -1 otherwise.
+         */
+        int dateAt(int i) {
+            long r = trimmed(i);
+            int s = (int) (r >>> 32), e = (int) r;
+            if (e - s < 10 || buf.get(s + 4) != '-' || buf.get(s + 7) != '-') return -1;
+            int y = digits(s, 4), m = digits(s + 5, 2), d = digits(s + 8, 2);
+            if (y < 0 || m < 0 || d < 0) return -1;
+            return y * 10000 + m * 100 + d;
+        }
+
+        /** H:mm[:ss] or HHmm, after an ISO date and 'T' or a blank if there is one. */
+        LocalTime time(int i) {
+            long r = trimmed(i);
+            int s = (int) (r >>> 32), e = (int) r;
+            if (dateAt(i) >= 0) {
+                s += 10;
+                while (s < e && (buf.get(s) == 'T' || buf.get(s) == ' ')) s++;
+            }
+            int colon = -1;
+            for (int p = s; p < e; p++) {
+                if (buf.get(p) == ':') {
+                    colon = p;
+                    break;
+                }
+            }
+            int hour, minute, second = 0;
+            if (colon < 0) {
+                if (e - s != 4) throw new IllegalArgumentException("time expected in field " + (i + 1));
+                hour = digits(s, 2);
+                minute = digits(s + 2, 2);
+            } else {
+                hour = digits(s, colon - s);
+                minute = digits(colon + 1, 2);
+                if (colon + 3 < e && buf.get(colon + 3) == ':') second = digits(colon + 4, 2);
+                else if (colon + 3 != e) hour = -1;
+            }
+            if (hour < 0 || minute < 0 || second < 0) throw new IllegalArgumentException("time expected in field " + (i + 1));
+            return LocalTime.of(hour, minute, second);
+        }
+
+        /** {@code n} (1-4) decimal digits at {@code p}, or -1. */
+        private int digits(int p, int n) {
+            if (n < 1 || n > 4 || p + n > buf.limit()) return -1;
+            int v = 0;
+            for (int k = 0; k < n; k++) {
+                int d = buf.get(p + k) - '0';
+                if (d < 0 || d > 9) return -1;
+                v = v * 10 + d;
+            }
+            return v;
+        }
+    }
+
+    private static final double[] POWERS_OF_TEN = new double[23];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+}
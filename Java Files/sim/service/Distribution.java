@@ -0,0 +1,45 @@
+package sim.service;
+
+import java.util.Arrays;
+
+/**
+ * Immutable spread of one integer measure over a set of replications
+ * (missed passengers of a flight, queue length at an interval, ...).
+ */
+public final class Distribution {
+    private final int[] sorted;
+    private final double mean;
+
+    /** Takes ownership of {@code values}. */
+    Distribution(int[] values) {
+        if (values.length == 0) throw new IllegalArgumentException("No values");
+        Arrays.sort(values);
+        this.sorted = values;
+        long sum = 0;
+        for (int v : values) sum += v;
+        this.mean = (double) sum / values.length;
+    }
+
+    public int getCount() { return sorted.length; }
+    public double getMean() { return mean; }
+    public int getMin() { return sorted[0]; }
+    public int getMax() { return sorted[sorted.length - 1]; }
+
+    /**
+     * Value below which fraction {@code q} (0..1) of the replications fall,
+     * interpolated linearly between neighbouring ranks.
+     */
+    public double getPercentile(double q) {
+        if (q < 0 || q > 1) throw new IllegalArgumentException("Percentile must be in 0..1: " + q);
+        double rank = q * (sorted.length - 1);
+        int lo = (int) Math.floor(rank);
+        int hi = Math.min(lo + 1, sorted.length - 1);
+        return sorted[lo] + (rank - lo) * (sorted[hi] - sorted[lo]);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("mean %.2f  p5 %.1f  p50 %.1f  p95 %.1f",
+                mean, getPercentile(0.05), getPercentile(0.5), getPercentile(0.95));
+    }
+}
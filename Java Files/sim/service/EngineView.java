@@ -0,0 +1,58 @@
+package sim.service;
+
+import sim.model.Flight;
+import sim.model.Passenger;
+
+import java.util.List;
+
+/**
+ * Read-only look at one interval of a run: everything the grid panels, their
+ * mouse handlers and detail dialogs read, and nothing that can move a clock.
+ *
+ * Views come from {@link SimulationEngine#viewAt(int)},
+ * {@link SimulationResult#viewAt(int)} and the engine's published frames
+ * ({@link SimulationEngine#getLatestFrame()}). Each is fixed at its interval,
+ * so any number can be open at once without touching the live engine.
+ *
+ * Lines are those recorded at step {@code getCurrentInterval() - 1}, before that
+ * step's missed-flight purge; there are none at interval 0.
+ */
+public interface EngineView {
+
+    // === RUN ===
+    List<Flight> getFlights();
+    CompiledScenario getScenario();
+    int getArrivalSpan();
+    int getInterval();
+    int getCounterId(int line);
+    int getTicketLineCount();
+    int getCheckpointLineCount();
+
+    // === THIS INTERVAL ===
+    int getCurrentInterval();
+
+    /** Per counter / checkpoint / flight. */
+    List<List<Passenger>> getQueuedTicket();
+    List<List<Passenger>> getServedTicket();
+    /** Served at a counter and still walking to the checkpoint. */
+    List<List<Passenger>> getVisibleServedTicket();
+    List<List<Passenger>> getQueuedCheckpoint();
+    List<List<Passenger>> getServedCheckpoint();
+    List<List<Passenger>> getHoldRooms();
+
+    int getHeldUps();
+    int getTicketQueued();
+    int getCheckpointQueued();
+    int getHoldRoomTotal();
+    int getArrivals();
+
+    // === WHOLE RUN (every recorded step) ===
+
+    /** Longest a ticket queue ever got, and the first step it got that long. */
+    int getPeakQueuedTicket(int line);
+    int getPeakQueuedTicketStep(int line);
+
+    /** Longest a checkpoint queue ever got, and the first step it got that long. */
+    int getPeakQueuedCheckpoint(int line);
+    int getPeakQueuedCheckpointStep(int line);
+}
@@ -0,0 +1,42 @@
+package sim.service;
+
+import java.util.BitSet;
+
+/**
+ * Scheduled-event calendar for the next-event engine mode.
+ *
+ * Holds the minutes at which the schedule itself forces work (arrival batches
+ * and boarding closes). Every event time is an integer minute inside the run,
+ * so a bitset answers "next event at or after t" without a heap.
+ */
+final class EventCalendar {
+    /** Returned by {@link #next(int)} when no event remains. */
+    static final int NONE = Integer.MAX_VALUE;
+
+    private final BitSet minutes;
+    private final int horizon;
+
+    EventCalendar(int horizon) {
+        this.horizon = horizon;
+        this.minutes = new BitSet(Math.max(1, horizon));
+    }
+
+    /** Schedule an event; minutes outside [0, horizon) are never simulated and are ignored. */
+    void add(int minute) {
+        if (minute >= 0 && minute < horizon) minutes.set(minute);
+    }
+
+    boolean contains(int minute) {
+        return minute >= 0 && minutes.get(minute);
+    }
+
+    /** First scheduled minute at or after {@code from}, or {@link #NONE}. */
+    int next(int from) {
+        int m = minutes.nextSetBit(Math.max(0, from));
+        return m < 0 ? NONE : m;
+    }
+
+    int count() {
+        return minutes.cardinality();
+    }
+}
@@ -0,0 +1,150 @@
+package sim.service;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * Growable ring-buffer deque of primitive ints (passenger ids).
+ *
+ * Replaces {@code LinkedList<Integer>} for the engine's queues: no node or
+ * boxing allocation per enqueue, O(1) size / poll / indexed read, and missed
+ * passengers are purged by compacting the buffer in one pass.
+ */
+final class IntRingBuffer {
+    private int[] data;
+    private int head = 0;   // index of the first element
+    private int size = 0;
+
+    IntRingBuffer() {
+        this(16);
+    }
+
+    IntRingBuffer(int capacity) {
+        data = new int[Math.max(4, capacity)];
+    }
+
+    int size() { return size; }
+
+    boolean isEmpty() { return size == 0; }
+
+    int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return data[slot(index)];
+    }
+
+    /** Append at the tail. */
+    void add(int value) {
+        ensureCapacity(size + 1);
+        data[slot(size)] = value;
+        size++;
+    }
+
+    /** Bulk append at the tail. */
+    void addAll(int[] values) {
+        ensureCapacity(size + values.length);
+        for (int v : values) {
+            data[slot(size)] = v;
+            size++;
+        }
+    }
+
+    void addFirst(int value) {
+        ensureCapacity(size + 1);
+        head = (head - 1 + data.length) % data.length;
+        data[head] = value;
+        size++;
+    }
+
+    /** Remove and return the head. */
+    int poll() {
+        if (size == 0) throw new NoSuchElementException();
+        int v = data[head];
+        head = (head + 1) % data.length;
+        size--;
+        return v;
+    }
+
+    int removeLast() {
+        if (size == 0) throw new NoSuchElementException();
+        size--;
+        return data[slot(size)];
+    }
+
+    /** Insert at {@code index}, shifting later elements toward the tail. */
+    void insert(int index, int value) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        ensureCapacity(size + 1);
+        for (int i = size; i > index; i--) {
+            data[slot(i)] = data[slot(i - 1)];
+        }
+        data[slot(index)] = value;
+        size++;
+    }
+
+    /** Remove the element at {@code index}, shifting later elements toward the head. */
+    int removeAt(int index) {
+        int v = get(index);
+        for (int i = index; i < size - 1; i++) {
+            data[slot(i)] = data[slot(i + 1)];
+        }
+        size--;
+        return v;
+    }
+
+    /** Called for each element dropped by {@link #removeIf}, with its index among the kept elements. */
+    interface RemovalListener {
+        void removed(int index, int value);
+    }
+
+    /**
+     * Drop every element matching {@code filter} by compacting in place.
+     * Re-inserting the reported (index, value) pairs in reverse order restores the original order.
+     */
+    int removeIf(IntPredicate filter, RemovalListener listener) {
+        int w = 0;
+        for (int r = 0; r < size; r++) {
+            int v = data[slot(r)];
+            if (filter.test(v)) {
+                if (listener != null) listener.removed(w, v);
+            } else {
+                if (w != r) data[slot(w)] = v;
+                w++;
+            }
+        }
+        int removed = size - w;
+        size = w;
+        return removed;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /** Replace the contents with {@code values}. */
+    void setAll(int[] values) {
+        clear();
+        addAll(values);
+    }
+
+    int[] toArray() {
+        int[] out = new int[size];
+        int first = Math.min(size, data.length - head);
+        System.arraycopy(data, head, out, 0, first);
+        System.arraycopy(data, 0, out, first, size - first);
+        return out;
+    }
+
+    private int slot(int index) {
+        int s = head + index;
+        return s >= data.length ? s - data.length : s;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= data.length) return;
+        int[] grown = toArray();
+        data = Arrays.copyOf(grown, Math.max(needed, data.length * 2));
+        head = 0;
+    }
+}
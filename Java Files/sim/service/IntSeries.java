@@ -0,0 +1,93 @@
+package sim.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Append-only per-interval series of primitive ints.
+ *
+ * Values are keyed by interval index starting at {@code origin}. The length is
+ * the watermark: rewinding only lowers it, and keyframes record it instead of
+ * copying the values, because every value below it stays valid until a new
+ * future is simulated from an earlier interval (which also drops the keyframes
+ * past that point). Reads are O(1) and never box.
+ *
+ * Values past the watermark are not erased: they belong to the furthest
+ * future computed so far and stay readable through {@link #getRecorded(int)},
+ * so a view of a later interval can be built while the owner is rewound.
+ */
+final class IntSeries {
+    private final int origin;
+    private int[] values = new int[64];
+    private int length = 0;
+    private int recorded = 0;   // furthest value ever set, at or past the watermark
+
+    IntSeries(int origin) {
+        this.origin = origin;
+    }
+
+    /** Set the value at {@code index}, dropping anything recorded after it. */
+    void set(int index, int value) {
+        int i = index - origin;
+        if (i < 0 || i > length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", end: " + (origin + length));
+        }
+        if (i == values.length) values = Arrays.copyOf(values, values.length * 2);
+        values[i] = value;
+        length = i + 1;
+        recorded = Math.max(recorded, length);
+    }
+
+    /** Value at {@code index}, or 0 if nothing is recorded there. */
+    int get(int index) {
+        int i = index - origin;
+        return i >= 0 && i < length ? values[i] : 0;
+    }
+
+    /**
+     * Value at {@code index} even past the watermark, or 0 if it was never set.
+     * Past the watermark it is the value of the most recently computed future;
+     * the owner bounds such reads by how far that future is still valid.
+     */
+    int getRecorded(int index) {
+        int i = index - origin;
+        return i >= 0 && i < recorded ? values[i] : 0;
+    }
+
+    /** Watermark: number of recorded values. */
+    int length() {
+        return length;
+    }
+
+    /** Logically drop values past the first {@code length} (rewind); they are overwritten later. */
+    void truncate(int length) {
+        this.length = Math.max(0, Math.min(this.length, length));
+    }
+
+    /** Re-expose values up to {@code length} that are still in the array (keyframe restore). */
+    void restoreLength(int length) {
+        this.length = length;
+    }
+
+    void clear() {
+        length = 0;
+        recorded = 0;
+    }
+
+    /** Independent copy of the recorded values. */
+    IntSeries copy() {
+        IntSeries c = new IntSeries(origin);
+        c.values = Arrays.copyOf(values, Math.max(1, length));
+        c.length = length;
+        c.recorded = length;
+        return c;
+    }
+
+    /** Boxed {@code interval -> value} map, in interval order (export / charts that want a Map). */
+    Map<Integer, Integer> toMap() {
+        Map<Integer, Integer> map = new LinkedHashMap<>();
+        for (int i = 0; i < length; i++) map.put(origin + i, values[i]);
+        return map;
+    }
+}
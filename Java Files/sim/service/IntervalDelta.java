@@ -0,0 +1,123 @@
+package sim.service;
+
+import sim.model.Flight;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Journal record for one simulateInterval() call.
+ *
+ * Holds only the mutations that step performed (enqueue, serve, move, miss, purge)
+ * plus the few per-line scalars it touched, so the engine can undo or redo the
+ * step in time proportional to what actually changed.
+ */
+final class IntervalDelta {
+
+    enum Op {
+        ENQUEUE_TICKET,       // arrival appended to ticketLines[line]
+        ENQUEUE_CHECKPOINT,   // arrival or transfer appended to checkpointLines[line]
+        SERVE_TICKET,         // head of ticketLines[line] served and scheduled into pendingToCP
+        SERVE_CHECKPOINT,     // head of checkpointLines[line] served and scheduled into pendingToHold
+        TAKE_PENDING_CP,      // pendingToCP bucket for this minute drained
+        TAKE_PENDING_HOLD,    // pendingToHold bucket for this minute drained
+        MOVE_TO_HOLD,         // passenger appended to holdRoomLines[line]
+        MARK_MISSED,          // passenger flagged missed
+        PURGE                 // passenger removed from list at index
+    }
+
+    static final class Entry {
+        final Op op;
+        final int passenger;      // passenger id
+        final int line;
+        final int prevValue;      // field value before the step (minute / sequence)
+        final int prevValue2;     // second field value (hold-room sequence)
+        final int newValue;       // value written by the step (hold-room sequence)
+        final boolean flag;       // ENQUEUE_CHECKPOINT: passenger was visible at its ticket counter
+        final IntRingBuffer list;   // PURGE: list the passenger was removed from
+        final int[] bucket;               // TAKE_PENDING_*: copy of the drained bucket
+
+        private Entry(Op op, int passenger, int line, int prevValue, int prevValue2,
+                      int newValue, boolean flag, IntRingBuffer list, int[] bucket) {
+            this.op = op;
+            this.passenger = passenger;
+            this.line = line;
+            this.prevValue = prevValue;
+            this.prevValue2 = prevValue2;
+            this.newValue = newValue;
+            this.flag = flag;
+            this.list = list;
+            this.bucket = bucket;
+        }
+    }
+
+    /** Minute simulated by this step (currentInterval before the increment). */
+    final int minute;
+
+    final List<Entry> entries = new ArrayList<>();
+    final List<Flight> closedFlights = new ArrayList<>();
+
+    // passenger table size before / after the step (arrivals append new ids)
+    final int passengersBefore;
+    int passengersAfter;
+
+    final double[] counterProgressBefore;
+    final double[] checkpointProgressBefore;
+    double[] counterProgressAfter;
+    double[] checkpointProgressAfter;
+
+    // series values recorded for interval (minute + 1)
+    int heldUps;
+    int ticketQueued;
+    int checkpointQueued;
+    int holdRoomTotal;
+
+    IntervalDelta(int minute, int passengers, double[] counterProgress, double[] checkpointProgress) {
+        this.minute = minute;
+        this.passengersBefore = passengers;
+        this.counterProgressBefore = counterProgress.clone();
+        this.checkpointProgressBefore = checkpointProgress.clone();
+    }
+
+    void enqueueTicket(int line, int p) {
+        entries.add(new Entry(Op.ENQUEUE_TICKET, p, line, 0, 0, 0, false, null, null));
+    }
+
+    void enqueueCheckpoint(int line, int p, int prevEntryMinute, boolean wasVisible) {
+        entries.add(new Entry(Op.ENQUEUE_CHECKPOINT, p, line, prevEntryMinute, 0, 0, wasVisible, null, null));
+    }
+
+    void serveTicket(int line, int p, int prevCompletionMinute) {
+        entries.add(new Entry(Op.SERVE_TICKET, p, line, prevCompletionMinute, 0, 0, false, null, null));
+    }
+
+    void serveCheckpoint(int line, int p, int prevCompletionMinute) {
+        entries.add(new Entry(Op.SERVE_CHECKPOINT, p, line, prevCompletionMinute, 0, 0, false, null, null));
+    }
+
+    void takePendingToCP(int[] bucket) {
+        entries.add(new Entry(Op.TAKE_PENDING_CP, -1, -1, 0, 0, 0, false, null, bucket));
+    }
+
+    void takePendingToHold(int[] bucket) {
+        entries.add(new Entry(Op.TAKE_PENDING_HOLD, -1, -1, 0, 0, 0, false, null, bucket));
+    }
+
+    void moveToHold(int line, int p, int prevEntryMinute, int prevSequence, int newSequence) {
+        entries.add(new Entry(Op.MOVE_TO_HOLD, p, line, prevEntryMinute, prevSequence, newSequence, false, null, null));
+    }
+
+    void markMissed(int p) {
+        entries.add(new Entry(Op.MARK_MISSED, p, -1, 0, 0, 0, false, null, null));
+    }
+
+    void purge(IntRingBuffer list, int index, int p) {
+        entries.add(new Entry(Op.PURGE, p, index, 0, 0, 0, false, list, null));
+    }
+
+    void finish(int passengers, double[] counterProgress, double[] checkpointProgress) {
+        this.passengersAfter = passengers;
+        this.counterProgressAfter = counterProgress.clone();
+        this.checkpointProgressAfter = checkpointProgress.clone();
+    }
+}
@@ -0,0 +1,146 @@
+package sim.service;
+
+import sim.model.Flight;
+import sim.model.Passenger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable {@link EngineView} of one interval, for renderers.
+ *
+ * Every list is an unmodifiable copy and every {@link Passenger} in it is never
+ * written again, so a frame can be painted from any thread while the engine
+ * keeps running. The engine publishes its latest frame through one atomic
+ * reference, see {@link SimulationEngine#getLatestFrame()}. Between intervals
+ * nobody is in the middle of service, so the lines are the whole state a
+ * renderer needs.
+ */
+public final class IntervalFrame implements EngineView {
+    private final int currentInterval;
+    private final List<Flight> flights;
+    private final CompiledScenario scenario;
+    private final int arrivalSpanMinutes;
+    private final int intervalMinutes;
+    private final int[] counterIds;
+
+    private final List<List<Passenger>> queuedTicket;
+    private final List<List<Passenger>> servedTicket;
+    private final List<List<Passenger>> visibleServedTicket;
+    private final List<List<Passenger>> queuedCheckpoint;
+    private final List<List<Passenger>> servedCheckpoint;
+    private final List<List<Passenger>> holdRooms;
+
+    private final int heldUps;
+    private final int ticketQueued;
+    private final int checkpointQueued;
+    private final int holdRoomTotal;
+    private final int arrivals;
+
+    // per line: peak length over the recorded run, and the first step it was reached
+    private final int[] peakQueuedTicket;
+    private final int[] peakQueuedTicketStep;
+    private final int[] peakQueuedCheckpoint;
+    private final int[] peakQueuedCheckpointStep;
+
+    /**
+     * Copy interval {@code currentInterval} out of a run's history and series.
+     * Reads {@code views} and the histories' member caches, so call it from the
+     * one thread that owns them.
+     */
+    IntervalFrame(int currentInterval,
+                  List<Flight> flights,
+                  CompiledScenario scenario,
+                  int arrivalSpanMinutes,
+                  int intervalMinutes,
+                  int[] counterIds,
+                  int transitDelayMinutes,
+                  PassengerViewCache views,
+                  LineHistory historyQueuedTicket,
+                  LineHistory historyServedTicket,
+                  LineHistory historyQueuedCheckpoint,
+                  LineHistory historyServedCheckpoint,
+                  LineHistory historyHoldRooms,
+                  int heldUps,
+                  int ticketQueued,
+                  int checkpointQueued,
+                  int holdRoomTotal) {
+        this.currentInterval = currentInterval;
+        this.flights = flights;
+        this.scenario = scenario;
+        this.arrivalSpanMinutes = arrivalSpanMinutes;
+        this.intervalMinutes = intervalMinutes;
+        this.counterIds = counterIds;
+
+        int step = currentInterval - 1;
+        this.queuedTicket = lines(historyQueuedTicket, step, views);
+        this.servedTicket = lines(historyServedTicket, step, views);
+        this.queuedCheckpoint = lines(historyQueuedCheckpoint, step, views);
+        this.servedCheckpoint = lines(historyServedCheckpoint, step, views);
+        this.holdRooms = lines(historyHoldRooms, step, views);
+
+        // served at a counter and still walking to the checkpoint at this step
+        List<List<Passenger>> visible = new ArrayList<>(servedTicket.size());
+        for (List<Passenger> line : servedTicket) {
+            List<Passenger> walking = new ArrayList<>();
+            for (Passenger p : line) {
+                if (p.getTicketCompletionMinute() + transitDelayMinutes > step) walking.add(p);
+            }
+            visible.add(Collections.unmodifiableList(walking));
+        }
+        this.visibleServedTicket = Collections.unmodifiableList(visible);
+
+        this.heldUps = heldUps;
+        this.ticketQueued = ticketQueued;
+        this.checkpointQueued = checkpointQueued;
+        this.holdRoomTotal = holdRoomTotal;
+        this.arrivals = currentInterval > 0 ? scenario.getTotalArrivalsAt(currentInterval - 1) : 0;
+
+        this.peakQueuedTicket = new int[historyQueuedTicket.lines()];
+        this.peakQueuedTicketStep = new int[historyQueuedTicket.lines()];
+        historyQueuedTicket.peaks(peakQueuedTicket, peakQueuedTicketStep);
+        this.peakQueuedCheckpoint = new int[historyQueuedCheckpoint.lines()];
+        this.peakQueuedCheckpointStep = new int[historyQueuedCheckpoint.lines()];
+        historyQueuedCheckpoint.peaks(peakQueuedCheckpoint, peakQueuedCheckpointStep);
+    }
+
+    /** Unmodifiable per-line lists of {@code history} at {@code step} (empty lines before step 0). */
+    private static List<List<Passenger>> lines(LineHistory history, int step, PassengerViewCache views) {
+        List<List<Passenger>> lines = new ArrayList<>(history.lines());
+        for (int l = 0; l < history.lines(); l++) {
+            lines.add(step < 0 ? Collections.emptyList() : views.list(history.members(step, l)));
+        }
+        return Collections.unmodifiableList(lines);
+    }
+
+    // === RUN ===
+    @Override public List<Flight> getFlights() { return flights; }
+    @Override public CompiledScenario getScenario() { return scenario; }
+    @Override public int getArrivalSpan() { return arrivalSpanMinutes; }
+    @Override public int getInterval() { return intervalMinutes; }
+    @Override public int getCounterId(int line) { return counterIds[line]; }
+    @Override public int getTicketLineCount() { return queuedTicket.size(); }
+    @Override public int getCheckpointLineCount() { return queuedCheckpoint.size(); }
+
+    // === THIS INTERVAL ===
+    @Override public int getCurrentInterval() { return currentInterval; }
+    @Override public List<List<Passenger>> getQueuedTicket() { return queuedTicket; }
+    @Override public List<List<Passenger>> getServedTicket() { return servedTicket; }
+    @Override public List<List<Passenger>> getVisibleServedTicket() { return visibleServedTicket; }
+    @Override public List<List<Passenger>> getQueuedCheckpoint() { return queuedCheckpoint; }
+    @Override public List<List<Passenger>> getServedCheckpoint() { return servedCheckpoint; }
+    @Override public List<List<Passenger>> getHoldRooms() { return holdRooms; }
+
+    @Override public int getHeldUps() { return heldUps; }
+    @Override public int getTicketQueued() { return ticketQueued; }
+    @Override public int getCheckpointQueued() { return checkpointQueued; }
+    @Override public int getHoldRoomTotal() { return holdRoomTotal; }
+    @Override public int getArrivals() { return arrivals; }
+
+    // === WHOLE RUN ===
+    @Override public int getPeakQueuedTicket(int line) { return peakQueuedTicket[line]; }
+    @Override public int getPeakQueuedTicketStep(int line) { return peakQueuedTicketStep[line]; }
+    @Override public int getPeakQueuedCheckpoint(int line) { return peakQueuedCheckpoint[line]; }
+    @Override public int getPeakQueuedCheckpointStep(int line) { return peakQueuedCheckpointStep[line]; }
+}
@@ -0,0 +1,210 @@
+package sim.service;
+
+import sim.model.Passenger;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-step history of one family of lines (ticket queues, completed ticket
+ * lines, checkpoint queues, completed checkpoint lines or hold rooms).
+ *
+ * Instead of copying every line's ids each step, a step records three ints per
+ * line: the line's length, and the window of the line's join log it covers.
+ * Each line's join log holds every id that was ever recorded in it, in queue
+ * order. Lines only grow at the tail and lose passengers at the head (service)
+ * or through a missed-flight purge, so the members at a step are exactly the
+ * ids in its window that had not been purged yet. Members are rebuilt from the
+ * log only when a renderer asks for them; sizes come straight from the counts.
+ *
+ * History is recorded once per computed step and survives rewinds; it is
+ * trimmed only when a rewound engine simulates a different future.
+ */
+final class LineHistory {
+    private static final int NONE = -1;
+    private static final int NEVER = Integer.MAX_VALUE;
+
+    private final int lines;
+
+    // per step: counts in [0, lines), window starts in [lines, 2 lines), window ends in [2 lines, 3 lines)
+    private final List<int[]> steps = new ArrayList<>();
+
+    // every id recorded in each line, in queue order
+    private final IntRingBuffer[] logs;
+
+    // per passenger id: position in its line's log, and the step after which it was purged
+    private int[] logPos = new int[64];
+    private int[] purgedAt = new int[64];
+
+    // ids with a purge step, in step order (so a trim can undo them)
+    private final IntRingBuffer purgeOrder = new IntRingBuffer();
+
+    // the step whose members were rebuilt last (renderers read one step at a time)
+    private int cachedStep = -1;
+    private int[][] cachedMembers;
+
+    LineHistory(int lines) {
+        this.lines = lines;
+        this.logs = new IntRingBuffer[lines];
+        for (int i = 0; i < lines; i++) logs[i] = new IntRingBuffer();
+        Arrays.fill(logPos, NONE);
+        Arrays.fill(purgedAt, NEVER);
+    }
+
+    /** Record the lines as they stand at the end of the next step. */
+    void record(List<IntRingBuffer> live) {
+        int[] row = new int[lines * 3];
+        for (int l = 0; l < lines; l++) {
+            IntRingBuffer line = live.get(l);
+            IntRingBuffer log = logs[l];
+
+            // newcomers since the last record sit at the tail and have no log position yet
+            int n = line.size();
+            int first = n;
+            while (first > 0 && posOf(line.get(first - 1)) == NONE) first--;
+            for (int i = first; i < n; i++) {
+                int id = line.get(i);
+                ensureCapacity(id);
+                logPos[id] = log.size();
+                log.add(id);
+            }
+
+            row[l] = n;
+            row[lines + l] = n == 0 ? log.size() : logPos[line.get(0)];
+            row[2 * lines + l] = log.size();
+        }
+
+        // unchanged lines (an idle minute) share the previous row
+        if (!steps.isEmpty() && Arrays.equals(steps.get(steps.size() - 1), row)) {
+            row = steps.get(steps.size() - 1);
+        }
+        steps.add(row);
+    }
+
+    /** Passenger {@code id} was purged from its line after {@code step} was recorded. */
+    void purged(int id, int step) {
+        ensureCapacity(id);
+        purgedAt[id] = step;
+        purgeOrder.add(id);
+        cachedStep = -1;
+    }
+
+    /** Forget steps at or after {@code fromStep}, and every log entry and purge they added. */
+    void trim(int fromStep) {
+        if (fromStep >= steps.size()) return;
+        int[] keep = fromStep > 0 ? steps.get(fromStep - 1) : null;
+        for (int l = 0; l < lines; l++) {
+            int size = keep == null ? 0 : keep[2 * lines + l];
+            IntRingBuffer log = logs[l];
+            while (log.size() > size) logPos[log.removeLast()] = NONE;
+        }
+        while (!purgeOrder.isEmpty() && purgedAt[purgeOrder.get(purgeOrder.size() - 1)] >= fromStep) {
+            purgedAt[purgeOrder.removeLast()] = NEVER;
+        }
+        while (steps.size() > fromStep) steps.remove(steps.size() - 1);
+        cachedStep = -1;
+    }
+
+    void clear() {
+        trim(0);
+    }
+
+    int size() {
+        return steps.size();
+    }
+
+    /** Number of lines in this family. */
+    int lines() {
+        return lines;
+    }
+
+    /** Length of {@code line} at {@code step}. */
+    int count(int step, int line) {
+        return steps.get(step)[line];
+    }
+
+    /** Longest length of each line over all steps, and the first step it was reached (0 if never used). */
+    void peaks(int[] sizes, int[] steps) {
+        for (int l = 0; l < lines; l++) {
+            sizes[l] = 0;
+            steps[l] = 0;
+        }
+        for (int s = 0; s < this.steps.size(); s++) {
+            int[] row = this.steps.get(s);
+            for (int l = 0; l < lines; l++) {
+                if (row[l] > sizes[l]) {
+                    sizes[l] = row[l];
+                    steps[l] = s;
+                }
+            }
+        }
+    }
+
+    /** Ids in {@code line} at {@code step}, rebuilt from the log. */
+    int[] members(int step, int line) {
+        if (cachedStep != step) {
+            cachedMembers = new int[lines][];
+            cachedStep = step;
+        }
+        int[] ids = cachedMembers[line];
+        if (ids == null) {
+            int[] row = steps.get(step);
+            IntRingBuffer log = logs[line];
+            ids = new int[row[line]];
+            int n = 0;
+            for (int i = row[lines + line]; i < row[2 * lines + line]; i++) {
+                int id = log.get(i);
+                if (purgedAt[id] >= step) ids[n++] = id;
+            }
+            cachedMembers[line] = ids;
+        }
+        return ids;
+    }
+
+    /** Independent copy (recorded steps are never written again, so they are shared). */
+    LineHistory copy() {
+        LineHistory c = new LineHistory(lines);
+        c.steps.addAll(steps);
+        for (int l = 0; l < lines; l++) c.logs[l].setAll(logs[l].toArray());
+        c.logPos = logPos.clone();
+        c.purgedAt = purgedAt.clone();
+        c.purgeOrder.setAll(purgeOrder.toArray());
+        return c;
+    }
+
+    /** {@code List<step, List<line, List<Passenger>>>} over this history; sizes never rebuild members. */
+    List<List<List<Passenger>>> view(PassengerTable table) {
+        return new AbstractList<List<List<Passenger>>>() {
+            @Override
+            public List<List<Passenger>> get(int step) {
+                if (step < 0 || step >= steps.size()) {
+                    throw new IndexOutOfBoundsException("Step: " + step + ", Size: " + steps.size());
+                }
+                return new AbstractList<List<Passenger>>() {
+                    @Override
+                    public List<Passenger> get(int line) {
+                        return new PassengerListView(table, count(step, line), () -> members(step, line));
+                    }
+                    @Override public int size() { return lines; }
+                };
+            }
+            @Override public int size() { return steps.size(); }
+        };
+    }
+
+    private int posOf(int id) {
+        return id < logPos.length ? logPos[id] : NONE;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < logPos.length) return;
+        int old = logPos.length;
+        int grown = Math.max(id + 1, old * 2);
+        logPos = Arrays.copyOf(logPos, grown);
+        purgedAt = Arrays.copyOf(purgedAt, grown);
+        Arrays.fill(logPos, old, grown, NONE);
+        Arrays.fill(purgedAt, old, grown, NEVER);
+    }
+}
@@ -0,0 +1,53 @@
+package sim.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs {@code body(0..n-1)} on a fork-join pool, one index per leaf task.
+ *
+ * Each index is a whole simulation run, so the range is halved all the way
+ * down and idle workers steal the other halves. Callers write results into
+ * their own slot per index, which keeps the outcome independent of scheduling.
+ * Once one index throws, indexes not yet started are skipped and the exception
+ * reaches the caller.
+ */
+final class ParallelRange {
+    private ParallelRange() {}
+
+    static void forEach(ForkJoinPool pool, int n, IntConsumer body) {
+        if (n > 0) pool.invoke(new Split(0, n, body, new AtomicBoolean()));
+    }
+
+    private static final class Split extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+        private final AtomicBoolean failed;
+
+        Split(int from, int to, IntConsumer body, AtomicBoolean failed) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+            this.failed = failed;
+        }
+
+        @Override
+        protected void compute() {
+            if (failed.get()) return;
+            if (to - from == 1) {
+                try {
+                    body.accept(from);
+                } catch (RuntimeException | Error e) {
+                    failed.set(true);
+                    throw e;
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Split(from, mid, body, failed), new Split(mid, to, body, failed));
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package sim.service;
+
+import sim.model.Flight;
+import sim.ui.TicketCounterConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Evaluates every combination of a set of values for the capacity parameters
+ * (counter count and rate, checkpoint count and rate, in-person share, transit
+ * and hold-room delays) over one flight schedule, in parallel.
+ *
+ * Each axis starts as the single base value, so a sweep varies only the axes
+ * that are set. Points run headless ({@link SimulationEngine.RewindMode#NONE},
+ * next-event mode) and one engine serves all replications of its point. With
+ * replications every point uses the same seeds, so differences between points
+ * come from the configuration rather than from luck.
+ *
+ * Counter {@code i} of a point copies base counter {@code i} (rate and allowed
+ * flights); counters beyond the base list accept every flight at rate 1.
+ */
+public final class ParameterSweep {
+    private final List<Flight> flights;
+    private final List<TicketCounterConfig> baseCounters;
+    private final int arrivalSpanMinutes;
+    private final int intervalMinutes;
+
+    private int[] counterCounts;
+    private double[] counterRates = { Double.NaN };
+    private int[] checkpointCounts;
+    private double[] checkpointRates;
+    private double[] percentsInPerson;
+    private int[] transitDelays;
+    private int[] holdDelays;
+
+    private int replications = 1;
+    private long masterSeed;
+
+    public ParameterSweep(List<Flight> flights,
+                          List<TicketCounterConfig> baseCounters,
+                          double percentInPerson,
+                          int numCheckpoints,
+                          double checkpointRate,
+                          int arrivalSpanMinutes,
+                          int intervalMinutes,
+                          int transitDelayMinutes,
+                          int holdDelayMinutes) {
+        this.flights = Collections.unmodifiableList(new ArrayList<>(flights));
+        // private copies: the setup panels stay editable while a sweep runs
+        List<TicketCounterConfig> counters = new ArrayList<>();
+        for (TicketCounterConfig c : baseCounters) {
+            counters.add(new TicketCounterConfig(c.getId(), c.getRate(), c.getAllowedFlights()));
+        }
+        this.baseCounters = Collections.unmodifiableList(counters);
+        this.arrivalSpanMinutes = arrivalSpanMinutes;
+        this.intervalMinutes = intervalMinutes;
+
+        this.counterCounts = new int[] { baseCounters.size() };
+        this.checkpointCounts = new int[] { numCheckpoints };
+        this.checkpointRates = new double[] { checkpointRate };
+        this.percentsInPerson = new double[] { percentInPerson };
+        this.transitDelays = new int[] { transitDelayMinutes };
+        this.holdDelays = new int[] { holdDelayMinutes };
+    }
+
+    private ParameterSweep(ParameterSweep other) {
+        this.flights = other.flights;
+        this.baseCounters = other.baseCounters;
+        this.arrivalSpanMinutes = other.arrivalSpanMinutes;
+        this.intervalMinutes = other.intervalMinutes;
+        this.counterCounts = other.counterCounts;
+        this.counterRates = other.counterRates;
+        this.checkpointCounts = other.checkpointCounts;
+        this.checkpointRates = other.checkpointRates;
+        this.percentsInPerson = other.percentsInPerson;
+        this.transitDelays = other.transitDelays;
+        this.holdDelays = other.holdDelays;
+        this.replications = other.replications;
+        this.masterSeed = other.masterSeed;
+    }
+
+    /**
+     * A sweep over the same setup with the same axes and replications, to be
+     * changed and run on its own: setting its axes leaves this one alone, so
+     * points still running here keep reading what they started with.
+     */
+    public ParameterSweep copy() {
+        return new ParameterSweep(this);
+    }
+
+    // === AXES (each needs at least one value) ===
+    public void setCounterCounts(int... values) { counterCounts = axis(values, 1); }
+    /** Rate for every counter; NaN keeps each counter's base rate. */
+    public void setCounterRates(double... values) { counterRates = axis(values); }
+    public void setCheckpointCounts(int... values) { checkpointCounts = axis(values, 1); }
+    public void setCheckpointRates(double... values) { checkpointRates = axis(values); }
+    public void setPercentsInPerson(double... values) { percentsInPerson = axis(values); }
+    public void setTransitDelays(int... values) { transitDelays = axis(values, 0); }
+    public void setHoldDelays(int... values) { holdDelays = axis(values, 0); }
+
+    public int[] getCounterCounts() { return counterCounts.clone(); }
+    public double[] getCounterRates() { return counterRates.clone(); }
+    public int[] getCheckpointCounts() { return checkpointCounts.clone(); }
+    public double[] getCheckpointRates() { return checkpointRates.clone(); }
+    public double[] getPercentsInPerson() { return percentsInPerson.clone(); }
+    public int[] getTransitDelays() { return transitDelays.clone(); }
+    public int[] getHoldDelays() { return holdDelays.clone(); }
+
+    /**
+     * Run every point {@code replications} times with seeds split off
+     * {@code masterSeed} (sampled arrivals and service, see
+     * {@link SimulationEngine#setRandomSeed(long)}); 1 means one deterministic run.
+     */
+    public void setReplications(int replications, long masterSeed) {
+        if (replications < 1) {
+            throw new IllegalArgumentException("At least one replication is required: " + replications);
+        }
+        this.replications = replications;
+        this.masterSeed = masterSeed;
+    }
+
+    public int getReplications() { return replications; }
+    public List<Flight> getFlights() { return flights; }
+
+    /** Number of points: the product of the axis sizes. */
+    public int size() {
+        long n = (long) counterCounts.length * counterRates.length * checkpointCounts.length
+                * checkpointRates.length * percentsInPerson.length * transitDelays.length * holdDelays.length;
+        if (n > Integer.MAX_VALUE) throw new IllegalStateException("Sweep too large: " + n + " points");
+        return (int) n;
+    }
+
+    /** The point of the base setup: the first value of every axis. */
+    public SweepPoint basePoint() {
+        return new SweepPoint(counterCounts[0], counterRates[0], checkpointCounts[0],
+                checkpointRates[0], percentsInPerson[0], transitDelays[0], holdDelays[0]);
+    }
+
+    /** Every point, the last axis (hold delay) varying fastest. */
+    public List<SweepPoint> points() {
+        List<SweepPoint> points = new ArrayList<>(size());
+        for (int counters : counterCounts)
+            for (double counterRate : counterRates)
+                for (int checkpoints : checkpointCounts)
+                    for (double checkpointRate : checkpointRates)
+                        for (double inPerson : percentsInPerson)
+                            for (int transit : transitDelays)
+                                for (int hold : holdDelays)
+                                    points.add(new SweepPoint(counters, counterRate, checkpoints,
+                                            checkpointRate, inPerson, transit, hold));
+        return points;
+    }
+
+    public List<SweepResult> run() {
+        return run(ForkJoinPool.commonPool(), r -> { });
+    }
+
+    /**
+     * Evaluate every point on {@code pool}. {@code onResult} is called from the
+     * pool's threads as each point finishes; an exception thrown from it (for
+     * instance a cancellation) stops the sweep and propagates. The returned list
+     * is in {@link #points()} order.
+     */
+    public List<SweepResult> run(ForkJoinPool pool, Consumer<SweepResult> onResult) {
+        List<SweepPoint> points = points();
+        SweepResult[] results = new SweepResult[points.size()];
+        ParallelRange.forEach(pool, results.length, i -> {
+            results[i] = evaluate(points.get(i));
+            onResult.accept(results[i]);
+        });
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /** Run one point (all its replications) on the calling thread. */
+    public SweepResult evaluate(SweepPoint point) {
+        SimulationEngine engine = newEngine(point);
+        List<RunMetrics> runs = new ArrayList<>(replications);
+        long[] seeds = replications > 1 ? ReplicationRunner.seeds(replications, masterSeed) : null;
+        for (int r = 0; r < replications; r++) {
+            if (seeds != null) engine.runAllIntervals(seeds[r]);
+            else engine.runAllIntervals();
+            runs.add(engine.getMetrics());
+        }
+        return new SweepResult(point, runs);
+    }
+
+    /**
+     * Run one point with its replications spread over {@code pool}: one engine
+     * per worker, each taking every n-th seed. Same runs, in the same order,
+     * as {@link #evaluate(SweepPoint)}.
+     */
+    public SweepResult evaluate(SweepPoint point, ForkJoinPool pool) {
+        if (replications == 1) return evaluate(point);
+        long[] seeds = ReplicationRunner.seeds(replications, masterSeed);
+        RunMetrics[] runs = new RunMetrics[replications];
+        int workers = Math.min(replications, pool.getParallelism());
+        ParallelRange.forEach(pool, workers, w -> {
+            SimulationEngine engine = newEngine(point);
+            for (int r = w; r < replications; r += workers) {
+                engine.runAllIntervals(seeds[r]);
+                runs[r] = engine.getMetrics();
+            }
+        });
+        return new SweepResult(point, Arrays.asList(runs));
+    }
+
+    /** A headless, next-event engine for {@code point}, not yet run. */
+    public SimulationEngine newEngine(SweepPoint point) {
+        return newEngine(point, countersFor(point), SimulationEngine.RewindMode.NONE);
+    }
+
+    /** Next-event engine for {@code point} running on the caller's {@code counters}. */
+    SimulationEngine newEngine(SweepPoint point, List<TicketCounterConfig> counters,
+                               SimulationEngine.RewindMode mode) {
+        SimulationEngine engine = new SimulationEngine(
+                point.getPercentInPerson(),
+                counters,
+                point.getNumCheckpoints(),
+                point.getCheckpointRate(),
+                arrivalSpanMinutes,
+                intervalMinutes,
+                point.getTransitDelayMinutes(),
+                point.getHoldDelayMinutes(),
+                flights,
+                mode);
+        engine.setNextEventMode(true);
+        return engine;
+    }
+
+    /** The counters of {@code point}, numbered from 1. */
+    public List<TicketCounterConfig> countersFor(SweepPoint point) {
+        List<TicketCounterConfig> counters = new ArrayList<>(point.getCounterCount());
+        for (int i = 0; i < point.getCounterCount(); i++) {
+            TicketCounterConfig base = i < baseCounters.size() ? baseCounters.get(i) : null;
+            double rate = !Double.isNaN(point.getCounterRate()) ? point.getCounterRate()
+                    : base != null ? base.getRate() : 1.0;
+            Set<Flight> allowed = base != null ? base.getAllowedFlights() : Collections.emptySet();
+            counters.add(new TicketCounterConfig(i + 1, rate, allowed));
+        }
+        return counters;
+    }
+
+    // === VALUE LISTS ===
+
+    /**
+     * Parse an axis written as comma-separated values and ranges, e.g.
+     * {@code "1, 2..4, 0.5..1 step 0.25"}, into its values, in order.
+     */
+    public static double[] parseAxis(String text) {
+        List<Double> values = new ArrayList<>();
+        for (String part : text.split(",")) {
+            String item = part.trim();
+            if (item.isEmpty()) continue;
+            int dots = item.indexOf("..");
+            if (dots < 0) {
+                values.add(Double.parseDouble(item));
+                continue;
+            }
+            String[] toAndStep = item.substring(dots + 2).trim().split("\\s+step\\s+");
+            double from = Double.parseDouble(item.substring(0, dots).trim());
+            double to = Double.parseDouble(toAndStep[0].trim());
+            double step = toAndStep.length > 1 ? Double.parseDouble(toAndStep[1].trim()) : 1;
+            if (step <= 0 || to < from) throw new IllegalArgumentException("Bad range: " + item);
+            long n = (long) Math.floor((to - from) / step + 1e-9) + 1;
+            for (long i = 0; i < n; i++) {
+                values.add(Math.round((from + i * step) * 1e9) / 1e9);
+            }
+        }
+        if (values.isEmpty()) throw new IllegalArgumentException("Every axis needs at least one value");
+        double[] result = new double[values.size()];
+        for (int i = 0; i < result.length; i++) result[i] = values.get(i);
+        return result;
+    }
+
+    /** {@link #parseAxis} for axes of whole numbers (counts and delays). */
+    public static int[] parseWholeAxis(String text) {
+        double[] values = parseAxis(text);
+        int[] ints = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != Math.rint(values[i])) {
+                throw new IllegalArgumentException("Whole number expected: " + values[i]);
+            }
+            ints[i] = (int) values[i];
+        }
+        return ints;
+    }
+
+    private static int[] axis(int[] values, int min) {
+        if (values.length == 0) throw new IllegalArgumentException("An axis needs at least one value");
+        for (int v : values) {
+            if (v < min) throw new IllegalArgumentException("Value " + v + " is below " + min);
+        }
+        return values.clone();
+    }
+
+    private static double[] axis(double[] values) {
+        if (values.length == 0) throw new IllegalArgumentException("An axis needs at least one value");
+        return values.clone();
+    }
+}
@@ -0,0 +1,53 @@
+package sim.service;
+
+import sim.model.Passenger;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-only {@code List<Passenger>} over a sequence of passenger ids.
+ * Elements are materialized from the {@link PassengerTable} only when read.
+ */
+final class PassengerListView extends AbstractList<Passenger> {
+    private final PassengerTable table;
+    private final IntRingBuffer idLine;  // live ids (engine line)
+    private final int size;              // history: known length
+    private final Supplier<int[]> ids;   // history: ids, rebuilt on first read
+    private int[] idArray;
+
+    PassengerListView(PassengerTable table, IntRingBuffer ids) {
+        this.table = table;
+        this.idLine = ids;
+        this.size = -1;
+        this.ids = null;
+    }
+
+    PassengerListView(PassengerTable table, int size, Supplier<int[]> ids) {
+        this.table = table;
+        this.idLine = null;
+        this.size = size;
+        this.ids = ids;
+    }
+
+    @Override
+    public Passenger get(int index) {
+        if (idLine != null) return table.view(idLine.get(index));
+        if (idArray == null) idArray = ids.get();
+        return table.view(idArray[index]);
+    }
+
+    @Override
+    public int size() {
+        return idLine != null ? idLine.size() : size;
+    }
+
+    /** Adapter for a family of lines (one list per counter / checkpoint / flight). */
+    static List<List<Passenger>> ofLines(PassengerTable table, List<IntRingBuffer> lines) {
+        return new AbstractList<List<Passenger>>() {
+            @Override public List<Passenger> get(int i) { return new PassengerListView(table, lines.get(i)); }
+            @Override public int size() { return lines.size(); }
+        };
+    }
+}
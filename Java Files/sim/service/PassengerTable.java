@@ -0,0 +1,209 @@
+package sim.service;
+
+import sim.model.Flight;
+import sim.model.Passenger;
+
+import java.util.Arrays;
+
+/**
+ * Engine-internal passenger storage (struct of arrays).
+ *
+ * Every passenger is a dense int id; its attributes live in parallel primitive
+ * arrays instead of one heap object per passenger. Ids are handed out in arrival
+ * order, so a replayed interval recreates exactly the same ids. {@link Passenger}
+ * instances are only built on demand via {@link #view(int)} for the UI.
+ *
+ * The table also indexes ids by flight, and remembers the counter and
+ * checkpoint line each passenger last joined, so a boarding close can find the
+ * affected passengers and lines without scanning every queue.
+ *
+ * Every write to a row bumps that id's stamp, so a cache of views can tell
+ * which passengers changed since it last built them.
+ */
+final class PassengerTable {
+    static final byte IN_PERSON      = 1;
+    static final byte MISSED         = 2;
+    static final byte TICKET_VISIBLE = 4;   // finished at a counter, still walking to the checkpoint
+
+    private final Flight[] flights;
+
+    private int count = 0;
+    private int[] flight                     = new int[64];
+    private int[] arrivalMinute              = new int[64];
+    private int[] ticketCompletionMinute     = new int[64];
+    private int[] checkpointEntryMinute      = new int[64];
+    private int[] checkpointCompletionMinute = new int[64];
+    private int[] holdRoomEntryMinute        = new int[64];
+    private int[] holdRoomSequence           = new int[64];
+    private int[] ticketLine                 = new int[64];   // counter index, -1 for online
+    private int[] checkpointLine             = new int[64];   // checkpoint index, -1 before
+    private byte[] flags                     = new byte[64];
+    private int[] stamp                      = new int[64];   // bumped on every write, never reset
+
+    // ids of each flight, ascending (only ids below count)
+    private final IntRingBuffer[] byFlight;
+
+    PassengerTable(Flight[] flights) {
+        this.flights = flights;
+        this.byFlight = new IntRingBuffer[flights.length];
+        for (int i = 0; i < flights.length; i++) byFlight[i] = new IntRingBuffer();
+    }
+
+    /** Register a new arrival and return its id. */
+    int add(int flightOrdinal, int minute, boolean inPerson) {
+        if (count == flight.length) grow(count * 2);
+        int id = count++;
+        flight[id] = flightOrdinal;
+        arrivalMinute[id] = minute;
+        ticketCompletionMinute[id] = 0;
+        checkpointEntryMinute[id] = 0;
+        checkpointCompletionMinute[id] = 0;
+        holdRoomEntryMinute[id] = -1;
+        holdRoomSequence[id] = -1;
+        ticketLine[id] = -1;
+        checkpointLine[id] = -1;
+        flags[id] = inPerson ? IN_PERSON : 0;
+        stamp[id]++;
+        byFlight[flightOrdinal].add(id);
+        return id;
+    }
+
+    int size() { return count; }
+
+    /** Forget every id at or above {@code n} (used when rewinding arrivals). */
+    void truncate(int n) {
+        if (n >= count) return;
+        for (int id = count - 1; id >= n; id--) byFlight[flight[id]].removeLast();
+        count = n;
+    }
+
+    /** Re-expose ids up to {@code n} whose data is still in the arrays (journal redo). */
+    void restoreCount(int n) {
+        for (int id = count; id < n; id++) byFlight[flight[id]].add(id);
+        count = Math.max(count, n);
+    }
+
+    /** Every id of flight {@code flightOrdinal}, ascending (read only). */
+    IntRingBuffer passengersOf(int flightOrdinal) { return byFlight[flightOrdinal]; }
+
+    int flightOrdinal(int id)               { return flight[id]; }
+    int arrivalMinute(int id)               { return arrivalMinute[id]; }
+    int ticketCompletionMinute(int id)      { return ticketCompletionMinute[id]; }
+    int checkpointEntryMinute(int id)       { return checkpointEntryMinute[id]; }
+    int checkpointCompletionMinute(int id)  { return checkpointCompletionMinute[id]; }
+    int holdRoomEntryMinute(int id)         { return holdRoomEntryMinute[id]; }
+    int holdRoomSequence(int id)            { return holdRoomSequence[id]; }
+    int ticketLine(int id)                  { return ticketLine[id]; }
+    int checkpointLine(int id)              { return checkpointLine[id]; }
+    boolean isInPerson(int id)              { return (flags[id] & IN_PERSON) != 0; }
+    boolean isMissed(int id)                { return (flags[id] & MISSED) != 0; }
+    boolean isTicketVisible(int id)         { return (flags[id] & TICKET_VISIBLE) != 0; }
+    int stamp(int id)                       { return stamp[id]; }
+
+    void setTicketCompletionMinute(int id, int m)     { ticketCompletionMinute[id] = m; stamp[id]++; }
+    void setCheckpointEntryMinute(int id, int m)      { checkpointEntryMinute[id] = m; stamp[id]++; }
+    void setCheckpointCompletionMinute(int id, int m) { checkpointCompletionMinute[id] = m; stamp[id]++; }
+    void setHoldRoomEntryMinute(int id, int m)        { holdRoomEntryMinute[id] = m; stamp[id]++; }
+    void setHoldRoomSequence(int id, int seq)         { holdRoomSequence[id] = seq; stamp[id]++; }
+    void setTicketLine(int id, int line)              { ticketLine[id] = line; stamp[id]++; }
+    void setCheckpointLine(int id, int line)          { checkpointLine[id] = line; stamp[id]++; }
+    void setMissed(int id, boolean v)                 { setFlag(id, MISSED, v); }
+    void setTicketVisible(int id, boolean v)          { setFlag(id, TICKET_VISIBLE, v); }
+
+    private void setFlag(int id, byte flag, boolean v) {
+        flags[id] = (byte) (v ? (flags[id] | flag) : (flags[id] & ~flag));
+        stamp[id]++;
+    }
+
+    /** Materialize a read-only Passenger for the UI (click-to-inspect, rendering). */
+    Passenger view(int id) {
+        Passenger p = new Passenger(flights[flight[id]], arrivalMinute[id], isInPerson(id));
+        p.setTicketCompletionMinute(ticketCompletionMinute[id]);
+        p.setCheckpointEntryMinute(checkpointEntryMinute[id]);
+        p.setCheckpointCompletionMinute(checkpointCompletionMinute[id]);
+        p.setHoldRoomEntryMinute(holdRoomEntryMinute[id]);
+        p.setHoldRoomSequence(holdRoomSequence[id]);
+        p.setMissed(isMissed(id));
+        return p;
+    }
+
+    // ============================
+    // Snapshots (plain array copies)
+    // ============================
+
+    static final class Snapshot {
+        final int count;
+        final int[] flight;
+        final int[] arrivalMinute;
+        final int[] ticketCompletionMinute;
+        final int[] checkpointEntryMinute;
+        final int[] checkpointCompletionMinute;
+        final int[] holdRoomEntryMinute;
+        final int[] holdRoomSequence;
+        final int[] ticketLine;
+        final int[] checkpointLine;
+        final byte[] flags;
+
+        private Snapshot(PassengerTable t) {
+            count = t.count;
+            flight = Arrays.copyOf(t.flight, count);
+            arrivalMinute = Arrays.copyOf(t.arrivalMinute, count);
+            ticketCompletionMinute = Arrays.copyOf(t.ticketCompletionMinute, count);
+            checkpointEntryMinute = Arrays.copyOf(t.checkpointEntryMinute, count);
+            checkpointCompletionMinute = Arrays.copyOf(t.checkpointCompletionMinute, count);
+            holdRoomEntryMinute = Arrays.copyOf(t.holdRoomEntryMinute, count);
+            holdRoomSequence = Arrays.copyOf(t.holdRoomSequence, count);
+            ticketLine = Arrays.copyOf(t.ticketLine, count);
+            checkpointLine = Arrays.copyOf(t.checkpointLine, count);
+            flags = Arrays.copyOf(t.flags, count);
+        }
+
+        long estimateBytes() {
+            return 128 + count * 37L;
+        }
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    void restore(Snapshot s) {
+        if (flight.length < s.count) grow(s.count);
+        count = s.count;
+        System.arraycopy(s.flight, 0, flight, 0, count);
+        System.arraycopy(s.arrivalMinute, 0, arrivalMinute, 0, count);
+        System.arraycopy(s.ticketCompletionMinute, 0, ticketCompletionMinute, 0, count);
+        System.arraycopy(s.checkpointEntryMinute, 0, checkpointEntryMinute, 0, count);
+        System.arraycopy(s.checkpointCompletionMinute, 0, checkpointCompletionMinute, 0, count);
+        System.arraycopy(s.holdRoomEntryMinute, 0, holdRoomEntryMinute, 0, count);
+        System.arraycopy(s.holdRoomSequence, 0, holdRoomSequence, 0, count);
+        System.arraycopy(s.ticketLine, 0, ticketLine, 0, count);
+        System.arraycopy(s.checkpointLine, 0, checkpointLine, 0, count);
+        System.arraycopy(s.flags, 0, flags, 0, count);
+        for (IntRingBuffer ids : byFlight) ids.clear();
+        for (int id = 0; id < count; id++) {
+            byFlight[flight[id]].add(id);
+            stamp[id]++;
+        }
+    }
+
+    void clear() {
+        count = 0;
+        for (IntRingBuffer ids : byFlight) ids.clear();
+    }
+
+    private void grow(int capacity) {
+        capacity = Math.max(capacity, 64);
+        flight = Arrays.copyOf(flight, capacity);
+        arrivalMinute = Arrays.copyOf(arrivalMinute, capacity);
+        ticketCompletionMinute = Arrays.copyOf(ticketCompletionMinute, capacity);
+        checkpointEntryMinute = Arrays.copyOf(checkpointEntryMinute, capacity);
+        checkpointCompletionMinute = Arrays.copyOf(checkpointCompletionMinute, capacity);
+        holdRoomEntryMinute = Arrays.copyOf(holdRoomEntryMinute, capacity);
+        holdRoomSequence = Arrays.copyOf(holdRoomSequence, capacity);
+        ticketLine = Arrays.copyOf(ticketLine, capacity);
+        checkpointLine = Arrays.copyOf(checkpointLine, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        stamp = Arrays.copyOf(stamp, capacity);
+    }
+}
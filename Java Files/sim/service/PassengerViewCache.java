@@ -0,0 +1,49 @@
+package sim.service;
+
+import sim.model.Passenger;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only {@link Passenger} objects for published frames, reused between frames.
+ *
+ * A view is rebuilt only when its row's stamp in the {@link PassengerTable}
+ * moved, so consecutive frames share the objects of every passenger who did not
+ * change, and building a frame costs one lookup per listed passenger. Handed-out
+ * views are never written again, which is what makes them safe to share with
+ * other threads. Not thread-safe itself: only the frame's builder uses it.
+ */
+final class PassengerViewCache {
+    private final PassengerTable table;
+    private Passenger[] views = new Passenger[64];
+    private int[] stamps = new int[64];
+
+    PassengerViewCache(PassengerTable table) {
+        this.table = table;
+    }
+
+    Passenger get(int id) {
+        if (id >= views.length) {
+            int grown = Math.max(id + 1, views.length * 2);
+            views = Arrays.copyOf(views, grown);
+            stamps = Arrays.copyOf(stamps, grown);
+        }
+        int stamp = table.stamp(id);
+        Passenger p = views[id];
+        if (p == null || stamps[id] != stamp) {
+            p = table.view(id);
+            views[id] = p;
+            stamps[id] = stamp;
+        }
+        return p;
+    }
+
+    /** Unmodifiable list of the views of {@code ids}. */
+    List<Passenger> list(int[] ids) {
+        Passenger[] out = new Passenger[ids.length];
+        for (int i = 0; i < ids.length; i++) out[i] = get(ids[i]);
+        return Collections.unmodifiableList(Arrays.asList(out));
+    }
+}
@@ -0,0 +1,57 @@
+package sim.service;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent stochastic replications of one scenario on a fork-join pool
+ * and merges them into a {@link ReplicationSummary}.
+ *
+ * Replication r runs on its own engine from the factory, seeded with the r-th
+ * stream split off a master {@link SplittableRandom}. Seeds are fixed before any
+ * work starts and each replication writes only its own slot, so the summary
+ * depends on the master seed and the count alone, not on the pool size.
+ */
+public final class ReplicationRunner {
+    private final Supplier<SimulationEngine> engineFactory;
+    private final ForkJoinPool pool;
+
+    /** {@code engineFactory} must return a fresh, unstarted engine on every call, from any thread. */
+    public ReplicationRunner(Supplier<SimulationEngine> engineFactory) {
+        this(engineFactory, ForkJoinPool.commonPool());
+    }
+
+    public ReplicationRunner(Supplier<SimulationEngine> engineFactory, ForkJoinPool pool) {
+        this.engineFactory = engineFactory;
+        this.pool = pool;
+    }
+
+    public ReplicationSummary run(int replications, long masterSeed) {
+        if (replications < 1) {
+            throw new IllegalArgumentException("At least one replication is required: " + replications);
+        }
+        long[] seeds = seeds(replications, masterSeed);
+        ReplicationSummary.Outcome[] outcomes = new ReplicationSummary.Outcome[replications];
+        ParallelRange.forEach(pool, replications, r -> outcomes[r] = runOne(seeds[r]));
+        return new ReplicationSummary(masterSeed, outcomes);
+    }
+
+    /** Seed of every replication, in replication order. */
+    static long[] seeds(int replications, long masterSeed) {
+        SplittableRandom master = new SplittableRandom(masterSeed);
+        long[] seeds = new long[replications];
+        for (int r = 0; r < replications; r++) {
+            seeds[r] = master.split().nextLong();
+        }
+        return seeds;
+    }
+
+    /** One full run with {@code seed}; idle minutes are skipped, which does not change a seeded run. */
+    ReplicationSummary.Outcome runOne(long seed) {
+        SimulationEngine engine = engineFactory.get();
+        engine.setNextEventMode(true);
+        engine.runAllIntervals(seed);
+        return new ReplicationSummary.Outcome(engine);
+    }
+}
@@ -0,0 +1,115 @@
+package sim.service;
+
+import sim.model.Flight;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Merged outcome of a set of stochastic replications of one scenario: for every
+ * flight the spread of missed passengers, and for every interval the spread of
+ * the queue totals. Built by {@link ReplicationRunner}; immutable.
+ */
+public final class ReplicationSummary {
+
+    /** What one replication contributes; filled by the thread that ran it. */
+    static final class Outcome {
+        final List<Flight> flights;
+        final int[] arrived;          // per flight
+        final int[] missed;           // per flight
+        final int[] ticketQueued;     // per interval 0..totalIntervals
+        final int[] checkpointQueued;
+        final int[] holdRoomTotal;
+
+        Outcome(SimulationEngine engine) {
+            this.flights = engine.getFlights();
+            int flightCount = this.flights.size();
+            int intervals = engine.getTotalIntervals() + 1;
+            arrived = new int[flightCount];
+            missed = new int[flightCount];
+            for (int fi = 0; fi < flightCount; fi++) {
+                arrived[fi] = engine.getArrivedCount(fi);
+                missed[fi] = engine.getMissedCount(fi);
+            }
+            ticketQueued = new int[intervals];
+            checkpointQueued = new int[intervals];
+            holdRoomTotal = new int[intervals];
+            for (int k = 0; k < intervals; k++) {
+                ticketQueued[k] = engine.getTicketQueuedAtInterval(k);
+                checkpointQueued[k] = engine.getCheckpointQueuedAtInterval(k);
+                holdRoomTotal[k] = engine.getHoldRoomTotalAtInterval(k);
+            }
+        }
+    }
+
+    private final List<Flight> flights;
+    private final long masterSeed;
+    private final int replications;
+
+    private final Distribution[] arrived;
+    private final Distribution[] missed;
+    private final Distribution totalMissed;
+    private final Distribution[] ticketQueued;
+    private final Distribution[] checkpointQueued;
+    private final Distribution[] holdRoomTotal;
+
+    /** Merge {@code outcomes} in replication order (so the result never depends on which thread ran what). */
+    ReplicationSummary(long masterSeed, Outcome[] outcomes) {
+        List<Flight> flights = outcomes[0].flights;
+        this.flights = Collections.unmodifiableList(new ArrayList<>(flights));
+        this.masterSeed = masterSeed;
+        this.replications = outcomes.length;
+
+        int n = outcomes.length;
+        int flightCount = flights.size();
+        this.arrived = new Distribution[flightCount];
+        this.missed = new Distribution[flightCount];
+        int[] totals = new int[n];
+        for (int fi = 0; fi < flightCount; fi++) {
+            int[] a = new int[n];
+            int[] m = new int[n];
+            for (int r = 0; r < n; r++) {
+                a[r] = outcomes[r].arrived[fi];
+                m[r] = outcomes[r].missed[fi];
+                totals[r] += m[r];
+            }
+            arrived[fi] = new Distribution(a);
+            missed[fi] = new Distribution(m);
+        }
+        this.totalMissed = new Distribution(totals);
+
+        int intervals = outcomes[0].ticketQueued.length;
+        this.ticketQueued = new Distribution[intervals];
+        this.checkpointQueued = new Distribution[intervals];
+        this.holdRoomTotal = new Distribution[intervals];
+        for (int k = 0; k < intervals; k++) {
+            int[] t = new int[n];
+            int[] c = new int[n];
+            int[] h = new int[n];
+            for (int r = 0; r < n; r++) {
+                t[r] = outcomes[r].ticketQueued[k];
+                c[r] = outcomes[r].checkpointQueued[k];
+                h[r] = outcomes[r].holdRoomTotal[k];
+            }
+            ticketQueued[k] = new Distribution(t);
+            checkpointQueued[k] = new Distribution(c);
+            holdRoomTotal[k] = new Distribution(h);
+        }
+    }
+
+    public List<Flight> getFlights() { return flights; }
+    public long getMasterSeed() { return masterSeed; }
+    public int getReplications() { return replications; }
+    public int getTotalIntervals() { return ticketQueued.length - 1; }
+
+    // === PER FLIGHT (by ordinal in getFlights()) ===
+    public Distribution getArrived(int flightOrdinal) { return arrived[flightOrdinal]; }
+    public Distribution getMissed(int flightOrdinal) { return missed[flightOrdinal]; }
+    public Distribution getTotalMissed() { return totalMissed; }
+
+    // === PER INTERVAL (0..getTotalIntervals()) ===
+    public Distribution getTicketQueued(int interval) { return ticketQueued[interval]; }
+    public Distribution getCheckpointQueued(int interval) { return checkpointQueued[interval]; }
+    public Distribution getHoldRoomTotal(int interval) { return holdRoomTotal[interval]; }
+}
@@ -0,0 +1,80 @@
+package sim.service;
+
+/**
+ * Summary numbers of one run, from {@link SimulationEngine#getMetrics()}: what a
+ * sweep or solver compares configurations by. Immutable.
+ */
+public final class RunMetrics {
+
+    /** Running max / sum / count of waits in minutes. */
+    static final class Waits {
+        private int max;
+        private long sum;
+        private int count;
+
+        void add(int minutes) {
+            max = Math.max(max, minutes);
+            sum += minutes;
+            count++;
+        }
+    }
+
+    private final int[] arrived;
+    private final int[] missed;
+    private final int totalArrived;
+    private final int totalMissed;
+    private final int peakTicketQueued;
+    private final int peakCheckpointQueued;
+    private final int maxTicketWait;
+    private final double meanTicketWait;
+    private final int maxCheckpointWait;
+    private final double meanCheckpointWait;
+
+    RunMetrics(int[] arrived, int[] missed,
+               int peakTicketQueued, int peakCheckpointQueued,
+               Waits ticketWaits, Waits checkpointWaits) {
+        this.arrived = arrived;
+        this.missed = missed;
+        int a = 0;
+        int m = 0;
+        for (int fi = 0; fi < arrived.length; fi++) {
+            a += arrived[fi];
+            m += missed[fi];
+        }
+        this.totalArrived = a;
+        this.totalMissed = m;
+        this.peakTicketQueued = peakTicketQueued;
+        this.peakCheckpointQueued = peakCheckpointQueued;
+        this.maxTicketWait = ticketWaits.max;
+        this.meanTicketWait = ticketWaits.count == 0 ? 0 : (double) ticketWaits.sum / ticketWaits.count;
+        this.maxCheckpointWait = checkpointWaits.max;
+        this.meanCheckpointWait = checkpointWaits.count == 0 ? 0 : (double) checkpointWaits.sum / checkpointWaits.count;
+    }
+
+    // === PER FLIGHT (by ordinal) ===
+    public int getFlightCount() { return arrived.length; }
+    public int getArrived(int flightOrdinal) { return arrived[flightOrdinal]; }
+    public int getMissed(int flightOrdinal) { return missed[flightOrdinal]; }
+
+    /** Missed share of the flight's arrivals (0 when nobody arrived). */
+    public double getMissedFraction(int flightOrdinal) {
+        return arrived[flightOrdinal] == 0 ? 0 : (double) missed[flightOrdinal] / arrived[flightOrdinal];
+    }
+
+    /** The largest missed share over all flights. */
+    public double getWorstMissedFraction() {
+        double worst = 0;
+        for (int fi = 0; fi < arrived.length; fi++) worst = Math.max(worst, getMissedFraction(fi));
+        return worst;
+    }
+
+    // === WHOLE RUN ===
+    public int getTotalArrived() { return totalArrived; }
+    public int getTotalMissed() { return totalMissed; }
+    public int getPeakTicketQueued() { return peakTicketQueued; }
+    public int getPeakCheckpointQueued() { return peakCheckpointQueued; }
+    public int getMaxTicketWait() { return maxTicketWait; }
+    public double getMeanTicketWait() { return meanTicketWait; }
+    public int getMaxCheckpointWait() { return maxCheckpointWait; }
+    public double getMeanCheckpointWait() { return meanCheckpointWait; }
+}
@@ -0,0 +1,64 @@
+package sim.service;
+
+import java.util.SplittableRandom;
+
+/**
+ * Discrete samplers for stochastic runs. Each draws only from the generator it
+ * is given, so a run that feeds them a seeded stream is reproducible.
+ */
+final class Sampling {
+    // Knuth's product method underflows past this mean; larger means are summed in chunks
+    private static final double POISSON_CHUNK = 30.0;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private Sampling() {}
+
+    /**
+     * Seed of stream {@code index} of a run seeded with {@code seed}. Both go
+     * through a full 64-bit finalizer, so neighbouring seeds and neighbouring
+     * indices give unrelated generators rather than shifted copies of one
+     * sequence (SplittableRandom seeds that differ by its increment would).
+     */
+    static long streamSeed(long seed, long index) {
+        return mix64(mix64(seed) + index * GOLDEN_GAMMA);
+    }
+
+    /** Stafford's variant 13 of the MurmurHash3 finalizer, as in SplitMix64. */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Poisson-distributed count with the given mean (0 for a mean of 0 or less). */
+    static int poisson(SplittableRandom random, double mean) {
+        int count = 0;
+        // a sum of independent Poisson counts is Poisson with the summed mean
+        while (mean > POISSON_CHUNK) {
+            count += poissonSmall(random, POISSON_CHUNK);
+            mean -= POISSON_CHUNK;
+        }
+        return count + poissonSmall(random, mean);
+    }
+
+    /** Number of successes in {@code n} trials of probability {@code p}. */
+    static int binomial(SplittableRandom random, int n, double p) {
+        int successes = 0;
+        for (int i = 0; i < n; i++) {
+            if (random.nextDouble() < p) successes++;
+        }
+        return successes;
+    }
+
+    private static int poissonSmall(SplittableRandom random, double mean) {
+        if (mean <= 0) return 0;
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+}
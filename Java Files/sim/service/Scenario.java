@@ -0,0 +1,106 @@
+package sim.service;
+
+import sim.model.Flight;
+import sim.ui.TicketCounterConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Everything one simulation needs, outside the Swing setup panels: the flight
+ * schedule, the ticket counters and the global parameters. Loaded and saved
+ * by {@link ScenarioFile}.
+ *
+ * The lists are the caller's own (the counters' allowed flights refer to the
+ * flight objects in {@link #getFlights()}); the defaults of the global
+ * parameters are those of the setup window.
+ */
+public final class Scenario {
+    private final List<Flight> flights;
+    private final List<TicketCounterConfig> counters;
+
+    private double percentInPerson = 0.4;
+    private int numCheckpoints = 1;
+    private double checkpointRate = 1.0;
+    private int arrivalSpanMinutes = 120;
+    private int intervalMinutes = 1;
+    private int transitDelayMinutes = 2;
+    private int holdDelayMinutes = 5;
+
+    public Scenario(List<Flight> flights, List<TicketCounterConfig> counters) {
+        this.flights = flights;
+        this.counters = counters;
+    }
+
+    public List<Flight> getFlights() { return Collections.unmodifiableList(flights); }
+    public List<TicketCounterConfig> getCounters() { return Collections.unmodifiableList(counters); }
+
+    public double getPercentInPerson() { return percentInPerson; }
+    public void setPercentInPerson(double percentInPerson) {
+        if (percentInPerson < 0 || percentInPerson > 1)
+            throw new IllegalArgumentException("Percent in person must be between 0 and 1");
+        this.percentInPerson = percentInPerson;
+    }
+    public int getNumCheckpoints() { return numCheckpoints; }
+    public void setNumCheckpoints(int numCheckpoints) { this.numCheckpoints = numCheckpoints; }
+    public double getCheckpointRate() { return checkpointRate; }
+    public void setCheckpointRate(double checkpointRate) { this.checkpointRate = checkpointRate; }
+    public int getArrivalSpanMinutes() { return arrivalSpanMinutes; }
+    public void setArrivalSpanMinutes(int arrivalSpanMinutes) { this.arrivalSpanMinutes = arrivalSpanMinutes; }
+    public int getIntervalMinutes() { return intervalMinutes; }
+    public void setIntervalMinutes(int intervalMinutes) { this.intervalMinutes = intervalMinutes; }
+    public int getTransitDelayMinutes() { return transitDelayMinutes; }
+    public void setTransitDelayMinutes(int transitDelayMinutes) { this.transitDelayMinutes = transitDelayMinutes; }
+    public int getHoldDelayMinutes() { return holdDelayMinutes; }
+    public void setHoldDelayMinutes(int holdDelayMinutes) { this.holdDelayMinutes = holdDelayMinutes; }
+
+    /**
+     * An independent copy: new flight and counter objects, the counters
+     * accepting the copied flights. Lets a run on another thread go on while
+     * the setup panels are edited.
+     */
+    public Scenario copy() {
+        Map<Flight, Flight> copies = new IdentityHashMap<>();
+        List<Flight> flightCopies = new ArrayList<>(flights.size());
+        for (Flight f : flights) {
+            Flight c = new Flight(f.getFlightNumber(), f.getDepartureTime(), f.getSeats(), f.getFillPercent(), f.getShape());
+            c.setArrivalProfile(f.getArrivalProfile());
+            copies.put(f, c);
+            flightCopies.add(c);
+        }
+        List<TicketCounterConfig> counterCopies = new ArrayList<>(counters.size());
+        for (TicketCounterConfig c : counters) {
+            Set<Flight> allowed = new HashSet<>();
+            for (Flight f : c.getAllowedFlights()) {
+                // a flight no longer scheduled stays as it is, matching nothing
+                Flight copy = copies.get(f);
+                allowed.add(copy != null ? copy : f);
+            }
+            counterCopies.add(new TicketCounterConfig(c.getId(), c.getRate(), allowed));
+        }
+
+        Scenario copy = new Scenario(flightCopies, counterCopies);
+        copy.percentInPerson = percentInPerson;
+        copy.numCheckpoints = numCheckpoints;
+        copy.checkpointRate = checkpointRate;
+        copy.arrivalSpanMinutes = arrivalSpanMinutes;
+        copy.intervalMinutes = intervalMinutes;
+        copy.transitDelayMinutes = transitDelayMinutes;
+        copy.holdDelayMinutes = holdDelayMinutes;
+        return copy;
+    }
+
+    /** A sweep whose base point is this scenario; set its axes to vary it. */
+    public ParameterSweep toSweep() {
+        if (flights.isEmpty()) throw new IllegalStateException("Scenario has no flights");
+        if (counters.isEmpty()) throw new IllegalStateException("Scenario has no ticket counters");
+        return new ParameterSweep(flights, new ArrayList<>(counters),
+                percentInPerson, numCheckpoints, checkpointRate,
+                arrivalSpanMinutes, intervalMinutes, transitDelayMinutes, holdDelayMinutes);
+    }
+}
@@ -0,0 +1,676 @@
+package sim.service;
+
+import sim.model.ArrivalProfile;
+import sim.model.EmpiricalCurve;
+import sim.model.Flight;
+import sim.ui.TicketCounterConfig;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads and writes a {@link Scenario} in a readable text form or a compact
+ * binary form; {@link #read(Path)} tells them apart by the binary header.
+ *
+ * Text form: one item per line, fields separated by whitespace, {@code #}
+ * starting a comment.
+ *
+ * <pre>
+ * percentInPerson 0.4
+ * checkpoints     2
+ * checkpointRate  1.5
+ * arrivalSpan     120
+ * interval        1
+ * transitDelay    2
+ * holdDelay       5
+ *
+ * # curve &lt;name&gt; [before &lt;minutes&gt;] &lt;show-up weights, earliest first&gt;
+ * curve business 1 4 9 6 2 1
+ * curve measured before 90 0.1 0.2 0.4 0.3
+ *
+ * # flight &lt;number&gt; &lt;departure HH:mm[:ss]&gt; &lt;seats&gt; &lt;fill 0-1&gt; [shape [curve]]
+ * flight AA100 06:30 180 0.85 CIRCLE business
+ * flight UA200 07:10 150 0.9
+ *
+ * # counter &lt;rate per min&gt; [flight numbers it accepts; none = all]
+ * counter 1.0
+ * counter 1.5 AA100 UA200
+ * </pre>
+ *
+ * Omitted parameters keep the setup window's defaults. Flights without a
+ * curve follow the default normal profile. A curve's weights are spread over
+ * equal slices of the window, or with {@code before} are one per minute
+ * starting that many minutes before departure (see {@link EmpiricalCurve}).
+ * Counters are numbered in file
+ * order and may name flights listed after them; flights may likewise name
+ * curves defined after them.
+ *
+ * Binary form: the bytes {@code TCSB}, a version byte, the seven parameters,
+ * then the curves (name, first minute before departure + 1 or 0 when spread,
+ * weights; from version 2), the flights (number,
+ * departure second, seats, fill, shape, curve index + 1 or 0 for the default;
+ * the curve from version 2) and the counters (rate, then the ordinals of the
+ * flights they accept as sorted deltas; none = all). Counts, seconds, seats and ordinals are unsigned
+ * varints, so a counter dedicated to a few neighbouring flights takes a few
+ * bytes.
+ *
+ * Both readers stream: flights and counters are built as their lines or
+ * records arrive, with no intermediate copy of the file.
+ */
+public final class ScenarioFile {
+    private static final byte[] MAGIC = { 'T', 'C', 'S', 'B' };
+    private static final int VERSION = 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private ScenarioFile() { }
+
+    /** Read either form, recognizing the binary one by its header. */
+    public static Scenario read(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE)) {
+            in.mark(MAGIC.length);
+            byte[] head = new byte[MAGIC.length];
+            int n = 0;
+            for (int r; n < head.length && (r = in.read(head, n, head.length - n)) > 0; ) n += r;
+            in.reset();
+            if (n == MAGIC.length && Arrays.equals(head, MAGIC)) return readBinary(in);
+            return readText(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    /** Save as binary if the file name ends in {@code .scnb}, as text otherwise. */
+    public static void write(Scenario scenario, Path path) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE)) {
+            if (path.getFileName().toString().endsWith(".scnb")) {
+                writeBinary(scenario, out);
+            } else {
+                Writer text = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                writeText(scenario, text);
+                text.flush();
+            }
+        }
+    }
+
+    // === TEXT ===
+
+    /**
+     * Parse the text form. Malformed lines throw IllegalArgumentException
+     * naming the line.
+     */
+    public static Scenario readText(Reader in) throws IOException {
+        List<Flight> flights = new ArrayList<>();
+        Map<String, Flight> byNumber = new HashMap<>();
+        List<TicketCounterConfig> counters = new ArrayList<>();
+        Scenario scenario = new Scenario(flights, counters);
+
+        // by counter index: names not yet seen when the counter was read
+        Map<Integer, List<String>> forward = new LinkedHashMap<>();
+        Map<String, EmpiricalCurve> curves = new HashMap<>();
+        Map<Flight, String> curveOf = new LinkedHashMap<>();
+
+        Tokens t = new Tokens(in);
+        while (t.nextItem()) {
+            try {
+                String item = t.word();
+                switch (item) {
+                    case "flight": {
+                        String number = t.word();
+                        LocalTime departure = t.time();
+                        int seats = t.integer();
+                        double fill = t.decimal();
+                        Flight.ShapeType shape = t.hasMore() ? Flight.ShapeType.valueOf(t.word()) : Flight.ShapeType.CIRCLE;
+                        Flight flight = new Flight(number, departure, seats, fill, shape);
+                        if (byNumber.putIfAbsent(number, flight) != null) {
+                            throw new IllegalArgumentException("duplicate flight " + number);
+                        }
+                        if (t.hasMore()) curveOf.put(flight, t.word());
+                        flights.add(flight);
+                        break;
+                    }
+                    case "curve": {
+                        String name = t.word();
+                        int firstMinuteBefore = -1;
+                        double[] weights = new double[16];
+                        int slices = 0;
+                        while (t.hasMore()) {
+                            String field = t.word();
+                            if (slices == 0 && firstMinuteBefore < 0 && field.equals("before")) {
+                                firstMinuteBefore = t.integer();
+                                if (firstMinuteBefore < 0) throw new IllegalArgumentException("negative minutes before departure");
+                                continue;
+                            }
+                            if (slices == weights.length) weights = Arrays.copyOf(weights, slices * 2);
+                            weights[slices++] = parseDecimal(field);
+                        }
+                        weights = Arrays.copyOf(weights, slices);
+                        EmpiricalCurve curve = firstMinuteBefore < 0
+                                ? ArrivalProfile.empirical(name, weights)
+                                : ArrivalProfile.measured(name, firstMinuteBefore, weights);
+                        if (curves.putIfAbsent(name, curve) != null) {
+                            throw new IllegalArgumentException("duplicate curve " + name);
+                        }
+                        break;
+                    }
+                    case "counter": {
+                        double rate = t.decimal();
+                        Set<Flight> allowed = new HashSet<>();
+                        while (t.hasMore()) {
+                            String number = t.word();
+                            Flight flight = byNumber.get(number);
+                            if (flight != null) allowed.add(flight);
+                            else forward.computeIfAbsent(counters.size(), k -> new ArrayList<>()).add(number);
+                        }
+                        counters.add(new TicketCounterConfig(counters.size() + 1, rate, allowed));
+                        break;
+                    }
+                    case "percentInPerson": scenario.setPercentInPerson(t.decimal()); break;
+                    case "checkpoints":     scenario.setNumCheckpoints(t.integer()); break;
+                    case "checkpointRate":  scenario.setCheckpointRate(t.decimal()); break;
+                    case "arrivalSpan":     scenario.setArrivalSpanMinutes(t.integer()); break;
+                    case "interval":        scenario.setIntervalMinutes(t.integer()); break;
+                    case "transitDelay":    scenario.setTransitDelayMinutes(t.integer()); break;
+                    case "holdDelay":       scenario.setHoldDelayMinutes(t.integer()); break;
+                    default:
+                        throw new IllegalArgumentException("unknown item '" + item + "'");
+                }
+                t.endOfItem();
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Line " + (t.line + 1) + ": " + ex.getMessage(), ex);
+            }
+        }
+
+        for (Map.Entry<Integer, List<String>> e : forward.entrySet()) {
+            TicketCounterConfig counter = counters.get(e.getKey());
+            Set<Flight> allowed = new HashSet<>(counter.getAllowedFlights());
+            for (String number : e.getValue()) {
+                Flight flight = byNumber.get(number);
+                if (flight == null) {
+                    throw new IllegalArgumentException("Counter " + counter.getId() + ": unknown flight " + number);
+                }
+                allowed.add(flight);
+            }
+            counter.setAllowedFlights(allowed);
+        }
+        for (Map.Entry<Flight, String> e : curveOf.entrySet()) {
+            EmpiricalCurve curve = curves.get(e.getValue());
+            if (curve == null) {
+                throw new IllegalArgumentException("Flight " + e.getKey().getFlightNumber() + ": unknown curve " + e.getValue());
+            }
+            e.getKey().setArrivalProfile(curve);
+        }
+        return scenario;
+    }
+
+    public static void writeText(Scenario scenario, Writer out) throws IOException {
+        BufferedWriter w = out instanceof BufferedWriter ? (BufferedWriter) out : new BufferedWriter(out, BUFFER_SIZE);
+        w.write("percentInPerson " + scenario.getPercentInPerson() + "\n");
+        w.write("checkpoints     " + scenario.getNumCheckpoints() + "\n");
+        w.write("checkpointRate  " + scenario.getCheckpointRate() + "\n");
+        w.write("arrivalSpan     " + scenario.getArrivalSpanMinutes() + "\n");
+        w.write("interval        " + scenario.getIntervalMinutes() + "\n");
+        w.write("transitDelay    " + scenario.getTransitDelayMinutes() + "\n");
+        w.write("holdDelay       " + scenario.getHoldDelayMinutes() + "\n");
+
+        Map<String, EmpiricalCurve> curves = curvesOf(scenario.getFlights());
+        if (!curves.isEmpty()) {
+            w.write("\n# curve <name> [before <minutes>] <weights, earliest first>\n");
+            for (EmpiricalCurve c : curves.values()) {
+                if (!isWord(c.getName())) {
+                    throw new IllegalArgumentException("Curve name '" + c.getName() + "' cannot be saved as text");
+                }
+                w.write("curve " + c.getName());
+                if (c.getFirstMinuteBefore() >= 0) w.write(" before " + c.getFirstMinuteBefore());
+                for (double weight : c.getWeights()) w.write(" " + weight);
+                w.write("\n");
+            }
+        }
+
+        w.write("\n# flight <number> <departure> <seats> <fill> <shape> [curve]\n");
+        Set<String> numbers = new HashSet<>();
+        for (Flight f : scenario.getFlights()) {
+            String number = f.getFlightNumber();
+            if (!isWord(number)) {
+                throw new IllegalArgumentException("Flight number '" + number + "' cannot be saved as text");
+            }
+            if (!numbers.add(number)) {
+                throw new IllegalArgumentException("Duplicate flight number " + number + " cannot be saved as text");
+            }
+            w.write("flight " + number + " " + f.getDepartureTime() + " " + f.getSeats()
+                    + " " + f.getFillPercent() + " " + f.getShape()
+                    + (f.getArrivalProfile().equals(ArrivalProfile.NORMAL) ? "" : " " + f.getArrivalProfile()) + "\n");
+        }
+
+        w.write("\n# counter <rate> [flights]\n");
+        for (TicketCounterConfig c : scenario.getCounters()) {
+            w.write("counter " + c.getRate());
+            // in schedule order, so saving the same setup twice gives the same file
+            for (Flight f : scenario.getFlights()) {
+                if (!c.isAllFlights() && c.getAllowedFlights().contains(f)) w.write(" " + f.getFlightNumber());
+            }
+            w.write("\n");
+        }
+        w.flush();
+    }
+
+    /**
+     * The curves the flights follow, by name in schedule order. Only the
+     * default profile and named curves can be saved.
+     */
+    private static Map<String, EmpiricalCurve> curvesOf(List<Flight> flights) {
+        Map<String, EmpiricalCurve> curves = new LinkedHashMap<>();
+        for (Flight f : flights) {
+            ArrivalProfile profile = f.getArrivalProfile();
+            if (profile.equals(ArrivalProfile.NORMAL)) continue;
+            if (!(profile instanceof EmpiricalCurve)) {
+                throw new IllegalArgumentException("Flight " + f.getFlightNumber() + ": arrival profile "
+                        + profile + " cannot be saved; use a named curve");
+            }
+            EmpiricalCurve curve = (EmpiricalCurve) profile;
+            EmpiricalCurve previous = curves.putIfAbsent(curve.getName(), curve);
+            if (previous != null && !previous.equals(curve)) {
+                throw new IllegalArgumentException("Two different curves are named " + curve.getName());
+            }
+        }
+        return curves;
+    }
+
+    private static boolean isWord(String s) {
+        if (s == null || s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c <= ' ' || c == '#') return false;
+        }
+        return true;
+    }
+
+    /**
+     * Single-pass tokenizer over a char buffer: items are lines, fields are
+     * runs of non-blank characters. Whole numbers and times are parsed in
+     * place without making strings.
+     */
+    private static final class Tokens {
+        private final Reader in;
+        private final char[] buf = new char[BUFFER_SIZE];
+        private int pos;
+        private int limit;
+        int line;       // newlines passed so far
+
+        Tokens(Reader in) {
+            this.in = in;
+        }
+
+        /** Skip blank and comment lines; false at end of input. */
+        boolean nextItem() throws IOException {
+            while (true) {
+                int c = peek();
+                if (c < 0) return false;
+                if (c == '\n') {
+                    pos++;
+                    line++;
+                    continue;
+                }
+                if (c == ' ' || c == '\t' || c == '\r') {
+                    pos++;
+                    continue;
+                }
+                if (c == '#') {
+                    skipLine();
+                    continue;
+                }
+                return true;
+            }
+        }
+
+        /** Whether the current line has another field. */
+        boolean hasMore() throws IOException {
+            skipBlanks();
+            int c = peek();
+            return c >= 0 && c != '\n' && c != '#';
+        }
+
+        /** Check nothing is left on the line, then move past it. */
+        void endOfItem() throws IOException {
+            if (hasMore()) throw new IllegalArgumentException("unexpected '" + word() + "'");
+            skipLine();
+        }
+
+        String word() throws IOException {
+            if (!hasMore()) throw new IllegalArgumentException("missing field");
+            StringBuilder sb = null;
+            int start = pos;
+            while (true) {
+                if (pos == limit) {
+                    // field runs past the buffer: keep what we have and refill
+                    if (sb == null) sb = new StringBuilder();
+                    sb.append(buf, start, pos - start);
+                    boolean more = fill();
+                    start = pos;
+                    if (!more) break;
+                }
+                char c = buf[pos];
+                if (c <= ' ' || c == '#') break;
+                pos++;
+            }
+            if (sb == null) return new String(buf, start, pos - start);
+            return sb.append(buf, start, pos - start).toString();
+        }
+
+        int integer() throws IOException {
+            if (!hasMore()) throw new IllegalArgumentException("missing number");
+            boolean negative = peek() == '-';
+            if (negative) pos++;
+            long value = 0;
+            int digits = 0;
+            int c;
+            while ((c = peek()) >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (value > Integer.MAX_VALUE) throw new IllegalArgumentException("number too large");
+                pos++;
+                digits++;
+            }
+            if (digits == 0 || !atFieldEnd()) throw new IllegalArgumentException("whole number expected");
+            return (int) (negative ? -value : value);
+        }
+
+        double decimal() throws IOException {
+            return parseDecimal(word());
+        }
+
+        /** H:mm or H:mm:ss. */
+        LocalTime time() throws IOException {
+            if (!hasMore()) throw new IllegalArgumentException("missing time");
+            int hour = digits2();
+            int minute = 0;
+            int second = 0;
+            if (peek() == ':') {
+                pos++;
+                minute = digits2();
+                if (peek() == ':') {
+                    pos++;
+                    second = digits2();
+                }
+            } else {
+                hour = -1;
+            }
+            if (hour < 0 || minute < 0 || second < 0 || !atFieldEnd()) {
+                throw new IllegalArgumentException("time expected as HH:mm");
+            }
+            try {
+                return LocalTime.of(hour, minute, second);
+            } catch (DateTimeException ex) {
+                throw new IllegalArgumentException(ex.getMessage());
+            }
+        }
+
+        /** One or two digits, or -1. */
+        private int digits2() throws IOException {
+            int value = -1;
+            for (int i = 0; i < 2; i++) {
+                int c = peek();
+                if (c < '0' || c > '9') break;
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                pos++;
+            }
+            return value;
+        }
+
+        private boolean atFieldEnd() throws IOException {
+            int c = peek();
+            return c < 0 || c <= ' ' || c == '#';
+        }
+
+        private void skipBlanks() throws IOException {
+            int c;
+            while ((c = peek()) == ' ' || c == '\t' || c == '\r') pos++;
+        }
+
+        private void skipLine() throws IOException {
+            int c;
+            while ((c = peek()) >= 0) {
+                pos++;
+                if (c == '\n') {
+                    line++;
+                    return;
+                }
+            }
+        }
+
+        private int peek() throws IOException {
+            if (pos == limit && !fill()) return -1;
+            return buf[pos];
+        }
+
+        /** Keep the unread tail, read more after it; false if nothing more came. */
+        private boolean fill() throws IOException {
+            int kept = limit - pos;
+            System.arraycopy(buf, pos, buf, 0, kept);
+            pos = 0;
+            limit = kept;
+            int n = in.read(buf, limit, buf.length - limit);
+            if (n <= 0) return false;
+            limit += n;
+            return true;
+        }
+    }
+
+    private static final double[] POWERS_OF_TEN = new double[16];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    /**
+     * Plain decimals (up to 15 significant digits) are converted here, exactly
+     * as Double.parseDouble would; anything else is handed to it.
+     */
+    private static double parseDecimal(String field) {
+        int i = 0;
+        boolean negative = field.charAt(0) == '-';
+        if (negative) i++;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        for (; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                if (++digits > 15) break;
+                if (point) scale++;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (i < field.length() || digits == 0) return Double.parseDouble(field);
+        // mantissa and 10^scale are exact doubles, so one division rounds correctly
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    // === BINARY ===
+
+    public static Scenario readBinary(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream instanceof BufferedInputStream
+                ? stream : new BufferedInputStream(stream, BUFFER_SIZE));
+        byte[] head = new byte[MAGIC.length];
+        in.readFully(head);
+        if (!Arrays.equals(head, MAGIC)) throw new IllegalArgumentException("Not a binary scenario file");
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > VERSION) throw new IllegalArgumentException("Unsupported scenario file version " + version);
+
+        try {
+            double percentInPerson = in.readDouble();
+            int numCheckpoints = in.readInt();
+            double checkpointRate = in.readDouble();
+            int arrivalSpan = in.readInt();
+            int interval = in.readInt();
+            int transitDelay = in.readInt();
+            int holdDelay = in.readInt();
+
+            EmpiricalCurve[] curves = new EmpiricalCurve[version >= 2 ? readVarInt(in) : 0];
+            for (int c = 0; c < curves.length; c++) {
+                String name = in.readUTF();
+                int firstMinuteBefore = readVarInt(in) - 1;
+                double[] weights = new double[readVarInt(in)];
+                for (int s = 0; s < weights.length; s++) weights[s] = in.readDouble();
+                curves[c] = firstMinuteBefore < 0
+                        ? ArrivalProfile.empirical(name, weights)
+                        : ArrivalProfile.measured(name, firstMinuteBefore, weights);
+            }
+
+            Flight.ShapeType[] shapes = Flight.ShapeType.values();
+            int flightCount = readVarInt(in);
+            List<Flight> flights = new ArrayList<>(flightCount);
+            for (int i = 0; i < flightCount; i++) {
+                String number = in.readUTF();
+                LocalTime departure = LocalTime.ofSecondOfDay(readVarInt(in));
+                int seats = readVarInt(in);
+                double fill = in.readDouble();
+                int shape = in.readUnsignedByte();
+                if (shape >= shapes.length) throw new IllegalArgumentException("Flight " + number + ": bad shape " + shape);
+                Flight flight = new Flight(number, departure, seats, fill, shapes[shape]);
+                int curve = version >= 2 ? readVarInt(in) : 0;
+                if (curve > curves.length) throw new IllegalArgumentException("Flight " + number + ": bad curve " + curve);
+                if (curve > 0) flight.setArrivalProfile(curves[curve - 1]);
+                flights.add(flight);
+            }
+
+            int counterCount = readVarInt(in);
+            List<TicketCounterConfig> counters = new ArrayList<>(counterCount);
+            for (int j = 0; j < counterCount; j++) {
+                double rate = in.readDouble();
+                int allowedCount = readVarInt(in);
+                Set<Flight> allowed = new HashSet<>();
+                int ordinal = -1;
+                for (int k = 0; k < allowedCount; k++) {
+                    ordinal += readVarInt(in) + 1;
+                    if (ordinal >= flightCount) {
+                        throw new IllegalArgumentException("Counter " + (j + 1) + ": flight " + ordinal + " out of range");
+                    }
+                    allowed.add(flights.get(ordinal));
+                }
+                counters.add(new TicketCounterConfig(j + 1, rate, allowed));
+            }
+
+            Scenario scenario = new Scenario(flights, counters);
+            scenario.setPercentInPerson(percentInPerson);
+            scenario.setNumCheckpoints(numCheckpoints);
+            scenario.setCheckpointRate(checkpointRate);
+            scenario.setArrivalSpanMinutes(arrivalSpan);
+            scenario.setIntervalMinutes(interval);
+            scenario.setTransitDelayMinutes(transitDelay);
+            scenario.setHoldDelayMinutes(holdDelay);
+            return scenario;
+        } catch (EOFException ex) {
+            throw new IllegalArgumentException("Scenario file is truncated");
+        }
+    }
+
+    public static void writeBinary(Scenario scenario, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeDouble(scenario.getPercentInPerson());
+        out.writeInt(scenario.getNumCheckpoints());
+        out.writeDouble(scenario.getCheckpointRate());
+        out.writeInt(scenario.getArrivalSpanMinutes());
+        out.writeInt(scenario.getIntervalMinutes());
+        out.writeInt(scenario.getTransitDelayMinutes());
+        out.writeInt(scenario.getHoldDelayMinutes());
+
+        List<Flight> flights = scenario.getFlights();
+        Map<String, EmpiricalCurve> curves = curvesOf(flights);
+        Map<String, Integer> curveIndex = new HashMap<>();
+        writeVarInt(out, curves.size());
+        for (EmpiricalCurve c : curves.values()) {
+            curveIndex.put(c.getName(), curveIndex.size() + 1);
+            out.writeUTF(c.getName());
+            writeVarInt(out, c.getFirstMinuteBefore() + 1);
+            double[] weights = c.getWeights();
+            writeVarInt(out, weights.length);
+            for (double weight : weights) out.writeDouble(weight);
+        }
+
+        Map<Flight, Integer> ordinals = new HashMap<>();
+        writeVarInt(out, flights.size());
+        for (Flight f : flights) {
+            if (f.getSeats() < 0) throw new IllegalArgumentException("Flight " + f.getFlightNumber() + ": negative seats");
+            ordinals.put(f, ordinals.size());
+            out.writeUTF(f.getFlightNumber());
+            writeVarInt(out, f.getDepartureTime().toSecondOfDay());
+            writeVarInt(out, f.getSeats());
+            out.writeDouble(f.getFillPercent());
+            out.writeByte(f.getShape().ordinal());
+            ArrivalProfile profile = f.getArrivalProfile();
+            writeVarInt(out, profile.equals(ArrivalProfile.NORMAL) ? 0 : curveIndex.get(((EmpiricalCurve) profile).getName()));
+        }
+
+        writeVarInt(out, scenario.getCounters().size());
+        for (TicketCounterConfig c : scenario.getCounters()) {
+            out.writeDouble(c.getRate());
+            int[] accepted = new int[c.getAllowedFlights().size()];
+            int n = 0;
+            for (Flight f : c.getAllowedFlights()) {
+                Integer ordinal = ordinals.get(f);
+                if (ordinal == null) {
+                    throw new IllegalArgumentException("Counter " + c.getId() + " accepts a flight not in the schedule");
+                }
+                accepted[n++] = ordinal;
+            }
+            Arrays.sort(accepted);
+            writeVarInt(out, accepted.length);
+            int previous = -1;
+            for (int ordinal : accepted) {
+                writeVarInt(out, ordinal - previous - 1);
+                previous = ordinal;
+            }
+        }
+        out.flush();
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) throw new IllegalArgumentException("Bad count in scenario file");
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Bad count in scenario file");
+    }
+}
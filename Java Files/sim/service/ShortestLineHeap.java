@@ -0,0 +1,162 @@
+package sim.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Indexed min-heap over one group of lines (the counters a flight may use, or
+ * all checkpoints), ordered by (line length, line index).
+ *
+ * That ordering is exactly the old linear scan's choice: the shortest line, and
+ * the lowest index among equally short ones. Lengths are cached; the engine
+ * invalidates the heap whenever lines change outside of arrivals (service,
+ * purges, rewind) and it is rebuilt in O(lines) on next use. Groups overlap, so
+ * arrivals placed through one group are passed on to the others holding the
+ * same lines with {@link #grow}. Between those points each pick costs
+ * O(log lines).
+ */
+final class ShortestLineHeap {
+    private final int[] members;   // line indices in this group, ascending
+    private final int[] len;       // cached length per member
+    private final int[] heap;      // heap of member positions
+    private final int[] pos;       // member position -> heap slot
+    private boolean valid = false;
+
+    // water-filling scratch (member positions sorted by length)
+    private final Integer[] order;
+
+    ShortestLineHeap(int[] members) {
+        this.members = members.clone();
+        int n = members.length;
+        this.len = new int[n];
+        this.heap = new int[n];
+        this.pos = new int[n];
+        this.order = new Integer[n];
+    }
+
+    int[] members() {
+        return members;
+    }
+
+    /** Lines changed behind our back; re-read lengths on next use. */
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Line {@code line} (a member) gained {@code count} arrivals through another
+     * group. Nothing to do while invalid: the rebuild reads the real length.
+     */
+    void grow(int line, int count) {
+        if (!valid) return;
+        int m = Arrays.binarySearch(members, line);
+        len[m] += count;
+        siftDown(pos[m]);
+    }
+
+    /** Line that the next single arrival joins; counts that arrival. */
+    int pollShortest(List<IntRingBuffer> lines) {
+        if (!valid) rebuild(lines);
+        assert lengthsCurrent(lines) : "stale line lengths";
+        int m = heap[0];
+        len[m]++;
+        siftDown(0);
+        return members[m];
+    }
+
+    /**
+     * Water-filling for {@code k} interchangeable arrivals: fills
+     * {@code counts[i]} with how many go to {@code members()[i]}. The totals are
+     * the same as {@code k} calls to {@link #pollShortest}, computed in
+     * O(lines log lines) instead of O(k log lines).
+     */
+    void waterFill(List<IntRingBuffer> lines, int k, int[] counts) {
+        if (!valid) rebuild(lines);
+        assert lengthsCurrent(lines) : "stale line lengths";
+        int n = members.length;
+        Arrays.fill(counts, 0, n, 0);
+        if (k <= 0 || n == 0) return;
+
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> len[a] != len[b] ? Integer.compare(len[a], len[b]) : Integer.compare(a, b));
+
+        // find the level every active line is raised to, with some arrivals left over
+        int active = 0;
+        long level = len[order[0]];
+        long remaining = k;
+        while (true) {
+            while (active < n && len[order[active]] <= level) active++;
+            long costToNext = active < n ? active * (len[order[active]] - level) : Long.MAX_VALUE;
+            if (costToNext > remaining) {
+                long rounds = remaining / active;
+                level += rounds;
+                remaining -= rounds * active;
+                break;
+            }
+            remaining -= costToNext;
+            level = len[order[active]];
+        }
+
+        // raise every active line to 'level', then one more for the lowest-index leftovers
+        int extra = (int) remaining;
+        for (int i = 0; i < n; i++) {
+            if (len[i] <= level) {
+                int c = (int) (level - len[i]);
+                if (extra > 0) {
+                    c++;
+                    extra--;
+                }
+                counts[i] = c;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (counts[i] > 0) {
+                len[i] += counts[i];
+                siftDown(pos[i]);
+            }
+        }
+    }
+
+    private void rebuild(List<IntRingBuffer> lines) {
+        int n = members.length;
+        for (int i = 0; i < n; i++) {
+            len[i] = lines.get(members[i]).size();
+            heap[i] = i;
+            pos[i] = i;
+        }
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(i);
+        valid = true;
+    }
+
+    /**
+     * Whether every cached length is the line's real one, so a pick is the
+     * linear scan's. Checked with assertions on (-ea) only.
+     */
+    private boolean lengthsCurrent(List<IntRingBuffer> lines) {
+        for (int i = 0; i < members.length; i++) {
+            if (len[i] != lines.get(members[i]).size()) return false;
+        }
+        return true;
+    }
+
+    private boolean less(int a, int b) {
+        return len[a] != len[b] ? len[a] < len[b] : a < b;
+    }
+
+    private void siftDown(int slot) {
+        int n = heap.length;
+        int m = heap[slot];
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= n) break;
+            if (child + 1 < n && less(heap[child + 1], heap[child])) child++;
+            if (!less(heap[child], m)) break;
+            heap[slot] = heap[child];
+            pos[heap[slot]] = slot;
+            slot = child;
+        }
+        heap[slot] = m;
+        pos[m] = slot;
+    }
+}
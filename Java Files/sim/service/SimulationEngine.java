@@ -5,25 +5,25 @@ import sim.model.Passenger;
 import sim.ui.GridRenderer;
 import sim.ui.TicketCounterConfig;
 
-import java.time.Duration;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class SimulationEngine {
     private final List<Flight> flights;
 
-    // Existing held-ups series
-    private final Map<Integer, Integer> heldUpsByInterval = new LinkedHashMap<>();
+    // Existing held-ups series (from interval 1: recorded after each step)
+    private final IntSeries heldUpsByInterval = new IntSeries(1);
 
-    // NEW: queue totals series (waiting lines only)
-    private final Map<Integer, Integer> ticketQueuedByInterval = new LinkedHashMap<>();
-    private final Map<Integer, Integer> checkpointQueuedByInterval = new LinkedHashMap<>();
-    private final Map<Integer, Integer> holdRoomTotalByInterval = new LinkedHashMap<>();
+    // NEW: queue totals series (waiting lines only, from interval 0)
+    private final IntSeries ticketQueuedByInterval = new IntSeries(0);
+    private final IntSeries checkpointQueuedByInterval = new IntSeries(0);
+    private final IntSeries holdRoomTotalByInterval = new IntSeries(0);
 
-    private final ArrivalGenerator arrivalGenerator;
-    private final ArrivalGenerator minuteGenerator;
     private final Map<Flight, int[]> minuteArrivalsMap = new HashMap<>();
-    private final Map<Flight, Integer> holdRoomCellSize;
+
+    // schedule resolved to ordinals, minute offsets and eligibility bitsets
+    private final CompiledScenario scenario;
 
     private final int arrivalSpanMinutes;
     private final int intervalMinutes;
@@ -41,12 +41,18 @@ public class SimulationEngine {
     private final double checkpointRate;
     private final LocalTime globalStart;
     private final List<Flight> justClosedFlights = new ArrayList<>();
-    private final Set<Passenger> ticketCompletedVisible = new HashSet<>();
 
-    private final List<LinkedList<Passenger>> ticketLines;
-    private final List<LinkedList<Passenger>> checkpointLines;
-    private final List<LinkedList<Passenger>> completedTicketLines;
-    private final List<LinkedList<Passenger>> completedCheckpointLines;
+    // flight ordinal -> Flight, fixed at construction
+    private final Flight[] flightArray;
+
+    // every passenger that has arrived, as parallel primitive arrays keyed by id;
+    // the queues below hold ids, and Passenger objects are only built for the UI
+    private final PassengerTable passengers;
+
+    private final List<IntRingBuffer> ticketLines;
+    private final List<IntRingBuffer> checkpointLines;
+    private final List<IntRingBuffer> completedTicketLines;
+    private final List<IntRingBuffer> completedCheckpointLines;
 
     // per-flight counts (needed by clearHistory, etc.)
     private final List<Map<Flight, Integer>> historyArrivals = new ArrayList<>();
@@ -60,91 +66,187 @@ public class SimulationEngine {
     private final List<List<List<Passenger>>> historyFromTicketArrivals = new ArrayList<>();
 
     // the hold-room queues
-    private final List<LinkedList<Passenger>> holdRoomLines;
+    private final List<IntRingBuffer> holdRoomLines;
 
-    // histories for the UI panels
-    private final List<List<List<Passenger>>> historyServedTicket = new ArrayList<>();
-    private final List<List<List<Passenger>>> historyQueuedTicket = new ArrayList<>();
-    private final List<List<List<Passenger>>> historyServedCheckpoint = new ArrayList<>();
-    private final List<List<List<Passenger>>> historyQueuedCheckpoint = new ArrayList<>();
-    private final List<List<List<Passenger>>> historyHoldRooms = new ArrayList<>();
-
-    private final Random rand = new Random();
+    // histories for the UI panels (line lengths per step; members rebuilt on demand)
+    private final LineHistory historyServedTicket;
+    private final LineHistory historyQueuedTicket;
+    private final LineHistory historyServedCheckpoint;
+    private final LineHistory historyQueuedCheckpoint;
+    private final LineHistory historyHoldRooms;
 
     private double[] counterProgress;
     private double[] checkpointProgress;
-    private final Map<Integer, List<Passenger>> pendingToCP;
-    private final Map<Integer, List<Passenger>> pendingToHold;
-    private Passenger[] counterServing;
-    private Passenger[] checkpointServing;
+    // transfers keyed by due minute; both delays are small fixed bounds
+    private final TimingWheel pendingToCP;
+    private final TimingWheel pendingToHold;
+    private int[] counterServing;       // passenger id being served, or -1
+    private int[] checkpointServing;
+
+    // shortest-line selection: flights with the same eligible counters share a heap
+    private final ShortestLineHeap[] counterGroupOfFlight;
+    private final List<ShortestLineHeap> counterGroups = new ArrayList<>();
+    private ShortestLineHeap[][] groupsOfCounter;   // the groups each counter belongs to
+    private final ShortestLineHeap checkpointGroup;
+    private final int[] fillCounts;
+
+    // lines that gained a missed passenger during the current step
+    private final BitSet dirtyCounters = new BitSet();
+    private final BitSet dirtyCheckpoints = new BitSet();
 
     // ============================
     // PHASES 0–3: REWIND SUPPORT
     // ============================
 
     /**
-     * One snapshot per interval index, where snapshot index == currentInterval value.
+     * How rewind/fast-forward state is retained.
+     * KEYFRAMES keeps a full snapshot every K intervals (K adapts to a heap budget)
+     * and rebuilds the intervals in between by re-simulating from the nearest keyframe.
+     * JOURNAL keeps only the mutations each interval performed and replays them
+     * backwards or forwards, so stepping costs O(changes) instead of O(passengers).
+     * NONE keeps nothing: no rewinding, no line history, views, frames or result.
+     * It is for headless runs (sweeps, solvers) that read only the per-interval
+     * series and the final state, see {@link #getMetrics()}.
+     */
+    public enum RewindMode { KEYFRAMES, JOURNAL, NONE }
+
+    /** Default keyframe budget: an eighth of the max heap, never below 16 MB. */
+    public static final long DEFAULT_SNAPSHOT_BUDGET_BYTES =
+            Math.max(16L << 20, Runtime.getRuntime().maxMemory() / 8);
+
+    private final RewindMode rewindMode;
+
+    /**
+     * JOURNAL mode: one delta per simulated step, where journal.get(i) takes
+     * interval i to interval i + 1.
+     */
+    private final List<IntervalDelta> journal = new ArrayList<>();
+
+    /**
+     * KEYFRAMES mode: snapshots keyed by interval index (== currentInterval value).
      * Index 0 is the initial state before any simulateInterval() has run.
      */
-    private final List<EngineSnapshot> stateSnapshots = new ArrayList<>();
+    private final SnapshotStore<EngineSnapshot> stateSnapshots =
+            new SnapshotStore<>(DEFAULT_SNAPSHOT_BUDGET_BYTES, EngineSnapshot::estimateBytes);
 
     /**
-     * The furthest interval index for which we have a snapshot.
-     * Always equals stateSnapshots.size() - 1 (when non-empty).
+     * The furthest interval index that has been simulated. Every interval up to
+     * here can be restored (directly or by replay from a keyframe).
      */
     private int maxComputedInterval = 0;
 
+    /**
+     * True while re-simulating from a keyframe: history and keyframes for these
+     * intervals already exist and must not be recorded again.
+     */
+    private boolean replaying = false;
+
+    // ============================
+    // NEXT-EVENT MODE
+    // ============================
+
+    /**
+     * Minutes at which the schedule forces work: arrival batches and boarding
+     * closes. Transit/hold-room moves and service completions are found from the
+     * live state, see {@link #nextEventMinute(int)}.
+     */
+    private EventCalendar scheduledEvents;
+
+    /**
+     * When on, minutes with no arrivals, closes, moves or service completions
+     * skip the flight/counter scans and only advance service progress and the
+     * per-interval series. Results are identical to the minute-by-minute core.
+     */
+    private boolean nextEventMode = false;
+
+    // ============================
+    // STOCHASTIC MODE
+    // ============================
+
+    /**
+     * Off by default: every run follows the arrival profile and service rates
+     * exactly. When on, minute m samples from its own stream derived from
+     * {@link #randomSeed} (see {@link Sampling#streamSeed}), so rewinds and
+     * keyframe replays redraw the same values and nothing about the streams has
+     * to be snapshotted.
+     */
+    private boolean stochastic = false;
+    private long randomSeed;
+
+    /** Sampled arrivals per flight, indexed like the profile tables; drawn once per seed. */
+    private int[][] sampledArrivals;
+    /** Stream index of the up-front arrival draw; minute m draws from stream m. */
+    private static final long ARRIVAL_STREAM = -1;
+
+    // ============================
+    // FRAME PUBLICATION
+    // ============================
+
+    /**
+     * Latest {@link IntervalFrame}, replaced after every computed or restored
+     * interval while publishing is on. The single reference is the only thing
+     * renderers share with the engine, so the engine may run on its own thread.
+     */
+    private final AtomicReference<IntervalFrame> latestFrame = new AtomicReference<>();
+
+    /** Off by default: headless runs (workers, sweeps) never pay for frames. */
+    private boolean publishFrames = false;
+
+    // views reused across frames; only the publishing thread touches it
+    private final PassengerViewCache frameViews;
+
     /**
      * Immutable state snapshot (deep copies of mutable containers).
-     * Passenger objects are referenced (not cloned) intentionally.
+     * The passenger table is captured as plain array copies, so a replay from
+     * this keyframe starts from the exact same state.
      */
     private static final class EngineSnapshot {
         final int currentInterval;
 
-        final List<LinkedList<Passenger>> ticketLines;
-        final List<LinkedList<Passenger>> completedTicketLines;
-        final List<LinkedList<Passenger>> checkpointLines;
-        final List<LinkedList<Passenger>> completedCheckpointLines;
-        final List<LinkedList<Passenger>> holdRoomLines;
+        final int[][] ticketLines;
+        final int[][] completedTicketLines;
+        final int[][] checkpointLines;
+        final int[][] completedCheckpointLines;
+        final int[][] holdRoomLines;
 
         final double[] counterProgress;
         final double[] checkpointProgress;
 
-        final Map<Integer, List<Passenger>> pendingToCP;
-        final Map<Integer, List<Passenger>> pendingToHold;
+        final TimingWheel.Snapshot pendingToCP;
+        final TimingWheel.Snapshot pendingToHold;
 
-        final Passenger[] counterServing;
-        final Passenger[] checkpointServing;
+        final int[] counterServing;
+        final int[] checkpointServing;
 
-        final Set<Passenger> ticketCompletedVisible;
         final List<Flight> justClosedFlights;
 
-        final LinkedHashMap<Integer, Integer> heldUpsByInterval;
+        // series are append-only and shared: a keyframe keeps only their watermarks
+        final int heldUpsLength;
+        final int ticketQueuedLength;
+        final int checkpointQueuedLength;
+        final int holdRoomTotalLength;
 
-        // NEW: queue totals series snapshots
-        final LinkedHashMap<Integer, Integer> ticketQueuedByInterval;
-        final LinkedHashMap<Integer, Integer> checkpointQueuedByInterval;
-        final LinkedHashMap<Integer, Integer> holdRoomTotalByInterval;
+        final PassengerTable.Snapshot passengers;
 
         EngineSnapshot(
                 int currentInterval,
-                List<LinkedList<Passenger>> ticketLines,
-                List<LinkedList<Passenger>> completedTicketLines,
-                List<LinkedList<Passenger>> checkpointLines,
-                List<LinkedList<Passenger>> completedCheckpointLines,
-                List<LinkedList<Passenger>> holdRoomLines,
+                int[][] ticketLines,
+                int[][] completedTicketLines,
+                int[][] checkpointLines,
+                int[][] completedCheckpointLines,
+                int[][] holdRoomLines,
                 double[] counterProgress,
                 double[] checkpointProgress,
-                Map<Integer, List<Passenger>> pendingToCP,
-                Map<Integer, List<Passenger>> pendingToHold,
-                Passenger[] counterServing,
-                Passenger[] checkpointServing,
-                Set<Passenger> ticketCompletedVisible,
+                TimingWheel.Snapshot pendingToCP,
+                TimingWheel.Snapshot pendingToHold,
+                int[] counterServing,
+                int[] checkpointServing,
                 List<Flight> justClosedFlights,
-                LinkedHashMap<Integer, Integer> heldUpsByInterval,
-                LinkedHashMap<Integer, Integer> ticketQueuedByInterval,
-                LinkedHashMap<Integer, Integer> checkpointQueuedByInterval,
-                LinkedHashMap<Integer, Integer> holdRoomTotalByInterval
+                int heldUpsLength,
+                int ticketQueuedLength,
+                int checkpointQueuedLength,
+                int holdRoomTotalLength,
+                PassengerTable.Snapshot passengers
         ) {
             this.currentInterval = currentInterval;
             this.ticketLines = ticketLines;
@@ -162,14 +264,32 @@ public class SimulationEngine {
             this.counterServing = counterServing;
             this.checkpointServing = checkpointServing;
 
-            this.ticketCompletedVisible = ticketCompletedVisible;
             this.justClosedFlights = justClosedFlights;
 
-            this.heldUpsByInterval = heldUpsByInterval;
+            this.heldUpsLength = heldUpsLength;
+
+            this.ticketQueuedLength = ticketQueuedLength;
+            this.checkpointQueuedLength = checkpointQueuedLength;
+            this.holdRoomTotalLength = holdRoomTotalLength;
+            this.passengers = passengers;
+        }
+
+        /** Rough retained size in bytes (id arrays, transfer wheels, passenger table, progress arrays). */
+        long estimateBytes() {
+            long refs = countPassengers(ticketLines) + countPassengers(completedTicketLines)
+                    + countPassengers(checkpointLines) + countPassengers(completedCheckpointLines)
+                    + countPassengers(holdRoomLines);
+            long bytes = 256 + refs * 4;
+            bytes += pendingToCP.estimateBytes() + pendingToHold.estimateBytes();
+            bytes += passengers.estimateBytes();
+            bytes += (counterProgress.length + checkpointProgress.length) * 8L;
+            return bytes;
+        }
 
-            this.ticketQueuedByInterval = ticketQueuedByInterval;
-            this.checkpointQueuedByInterval = checkpointQueuedByInterval;
-            this.holdRoomTotalByInterval = holdRoomTotalByInterval;
+        private static long countPassengers(int[][] lines) {
+            long n = lines.length * 4L;   // array headers
+            for (int[] line : lines) n += line.length;
+            return n;
         }
     }
 
@@ -182,6 +302,23 @@ public class SimulationEngine {
                             int transitDelayMinutes,
                             int holdDelayMinutes,
                             List<Flight> flights) {
+        this(percentInPerson, counterConfigs, numCheckpoints, checkpointRate,
+             arrivalSpanMinutes, intervalMinutes, transitDelayMinutes, holdDelayMinutes,
+             flights, RewindMode.JOURNAL);
+    }
+
+    public SimulationEngine(double percentInPerson,
+                            List<TicketCounterConfig> counterConfigs,
+                            int numCheckpoints,
+                            double checkpointRate,
+                            int arrivalSpanMinutes,
+                            int intervalMinutes,
+                            int transitDelayMinutes,
+                            int holdDelayMinutes,
+                            List<Flight> flights,
+                            RewindMode rewindMode) {
+        this.rewindMode = rewindMode;
+
         // assign restored fields
         this.percentInPerson = percentInPerson;
         this.counterConfigs = counterConfigs;
@@ -192,80 +329,109 @@ public class SimulationEngine {
         this.transitDelayMinutes = transitDelayMinutes;
         this.holdDelayMinutes = holdDelayMinutes;
         this.flights = flights;
-
-        // compute global start time based on earliest departure
-        LocalTime firstDep = flights.stream()
-                .map(Flight::getDepartureTime)
-                .min(LocalTime::compareTo)
-                .orElse(LocalTime.MIDNIGHT);
-        this.globalStart = firstDep.minusMinutes(arrivalSpanMinutes);
-
-        // compute total intervals up to the latest boarding-close (depTime - 20)
-        long maxClose = flights.stream()
-                .mapToLong(f -> Duration.between(
-                        globalStart,
-                        f.getDepartureTime().minusMinutes(20)
-                ).toMinutes())
-                .max().orElse(0);
-        this.totalIntervals = (int) maxClose + 1;
-
-        this.arrivalGenerator = new ArrivalGenerator(arrivalSpanMinutes, intervalMinutes);
-        this.minuteGenerator = new ArrivalGenerator(arrivalSpanMinutes, 1);
-        for (Flight f : flights) {
-            minuteArrivalsMap.put(f, minuteGenerator.generateArrivals(f));
-        }
-
-        holdRoomCellSize = new HashMap<>();
-        for (Flight f : flights) {
-            int total = (int) Math.round(f.getSeats() * f.getFillPercent());
-            int bestCell = GridRenderer.MIN_CELL_SIZE;
-
-            // try every possible row-count from 1 up to total:
-            for (int rows = 1; rows <= total; rows++) {
-                int cols = (total + rows - 1) / rows;           // ceil division
-                int cellByRows = GridRenderer.HOLD_BOX_SIZE / rows;
-                int cellByCols = GridRenderer.HOLD_BOX_SIZE / cols;
-                int cell = Math.min(cellByRows, cellByCols);
-                bestCell = Math.max(bestCell, cell);
-            }
-            holdRoomCellSize.put(f, bestCell);
+        this.flightArray = flights.toArray(new Flight[0]);
+        this.passengers = new PassengerTable(flightArray);
+        this.frameViews = new PassengerViewCache(passengers);
+
+        // resolve the schedule once: start time, offsets, close minutes, eligibility
+        this.scenario = new CompiledScenario(flights, counterConfigs, arrivalSpanMinutes,
+                new ArrivalGenerator(arrivalSpanMinutes, 1));
+        this.globalStart = scenario.getGlobalStart();
+        this.totalIntervals = scenario.getTotalIntervals();
+        for (int fi = 0; fi < flightArray.length; fi++) {
+            minuteArrivalsMap.putIfAbsent(flightArray[fi], scenario.arrivalsPerMinute(fi));
         }
 
+        scheduledEvents = eventCalendar();
+
         this.currentInterval = 0;
 
         // ticket lines
         ticketLines = new ArrayList<>();
         completedTicketLines = new ArrayList<>();
         for (int i = 0; i < counterConfigs.size(); i++) {
-            ticketLines.add(new LinkedList<>());
-            completedTicketLines.add(new LinkedList<>());
+            ticketLines.add(new IntRingBuffer());
+            completedTicketLines.add(new IntRingBuffer());
         }
 
         // checkpoint lines
         checkpointLines = new ArrayList<>();
         completedCheckpointLines = new ArrayList<>();
         for (int i = 0; i < numCheckpoints; i++) {
-            checkpointLines.add(new LinkedList<>());
-            completedCheckpointLines.add(new LinkedList<>());
+            checkpointLines.add(new IntRingBuffer());
+            completedCheckpointLines.add(new IntRingBuffer());
         }
 
         // hold-room lines (one per flight)
         holdRoomLines = new ArrayList<>();
         for (int i = 0; i < flights.size(); i++) {
-            holdRoomLines.add(new LinkedList<>());
+            holdRoomLines.add(new IntRingBuffer());
         }
 
+        historyServedTicket = new LineHistory(counterConfigs.size());
+        historyQueuedTicket = new LineHistory(counterConfigs.size());
+        historyServedCheckpoint = new LineHistory(numCheckpoints);
+        historyQueuedCheckpoint = new LineHistory(numCheckpoints);
+        historyHoldRooms = new LineHistory(flights.size());
+
+        counterGroupOfFlight = new ShortestLineHeap[flightArray.length];
+        buildCounterGroups();
+        int[] allCheckpoints = new int[numCheckpoints];
+        for (int j = 0; j < numCheckpoints; j++) allCheckpoints[j] = j;
+        checkpointGroup = new ShortestLineHeap(allCheckpoints);
+        fillCounts = new int[Math.max(counterConfigs.size(), numCheckpoints)];
+
         counterProgress = new double[counterConfigs.size()];
         checkpointProgress = new double[numCheckpoints];
-        pendingToCP = new HashMap<>();
-        pendingToHold = new HashMap<>();
-        counterServing = new Passenger[counterConfigs.size()];
-        checkpointServing = new Passenger[numCheckpoints];
+        pendingToCP = new TimingWheel(transitDelayMinutes);
+        pendingToHold = new TimingWheel(holdDelayMinutes);
+        counterServing = new int[counterConfigs.size()];
+        checkpointServing = new int[numCheckpoints];
+        Arrays.fill(counterServing, -1);
+        Arrays.fill(checkpointServing, -1);
 
         // Phase 1: snapshot interval 0 (initial state)
         captureSnapshot0();
     }
 
+    /**
+     * Eligibility groups: flights with equal counter bitsets share a heap. A
+     * counter can sit in several groups, which must all see what joins it.
+     */
+    private void buildCounterGroups() {
+        counterGroups.clear();
+        Map<BitSet, ShortestLineHeap> groupsBySet = new HashMap<>();
+        for (int fi = 0; fi < flightArray.length; fi++) {
+            counterGroupOfFlight[fi] = groupsBySet.computeIfAbsent(scenario.eligibleCounters(fi), eligible -> {
+                ShortestLineHeap h = new ShortestLineHeap(eligible.stream().toArray());
+                counterGroups.add(h);
+                return h;
+            });
+        }
+        List<List<ShortestLineHeap>> byCounter = new ArrayList<>();
+        for (int c = 0; c < counterConfigs.size(); c++) byCounter.add(new ArrayList<>());
+        for (ShortestLineHeap h : counterGroups) {
+            for (int c : h.members()) byCounter.get(c).add(h);
+        }
+        groupsOfCounter = new ShortestLineHeap[byCounter.size()][];
+        for (int c = 0; c < groupsOfCounter.length; c++) {
+            groupsOfCounter[c] = byCounter.get(c).toArray(new ShortestLineHeap[0]);
+        }
+    }
+
+    /**
+     * Pick up edits to the allowed flights of this engine's own counter configs
+     * for the flights {@code flightOrdinals}. Eligibility is read only when a
+     * flight's passengers arrive, so the intervals before the earliest of those
+     * flights' arrival offsets stay valid; re-simulate from there with
+     * {@link #simulateInterval()}. For engines that own their counters, such as
+     * the {@link AssignmentOptimizer}'s.
+     */
+    void refreshEligibility(int[] flightOrdinals) {
+        for (int fi : flightOrdinals) scenario.refreshEligibility(fi, counterConfigs);
+        buildCounterGroups();
+    }
+
     // ============================
     // Phase 1: Capture snapshots
     // ============================
@@ -279,49 +445,55 @@ public class SimulationEngine {
         holdRoomTotalByInterval.clear();
 
         justClosedFlights.clear();
-        ticketCompletedVisible.clear();
 
         // Record interval 0 totals (initial state)
         recordQueueTotalsForCurrentInterval();
 
-        EngineSnapshot s0 = makeSnapshot();
-        stateSnapshots.add(s0);
+        journal.clear();
+        if (rewindMode == RewindMode.KEYFRAMES) {
+            EngineSnapshot s0 = makeSnapshot();
+            stateSnapshots.put(0, s0);
+        }
         maxComputedInterval = 0;
     }
 
     private EngineSnapshot makeSnapshot() {
         return new EngineSnapshot(
                 currentInterval,
-                deepCopyLinkedLists(ticketLines),
-                deepCopyLinkedLists(completedTicketLines),
-                deepCopyLinkedLists(checkpointLines),
-                deepCopyLinkedLists(completedCheckpointLines),
-                deepCopyLinkedLists(holdRoomLines),
+                toIdArrays(ticketLines),
+                toIdArrays(completedTicketLines),
+                toIdArrays(checkpointLines),
+                toIdArrays(completedCheckpointLines),
+                toIdArrays(holdRoomLines),
                 Arrays.copyOf(counterProgress, counterProgress.length),
                 Arrays.copyOf(checkpointProgress, checkpointProgress.length),
-                deepCopyPendingMap(pendingToCP),
-                deepCopyPendingMap(pendingToHold),
+                pendingToCP.snapshot(),
+                pendingToHold.snapshot(),
                 Arrays.copyOf(counterServing, counterServing.length),
                 Arrays.copyOf(checkpointServing, checkpointServing.length),
-                new HashSet<>(ticketCompletedVisible),
                 new ArrayList<>(justClosedFlights),
-                new LinkedHashMap<>(heldUpsByInterval),
-                new LinkedHashMap<>(ticketQueuedByInterval),
-                new LinkedHashMap<>(checkpointQueuedByInterval),
-                new LinkedHashMap<>(holdRoomTotalByInterval)
+                heldUpsByInterval.length(),
+                ticketQueuedByInterval.length(),
+                checkpointQueuedByInterval.length(),
+                holdRoomTotalByInterval.length(),
+                passengers.snapshot()
         );
     }
 
     private void appendSnapshotAfterInterval() {
-        // currentInterval has already been incremented at the end of simulateInterval()
-        EngineSnapshot snap = makeSnapshot();
+        if (rewindMode != RewindMode.KEYFRAMES) {
+            // JOURNAL: the delta was already appended by simulateInterval(); NONE keeps nothing
+            maxComputedInterval = Math.max(maxComputedInterval, currentInterval);
+            return;
+        }
 
-        if (currentInterval < stateSnapshots.size()) {
-            stateSnapshots.set(currentInterval, snap);
-        } else {
-            stateSnapshots.add(snap);
+        // replayed intervals were already captured (or deliberately thinned out)
+        if (replaying) return;
+
+        // currentInterval has already been incremented at the end of simulateInterval()
+        if (stateSnapshots.shouldCapture(currentInterval)) {
+            stateSnapshots.put(currentInterval, makeSnapshot());
         }
-        // Keep the invariant: maxComputedInterval == highest snapshot index we have
         maxComputedInterval = Math.max(maxComputedInterval, currentInterval);
     }
 
@@ -331,17 +503,44 @@ public class SimulationEngine {
 
     private void restoreSnapshot(int targetInterval) {
         int t = clamp(targetInterval, 0, maxComputedInterval);
-        EngineSnapshot s = stateSnapshots.get(t);
+        if (rewindMode == RewindMode.NONE) {
+            if (t != currentInterval) throw new IllegalStateException("RewindMode.NONE cannot rewind");
+            return;
+        }
+        if (rewindMode == RewindMode.JOURNAL) {
+            while (currentInterval > t) undoDelta(journal.get(currentInterval - 1));
+            while (currentInterval < t) redoDelta(journal.get(currentInterval));
+            if (publishFrames) publishFrame();
+            return;
+        }
+
+        // Restore the nearest keyframe unless we can simply keep simulating forward from here
+        int keyframe = stateSnapshots.floor(t).getKey();
+        if (t < currentInterval || keyframe > currentInterval) {
+            restoreKeyframe(stateSnapshots.floor(t).getValue());
+        }
+
+        // Deterministic replay up to the target; history/keyframes already exist for these
+        replaying = true;
+        try {
+            while (currentInterval < t) simulateInterval();
+        } finally {
+            replaying = false;
+        }
+        if (publishFrames) publishFrame();
+    }
+
+    private void restoreKeyframe(EngineSnapshot s) {
 
         // restore clock
         this.currentInterval = s.currentInterval;
 
         // restore queues IN PLACE (do not replace list objects)
-        restoreLinkedListsInPlace(ticketLines, s.ticketLines);
-        restoreLinkedListsInPlace(completedTicketLines, s.completedTicketLines);
-        restoreLinkedListsInPlace(checkpointLines, s.checkpointLines);
-        restoreLinkedListsInPlace(completedCheckpointLines, s.completedCheckpointLines);
-        restoreLinkedListsInPlace(holdRoomLines, s.holdRoomLines);
+        restoreLinesInPlace(ticketLines, s.ticketLines);
+        restoreLinesInPlace(completedTicketLines, s.completedTicketLines);
+        restoreLinesInPlace(checkpointLines, s.checkpointLines);
+        restoreLinesInPlace(completedCheckpointLines, s.completedCheckpointLines);
+        restoreLinesInPlace(holdRoomLines, s.holdRoomLines);
 
         // restore progress arrays
         if (this.counterProgress == null || this.counterProgress.length != s.counterProgress.length) {
@@ -357,11 +556,9 @@ public class SimulationEngine {
         }
 
         // restore pending maps (keep same Map objects; clear+refill)
-        this.pendingToCP.clear();
-        this.pendingToCP.putAll(deepCopyPendingMap(s.pendingToCP));
+        this.pendingToCP.restore(s.pendingToCP);
 
-        this.pendingToHold.clear();
-        this.pendingToHold.putAll(deepCopyPendingMap(s.pendingToHold));
+        this.pendingToHold.restore(s.pendingToHold);
 
         // restore serving arrays (arrays are internal, but keep shape stable)
         if (this.counterServing == null || this.counterServing.length != s.counterServing.length) {
@@ -376,26 +573,324 @@ public class SimulationEngine {
             System.arraycopy(s.checkpointServing, 0, this.checkpointServing, 0, s.checkpointServing.length);
         }
 
-        // restore visibility + closures
-        this.ticketCompletedVisible.clear();
-        this.ticketCompletedVisible.addAll(s.ticketCompletedVisible);
-
+        // restore closures
         this.justClosedFlights.clear();
         this.justClosedFlights.addAll(s.justClosedFlights);
 
         // restore held-ups chart data
-        this.heldUpsByInterval.clear();
-        this.heldUpsByInterval.putAll(s.heldUpsByInterval);
+        this.heldUpsByInterval.restoreLength(s.heldUpsLength);
 
         // restore queue totals series
-        this.ticketQueuedByInterval.clear();
-        this.ticketQueuedByInterval.putAll(s.ticketQueuedByInterval);
+        this.ticketQueuedByInterval.restoreLength(s.ticketQueuedLength);
+        this.checkpointQueuedByInterval.restoreLength(s.checkpointQueuedLength);
+        this.holdRoomTotalByInterval.restoreLength(s.holdRoomTotalLength);
+
+        // restore the passenger table (ids, timestamps, flags) as of the keyframe
+        passengers.restore(s.passengers);
+    }
+
+    // ============================
+    // Journal replay (JOURNAL mode)
+    // ============================
+
+    /** Reverse every mutation of {@code d}, taking the engine from d.minute + 1 back to d.minute. */
+    private void undoDelta(IntervalDelta d) {
+        List<IntervalDelta.Entry> entries = d.entries;
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            IntervalDelta.Entry e = entries.get(i);
+            int p = e.passenger;
+            switch (e.op) {
+                case ENQUEUE_TICKET:
+                    ticketLines.get(e.line).removeLast();
+                    break;
+                case ENQUEUE_CHECKPOINT:
+                    checkpointLines.get(e.line).removeLast();
+                    passengers.setCheckpointEntryMinute(p, e.prevValue);
+                    passengers.setCheckpointLine(p, -1);   // a passenger queues there once
+                    if (e.flag) passengers.setTicketVisible(p, true);
+                    break;
+                case SERVE_TICKET:
+                    completedTicketLines.get(e.line).removeLast();
+                    passengers.setTicketVisible(p, false);
+                    pendingToCP.removeLast(d.minute + transitDelayMinutes);
+                    ticketLines.get(e.line).addFirst(p);
+                    passengers.setTicketCompletionMinute(p, e.prevValue);
+                    break;
+                case SERVE_CHECKPOINT:
+                    completedCheckpointLines.get(e.line).removeLast();
+                    pendingToHold.removeLast(d.minute + holdDelayMinutes);
+                    checkpointLines.get(e.line).addFirst(p);
+                    passengers.setCheckpointCompletionMinute(p, e.prevValue);
+                    break;
+                case TAKE_PENDING_CP:
+                    pendingToCP.restoreAt(d.minute, e.bucket);
+                    break;
+                case TAKE_PENDING_HOLD:
+                    pendingToHold.restoreAt(d.minute, e.bucket);
+                    break;
+                case MOVE_TO_HOLD:
+                    holdRoomLines.get(e.line).removeLast();
+                    passengers.setHoldRoomEntryMinute(p, e.prevValue);
+                    passengers.setHoldRoomSequence(p, e.prevValue2);
+                    break;
+                case MARK_MISSED:
+                    passengers.setMissed(p, false);
+                    break;
+                case PURGE:
+                    e.list.insert(e.line, p);
+                    break;
+            }
+        }
+
+        passengers.truncate(d.passengersBefore);
+        System.arraycopy(d.counterProgressBefore, 0, counterProgress, 0, counterProgress.length);
+        System.arraycopy(d.checkpointProgressBefore, 0, checkpointProgress, 0, checkpointProgress.length);
+
+        // series: forget interval d.minute + 1 (held-ups start at 1, queue totals at 0)
+        heldUpsByInterval.truncate(d.minute);
+        ticketQueuedByInterval.truncate(d.minute + 1);
+        checkpointQueuedByInterval.truncate(d.minute + 1);
+        holdRoomTotalByInterval.truncate(d.minute + 1);
+
+        justClosedFlights.clear();
+        if (d.minute > 0) justClosedFlights.addAll(journal.get(d.minute - 1).closedFlights);
+
+        currentInterval = d.minute;
+    }
+
+    /** Re-apply every mutation of {@code d}, taking the engine from d.minute to d.minute + 1. */
+    private void redoDelta(IntervalDelta d) {
+        int minute = d.minute;
+        passengers.restoreCount(d.passengersAfter);
+        for (IntervalDelta.Entry e : d.entries) {
+            int p = e.passenger;
+            switch (e.op) {
+                case ENQUEUE_TICKET:
+                    passengers.setTicketLine(p, e.line);
+                    ticketLines.get(e.line).add(p);
+                    break;
+                case ENQUEUE_CHECKPOINT:
+                    if (e.flag) passengers.setTicketVisible(p, false);
+                    passengers.setCheckpointEntryMinute(p, minute);
+                    passengers.setCheckpointLine(p, e.line);
+                    checkpointLines.get(e.line).add(p);
+                    break;
+                case SERVE_TICKET:
+                    ticketLines.get(e.line).poll();
+                    passengers.setTicketCompletionMinute(p, minute);
+                    completedTicketLines.get(e.line).add(p);
+                    passengers.setTicketVisible(p, true);
+                    pendingToCP.schedule(minute + transitDelayMinutes, p);
+                    break;
+                case SERVE_CHECKPOINT:
+                    checkpointLines.get(e.line).poll();
+                    passengers.setCheckpointCompletionMinute(p, minute);
+                    completedCheckpointLines.get(e.line).add(p);
+                    pendingToHold.schedule(minute + holdDelayMinutes, p);
+                    break;
+                case TAKE_PENDING_CP:
+                    pendingToCP.clearAt(minute);
+                    break;
+                case TAKE_PENDING_HOLD:
+                    pendingToHold.clearAt(minute);
+                    break;
+                case MOVE_TO_HOLD:
+                    passengers.setHoldRoomEntryMinute(p, minute);
+                    passengers.setHoldRoomSequence(p, e.newValue);
+                    holdRoomLines.get(e.line).add(p);
+                    break;
+                case MARK_MISSED:
+                    passengers.setMissed(p, true);
+                    break;
+                case PURGE:
+                    e.list.removeAt(e.line);
+                    break;
+            }
+        }
+
+        System.arraycopy(d.counterProgressAfter, 0, counterProgress, 0, counterProgress.length);
+        System.arraycopy(d.checkpointProgressAfter, 0, checkpointProgress, 0, checkpointProgress.length);
+
+        currentInterval = minute + 1;
+        heldUpsByInterval.set(currentInterval, d.heldUps);
+        ticketQueuedByInterval.set(currentInterval, d.ticketQueued);
+        checkpointQueuedByInterval.set(currentInterval, d.checkpointQueued);
+        holdRoomTotalByInterval.set(currentInterval, d.holdRoomTotal);
+
+        justClosedFlights.clear();
+        justClosedFlights.addAll(d.closedFlights);
+    }
+
+    /** The rewind strategy this engine was built with. */
+    public RewindMode getRewindMode() {
+        return rewindMode;
+    }
+
+    /** Cap the heap retained by keyframes (KEYFRAMES mode); K grows to stay under it. */
+    public void setSnapshotBudgetBytes(long budgetBytes) {
+        stateSnapshots.setBudgetBytes(budgetBytes);
+    }
+
+    public long getSnapshotBudgetBytes() {
+        return stateSnapshots.getBudgetBytes();
+    }
+
+    /** Estimated heap retained for rewind: keyframes, or journal entries in JOURNAL mode. */
+    public long getRetainedSnapshotBytes() {
+        if (rewindMode == RewindMode.KEYFRAMES) return stateSnapshots.getRetainedBytes();
+        long bytes = 0;
+        for (IntervalDelta d : journal) {
+            bytes += 128 + d.entries.size() * 40L
+                    + (d.counterProgressBefore.length + d.checkpointProgressBefore.length) * 16L;
+        }
+        return bytes;
+    }
+
+    /** Current keyframe spacing K (1 until the budget forces thinning). */
+    public int getKeyframeInterval() {
+        return stateSnapshots.getKeyframeInterval();
+    }
+
+    /** Skip idle minutes (see {@link #nextEventMode}); safe to toggle at any time. */
+    public void setNextEventMode(boolean nextEventMode) {
+        this.nextEventMode = nextEventMode;
+    }
 
-        this.checkpointQueuedByInterval.clear();
-        this.checkpointQueuedByInterval.putAll(s.checkpointQueuedByInterval);
+    public boolean isNextEventMode() {
+        return nextEventMode;
+    }
 
-        this.holdRoomTotalByInterval.clear();
-        this.holdRoomTotalByInterval.putAll(s.holdRoomTotalByInterval);
+    /**
+     * Sample instead of following the profile: a flight brings a Poisson number
+     * of passengers around its expected count, each showing up in a minute drawn
+     * from its profile, each arrival comes in person with probability
+     * percentInPerson, and a busy line completes a Poisson(rate) number of
+     * passengers (exponential service times). Must be set at interval 0;
+     * anything computed beyond it was drawn differently and is simulated again.
+     */
+    public void setRandomSeed(long seed) {
+        if (currentInterval > 0) {
+            throw new IllegalStateException("Random seed must be set at interval 0");
+        }
+        this.stochastic = true;
+        this.randomSeed = seed;
+        sampleArrivals(seed);
+        maxComputedInterval = 0;
+    }
+
+    /**
+     * Back to following the profile and service rates exactly, as before any
+     * {@link #setRandomSeed(long)}. Must be called at interval 0, like it.
+     */
+    public void clearRandomSeed() {
+        if (currentInterval > 0) {
+            throw new IllegalStateException("Random seed must be cleared at interval 0");
+        }
+        this.stochastic = false;
+        sampledArrivals = null;
+        scheduledEvents = eventCalendar();
+        maxComputedInterval = 0;
+    }
+
+    /**
+     * Place every passenger of the run with one alias-table draw, so a
+     * replication costs a few nanoseconds per arrival up front. Poisson
+     * totals split over the minutes in proportion to the profile give the
+     * same per-minute counts in law as independent Poisson draws per minute.
+     */
+    private void sampleArrivals(long seed) {
+        SplittableRandom random = new SplittableRandom(Sampling.streamSeed(seed, ARRIVAL_STREAM));
+        int window = scenario.getArrivalWindowMinutes();
+        if (sampledArrivals == null) sampledArrivals = new int[flightArray.length][window];
+        for (int fi = 0; fi < flightArray.length; fi++) {
+            int[] counts = sampledArrivals[fi];
+            Arrays.fill(counts, 0);
+            int total = Sampling.poisson(random, scenario.getPassengerCount(fi));
+            if (total == 0 || window == 0) continue;
+            AliasTable sampler = scenario.arrivalSampler(fi);
+            for (int p = 0; p < total; p++) counts[sampler.sample(random)]++;
+        }
+        scheduledEvents = eventCalendar();
+    }
+
+    /** Arrivals of flight {@code fi} in {@code minute}: the profile's, or this seed's draw. */
+    private int arrivalsAt(int fi, int minute) {
+        if (sampledArrivals == null) return scenario.getArrivalsAt(fi, minute);
+        int idx = minute - scenario.getArrivalOffset(fi);
+        int[] counts = sampledArrivals[fi];
+        return idx >= 0 && idx < counts.length ? counts[idx] : 0;
+    }
+
+    /** Arrival minutes and boarding closes of every flight. */
+    private EventCalendar eventCalendar() {
+        EventCalendar events = new EventCalendar(totalIntervals);
+        for (int fi = 0; fi < flightArray.length; fi++) {
+            int[] perMin = sampledArrivals != null ? sampledArrivals[fi] : scenario.arrivalsPerMinute(fi);
+            int offset = scenario.getArrivalOffset(fi);
+            for (int i = 0; i < perMin.length; i++) {
+                if (perMin[i] > 0) events.add(offset + i);
+            }
+            events.add(scenario.getCloseMinute(fi));
+        }
+        return events;
+    }
+
+    public boolean isStochastic() {
+        return stochastic;
+    }
+
+    /** The stream minute {@code minute} draws from, or null for a deterministic run. */
+    private SplittableRandom minuteRandom(int minute) {
+        return stochastic ? new SplittableRandom(Sampling.streamSeed(randomSeed, minute)) : null;
+    }
+
+    /**
+     * The first interval at or after the current one in which something happens
+     * (arrival, boarding close, transfer, or a service completion), capped at
+     * totalIntervals.
+     */
+    public int getNextEventInterval() {
+        return Math.min(nextEventMinute(currentInterval), totalIntervals);
+    }
+
+    /** Advance through the next event interval, running any idle minutes before it. */
+    public void advanceToNextEvent() {
+        int target = getNextEventInterval();
+        while (currentInterval <= target && currentInterval < totalIntervals) {
+            computeNextInterval();
+        }
+    }
+
+    /**
+     * Next minute >= {@code from} with work to do. Service completions are
+     * predicted from the current progress, so {@code from} must be currentInterval.
+     */
+    private int nextEventMinute(int from) {
+        int next = scheduledEvents.next(from);
+        next = Math.min(next, pendingToCP.nextDue(from));
+        next = Math.min(next, pendingToHold.nextDue(from));
+        if (next > from && serviceDue()) next = from;
+        return next;
+    }
+
+    /**
+     * True if some non-empty line would finish serving someone this minute (in a
+     * stochastic run, any non-empty line might).
+     */
+    private boolean serviceDue() {
+        for (int c = 0; c < counterConfigs.size(); c++) {
+            if (!ticketLines.get(c).isEmpty()
+                    && (stochastic || Math.floor(counterProgress[c] + counterConfigs.get(c).getRate()) >= 1)) {
+                return true;
+            }
+        }
+        for (int c = 0; c < numCheckpoints; c++) {
+            if (!checkpointLines.get(c).isEmpty()
+                    && (stochastic || Math.floor(checkpointProgress[c] + checkpointRate) >= 1)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private static int clamp(int v, int lo, int hi) {
@@ -408,7 +903,7 @@ public class SimulationEngine {
 
     /** True if we can rewind at least one interval. */
     public boolean canRewind() {
-        return currentInterval > 0;
+        return rewindMode != RewindMode.NONE && currentInterval > 0;
     }
 
     /** True if we can fast-forward using already-computed snapshots (no simulation needed). */
@@ -462,7 +957,26 @@ public class SimulationEngine {
     }
 
     public void runAllIntervals() {
-        // Reset clock + state and re-run
+        reset();
+        while (currentInterval < totalIntervals) {
+            simulateInterval();
+        }
+    }
+
+    /**
+     * {@link #runAllIntervals()} with sampled minutes drawn from {@code seed}
+     * (see {@link #setRandomSeed(long)}); lets one engine run many replications.
+     */
+    public void runAllIntervals(long seed) {
+        reset();
+        setRandomSeed(seed);
+        while (currentInterval < totalIntervals) {
+            simulateInterval();
+        }
+    }
+
+    private void reset() {
+        // Reset clock + state
         currentInterval = 0;
 
         // Clear prior histories + runtime state
@@ -474,249 +988,563 @@ public class SimulationEngine {
         holdRoomTotalByInterval.clear();
 
         justClosedFlights.clear();
-        ticketCompletedVisible.clear();
-        ticketLines.forEach(LinkedList::clear);
-        completedTicketLines.forEach(LinkedList::clear);
-        checkpointLines.forEach(LinkedList::clear);
-        completedCheckpointLines.forEach(LinkedList::clear);
-        holdRoomLines.forEach(LinkedList::clear);
+        passengers.clear();
+        ticketLines.forEach(IntRingBuffer::clear);
+        completedTicketLines.forEach(IntRingBuffer::clear);
+        checkpointLines.forEach(IntRingBuffer::clear);
+        completedCheckpointLines.forEach(IntRingBuffer::clear);
+        holdRoomLines.forEach(IntRingBuffer::clear);
         Arrays.fill(counterProgress, 0);
         Arrays.fill(checkpointProgress, 0);
         pendingToCP.clear();
         pendingToHold.clear();
-        Arrays.fill(counterServing, null);
-        Arrays.fill(checkpointServing, null);
+        Arrays.fill(counterServing, -1);
+        Arrays.fill(checkpointServing, -1);
 
         // Snapshot interval 0
         captureSnapshot0();
-
-        while (currentInterval < totalIntervals) {
-            simulateInterval();
-        }
     }
 
     // === MAIN SIMULATION STEP ===
     public void simulateInterval() {
         // clear previous tick closures
         justClosedFlights.clear();
+        dirtyCounters.clear();
+        dirtyCheckpoints.clear();
 
         int minute = currentInterval; // minutes since globalStart
 
-        // 1) arrivals & boarding-close (unchanged)
-        for (Flight f : flights) {
-            int[] perMin = minuteArrivalsMap.get(f);
-            long offset = Duration.between(globalStart,
-                            f.getDepartureTime().minusMinutes(arrivalSpanMinutes))
-                    .toMinutes();
-            int idx = minute - (int) offset;
-            if (idx >= 0 && idx < perMin.length) {
-                int totalHere = perMin[idx];
-                int inPerson = (int) Math.round(totalHere * percentInPerson);
-                int online = totalHere - inPerson;
+        // simulating from a rewound position (other than a keyframe replay) discards the old future
+        IntervalDelta delta = null;
+        if (!replaying) {
+            maxComputedInterval = Math.min(maxComputedInterval, minute);
+            stateSnapshots.truncateAfter(minute);
+            trimHistory(minute);
+        }
+        if (rewindMode == RewindMode.JOURNAL) {
+            while (journal.size() > minute) journal.remove(journal.size() - 1);
+            delta = new IntervalDelta(minute, passengers.size(), counterProgress, checkpointProgress);
+        }
 
-                // choose counters accepting this flight
-                List<Integer> allowed = new ArrayList<>();
-                for (int j = 0; j < counterConfigs.size(); j++) {
-                    if (counterConfigs.get(j).accepts(f)) {
-                        allowed.add(j);
-                    }
-                }
-                if (allowed.isEmpty()) {
-                    for (int j = 0; j < counterConfigs.size(); j++) {
-                        allowed.add(j);
-                    }
-                }
+        if (nextEventMode && nextEventMinute(minute) > minute) {
+            simulateIdleMinute(delta);
+            return;
+        }
+
+        // stochastic runs draw only for arrival minutes and busy lines, so an
+        // idle minute consumes nothing whether or not it is skipped
+        SplittableRandom random = minuteRandom(minute);
+
+        // 1) arrivals & boarding-close
+        // service, purges and rewinds since the last step changed line lengths
+        for (ShortestLineHeap h : counterGroups) h.invalidate();
+        checkpointGroup.invalidate();
+        for (int fi = 0; fi < flightArray.length; fi++) {
+            int totalHere = arrivalsAt(fi, minute);
+            if (totalHere > 0) {
+                int inPerson = random == null
+                        ? (int) Math.round(totalHere * percentInPerson)
+                        : Sampling.binomial(random, totalHere, percentInPerson);
+                int online = totalHere - inPerson;
 
-                // enqueue in-person
-                for (int i = 0; i < inPerson; i++) {
-                    Passenger p = new Passenger(f, minute, true);
-                    int best = allowed.get(0);
-                    for (int ci : allowed) {
-                        if (ticketLines.get(ci).size() < ticketLines.get(best).size()) {
-                            best = ci;
+                // enqueue in-person: water-fill the counters accepting this flight
+                // (one batch's passengers are interchangeable, so each line takes its share in a row)
+                ShortestLineHeap counters = counterGroupOfFlight[fi];
+                counters.waterFill(ticketLines, inPerson, fillCounts);
+                int[] allowed = counters.members();
+                for (int j = 0; j < allowed.length; j++) {
+                    if (fillCounts[j] > 0) {
+                        // the other groups with this counter would otherwise pick from a stale length
+                        for (ShortestLineHeap other : groupsOfCounter[allowed[j]]) {
+                            if (other != counters) other.grow(allowed[j], fillCounts[j]);
                         }
                     }
-                    ticketLines.get(best).add(p);
+                    for (int n = 0; n < fillCounts[j]; n++) {
+                        int p = passengers.add(fi, minute, true);
+                        passengers.setTicketLine(p, allowed[j]);
+                        ticketLines.get(allowed[j]).add(p);
+                        if (delta != null) delta.enqueueTicket(allowed[j], p);
+                    }
                 }
 
                 // online → checkpoint
-                for (int i = 0; i < online; i++) {
-                    Passenger p = new Passenger(f, minute, false);
-                    p.setCheckpointEntryMinute(minute);
-                    int bestC = 0;
-                    for (int j = 1; j < numCheckpoints; j++) {
-                        if (checkpointLines.get(j).size()
-                                < checkpointLines.get(bestC).size()) {
-                            bestC = j;
-                        }
+                checkpointGroup.waterFill(checkpointLines, online, fillCounts);
+                for (int bestC = 0; bestC < numCheckpoints; bestC++) {
+                    for (int n = 0; n < fillCounts[bestC]; n++) {
+                        int p = passengers.add(fi, minute, false);
+                        int prevEntry = passengers.checkpointEntryMinute(p);
+                        passengers.setCheckpointEntryMinute(p, minute);
+                        passengers.setCheckpointLine(p, bestC);
+                        checkpointLines.get(bestC).add(p);
+                        if (delta != null) delta.enqueueCheckpoint(bestC, p, prevEntry, false);
                     }
-                    checkpointLines.get(bestC).add(p);
                 }
             }
 
             // boarding-close detection
-            int closeIdx = (int) Duration.between(globalStart,
-                            f.getDepartureTime().minusMinutes(20))
-                    .toMinutes();
-            if (minute == closeIdx) {
-                justClosedFlights.add(f);
-                ticketLines.forEach(line ->
-                        line.stream()
-                                .filter(p -> p.getFlight() == f)
-                                .forEach(p -> p.setMissed(true))
-                );
-                completedTicketLines.forEach(line ->
-                        line.stream()
-                                .filter(p -> p.getFlight() == f)
-                                .forEach(p -> p.setMissed(true))
-                );
-                checkpointLines.forEach(line ->
-                        line.stream()
-                                .filter(p -> p.getFlight() == f)
-                                .forEach(p -> p.setMissed(true))
-                );
-                completedCheckpointLines.forEach(line ->
-                        line.stream()
-                                .filter(p -> p.getFlight() == f)
-                                .forEach(p -> p.setMissed(true))
-                );
+            if (minute == scenario.getCloseMinute(fi)) {
+                justClosedFlights.add(flightArray[fi]);
+                markFlightMissed(fi, delta);
             }
         }
 
         // 2) ticket-counter service
         for (int c = 0; c < counterConfigs.size(); c++) {
             double rate = counterConfigs.get(c).getRate();
-            counterProgress[c] += rate;
-            int toComplete = (int) Math.floor(counterProgress[c]);
-            counterProgress[c] -= toComplete;
+            int toComplete;
+            if (random == null) {
+                counterProgress[c] += rate;
+                toComplete = (int) Math.floor(counterProgress[c]);
+                counterProgress[c] -= toComplete;
+            } else {
+                toComplete = ticketLines.get(c).isEmpty() ? 0 : Sampling.poisson(random, rate);
+            }
 
             for (int k = 0; k < toComplete; k++) {
-                if (counterServing[c] == null && !ticketLines.get(c).isEmpty()) {
+                if (counterServing[c] < 0 && !ticketLines.get(c).isEmpty()) {
                     counterServing[c] = ticketLines.get(c).poll();
                 }
-                if (counterServing[c] == null) break;
+                if (counterServing[c] < 0) break;
 
-                Passenger done = counterServing[c];
-                done.setTicketCompletionMinute(minute);
+                int done = counterServing[c];
+                if (delta != null) delta.serveTicket(c, done, passengers.ticketCompletionMinute(done));
+                passengers.setTicketCompletionMinute(done, minute);
                 completedTicketLines.get(c).add(done);
-                ticketCompletedVisible.add(done);
-                pendingToCP.computeIfAbsent(minute + transitDelayMinutes, x -> new ArrayList<>())
-                        .add(done);
-                counterServing[c] = null;
+                passengers.setTicketVisible(done, true);
+                pendingToCP.schedule(minute + transitDelayMinutes, done);
+                counterServing[c] = -1;
             }
         }
 
         // 3) move from ticket → checkpoint
-        List<Passenger> toMove = pendingToCP.remove(minute);
-        if (toMove != null) {
-            for (Passenger p : toMove) {
-                ticketCompletedVisible.remove(p);
-                p.setCheckpointEntryMinute(minute);
-                int bestC = 0;
-                for (int j = 1; j < numCheckpoints; j++) {
-                    if (checkpointLines.get(j).size()
-                            < checkpointLines.get(bestC).size()) {
-                        bestC = j;
-                    }
-                }
+        int toMove = pendingToCP.sizeAt(minute);
+        if (toMove > 0) {
+            if (delta != null) delta.takePendingToCP(pendingToCP.copyAt(minute));
+            for (int i = 0; i < toMove; i++) {
+                int p = pendingToCP.get(minute, i);
+                boolean wasVisible = passengers.isTicketVisible(p);
+                passengers.setTicketVisible(p, false);
+                int prevEntry = passengers.checkpointEntryMinute(p);
+                passengers.setCheckpointEntryMinute(p, minute);
+                int bestC = checkpointGroup.pollShortest(checkpointLines);
+                passengers.setCheckpointLine(p, bestC);
                 checkpointLines.get(bestC).add(p);
+                // closed while in transit: still queues this minute, then gets purged
+                if (passengers.isMissed(p)) dirtyCheckpoints.set(bestC);
+                if (delta != null) delta.enqueueCheckpoint(bestC, p, prevEntry, wasVisible);
             }
+            pendingToCP.clearAt(minute);
         }
 
         // 4) checkpoint service & schedule hold-room
         for (int c = 0; c < numCheckpoints; c++) {
-            checkpointProgress[c] += checkpointRate;
-            int toComplete = (int) Math.floor(checkpointProgress[c]);
-            checkpointProgress[c] -= toComplete;
+            int toComplete;
+            if (random == null) {
+                checkpointProgress[c] += checkpointRate;
+                toComplete = (int) Math.floor(checkpointProgress[c]);
+                checkpointProgress[c] -= toComplete;
+            } else {
+                toComplete = checkpointLines.get(c).isEmpty() ? 0 : Sampling.poisson(random, checkpointRate);
+            }
 
             for (int k = 0; k < toComplete; k++) {
-                if (checkpointServing[c] == null && !checkpointLines.get(c).isEmpty()) {
+                if (checkpointServing[c] < 0 && !checkpointLines.get(c).isEmpty()) {
                     checkpointServing[c] = checkpointLines.get(c).poll();
                 }
-                if (checkpointServing[c] == null) break;
+                if (checkpointServing[c] < 0) break;
 
-                Passenger done = checkpointServing[c];
-                done.setCheckpointCompletionMinute(minute);
+                int done = checkpointServing[c];
+                if (delta != null) delta.serveCheckpoint(c, done, passengers.checkpointCompletionMinute(done));
+                passengers.setCheckpointCompletionMinute(done, minute);
                 completedCheckpointLines.get(c).add(done);
                 // schedule into hold-room
-                pendingToHold.computeIfAbsent(minute + holdDelayMinutes, x -> new ArrayList<>())
-                        .add(done);
-                checkpointServing[c] = null;
+                pendingToHold.schedule(minute + holdDelayMinutes, done);
+                checkpointServing[c] = -1;
             }
         }
 
         // 5) move from checkpoint → hold-room
-        List<Passenger> toHold = pendingToHold.remove(minute);
-        if (toHold != null) {
-            for (Passenger p : toHold) {
+        int toHold = pendingToHold.sizeAt(minute);
+        if (toHold > 0) {
+            if (delta != null) delta.takePendingToHold(pendingToHold.copyAt(minute));
+            for (int i = 0; i < toHold; i++) {
+                int p = pendingToHold.get(minute, i);
                 // compute this flight's boarding-close interval
-                int closeIdx = (int) Duration.between(
-                        globalStart,
-                        p.getFlight().getDepartureTime().minusMinutes(20)
-                ).toMinutes();
+                int idx = passengers.flightOrdinal(p);
+                int closeIdx = scenario.getCloseMinute(idx);
 
                 if (minute <= closeIdx) {
                     // still open: enqueue as before
-                    p.setHoldRoomEntryMinute(minute);
-                    int idx = flights.indexOf(p.getFlight());
                     int seq = holdRoomLines.get(idx).size() + 1;
-                    p.setHoldRoomSequence(seq);
+                    if (delta != null) {
+                        delta.moveToHold(idx, p, passengers.holdRoomEntryMinute(p),
+                                passengers.holdRoomSequence(p), seq);
+                    }
+                    passengers.setHoldRoomEntryMinute(p, minute);
+                    passengers.setHoldRoomSequence(p, seq);
                     holdRoomLines.get(idx).add(p);
                 } else {
                     // boarding closed → mark missed so removeMissedPassengers will purge
-                    p.setMissed(true);
+                    if (!passengers.isMissed(p)) {
+                        if (delta != null) delta.markMissed(p);
+                        passengers.setMissed(p, true);
+                        markLinesDirty(p);
+                    }
                 }
             }
+            pendingToHold.clearAt(minute);
         }
 
-        // 6) record history for UI
-        historyServedTicket.add(deepCopyPassengerLists(completedTicketLines));
-        historyQueuedTicket.add(deepCopyPassengerLists(ticketLines));
-        historyServedCheckpoint.add(deepCopyPassengerLists(completedCheckpointLines));
-        historyQueuedCheckpoint.add(deepCopyPassengerLists(checkpointLines));
-        historyHoldRooms.add(deepCopyPassengerLists(holdRoomLines));  // hold-rooms history
+        // 6) record history for UI (a replay reproduces history that is already recorded)
+        if (recordsHistory()) recordHistory();
+
+        // 7) purge missed passengers (only the lines that received some this step)
+        purgeDirtyLines(minute, delta);
 
-        // 7) purge missed passengers
-        removeMissedPassengers();
+        finishInterval(delta);
+    }
 
+    /**
+     * Next-event fast path: nothing arrives, closes, moves or completes this
+     * minute, so only service progress advances (with the exact arithmetic of
+     * the full step) and the unchanged lines are recorded again.
+     */
+    private void simulateIdleMinute(IntervalDelta delta) {
+        for (int c = 0; c < counterConfigs.size(); c++) {
+            counterProgress[c] += counterConfigs.get(c).getRate();
+            counterProgress[c] -= (int) Math.floor(counterProgress[c]);
+        }
+        for (int c = 0; c < numCheckpoints; c++) {
+            checkpointProgress[c] += checkpointRate;
+            checkpointProgress[c] -= (int) Math.floor(checkpointProgress[c]);
+        }
+
+        // the lines are unchanged, so this step shares the previous step's history rows
+        if (recordsHistory()) recordHistory();
+
+        finishInterval(delta);
+    }
+
+    /** False while replaying (the rows exist) and in NONE mode (nobody reads them). */
+    private boolean recordsHistory() {
+        return !replaying && rewindMode != RewindMode.NONE;
+    }
+
+    private void recordHistory() {
+        historyServedTicket.record(completedTicketLines);
+        historyQueuedTicket.record(ticketLines);
+        historyServedCheckpoint.record(completedCheckpointLines);
+        historyQueuedCheckpoint.record(checkpointLines);
+        historyHoldRooms.record(holdRoomLines);  // hold-rooms history
+    }
+
+    /** Common tail of every step: advance the clock, record series, journal and snapshot. */
+    private void finishInterval(IntervalDelta delta) {
         // advance interval index (this is the "now" used by your timeline)
         currentInterval++;
 
         // Existing held-ups series uses currentInterval after increment
-        int stillInTicketQueue = ticketLines.stream().mapToInt(java.util.List::size).sum();
-        int stillInCheckpointQueue = checkpointLines.stream().mapToInt(java.util.List::size).sum();
-        heldUpsByInterval.put(currentInterval, stillInTicketQueue + stillInCheckpointQueue);
+        int stillInTicketQueue = ticketLines.stream().mapToInt(IntRingBuffer::size).sum();
+        int stillInCheckpointQueue = checkpointLines.stream().mapToInt(IntRingBuffer::size).sum();
+        heldUpsByInterval.set(currentInterval, stillInTicketQueue + stillInCheckpointQueue);
 
         // NEW: record queue totals for this interval
         recordQueueTotalsForCurrentInterval();
 
+        if (delta != null) {
+            delta.closedFlights.addAll(justClosedFlights);
+            delta.finish(passengers.size(), counterProgress, checkpointProgress);
+            delta.heldUps = heldUpsByInterval.get(currentInterval);
+            delta.ticketQueued = ticketQueuedByInterval.get(currentInterval);
+            delta.checkpointQueued = checkpointQueuedByInterval.get(currentInterval);
+            delta.holdRoomTotal = holdRoomTotalByInterval.get(currentInterval);
+            journal.add(delta);
+        }
+
         // snapshot after this interval completes (currentInterval already incremented)
         appendSnapshotAfterInterval();
+
+        // a keyframe replay publishes once it reaches its target
+        if (publishFrames && !replaying) publishFrame();
+    }
+
+    // ============================
+    // Frames for renderers
+    // ============================
+
+    /**
+     * Turn frame publication on or off. Turning it on publishes the current
+     * interval at once, so {@link #getLatestFrame()} is never null afterwards.
+     */
+    public void setPublishFrames(boolean publishFrames) {
+        if (publishFrames && rewindMode == RewindMode.NONE) {
+            throw new IllegalStateException("RewindMode.NONE keeps no history to publish");
+        }
+        this.publishFrames = publishFrames;
+        if (publishFrames) publishFrame();
+    }
+
+    public boolean isPublishFrames() {
+        return publishFrames;
+    }
+
+    /** The frame of the engine's current interval, or null while publishing is off. Any thread. */
+    public IntervalFrame getLatestFrame() {
+        return latestFrame.get();
+    }
+
+    /**
+     * Read-only view of any computed interval (clamped to 0..maxComputedInterval)
+     * built from the recorded history, without moving the engine's clock.
+     * Passenger details are as of the engine's current interval; a finished
+     * run's {@link SimulationResult#viewAt(int)} has the final ones. Call it
+     * from the thread that drives the engine, or while the engine is idle.
+     */
+    public EngineView viewAt(int interval) {
+        if (rewindMode == RewindMode.NONE) {
+            throw new IllegalStateException("RewindMode.NONE keeps no history to view");
+        }
+        return frameAt(interval);
+    }
+
+    private IntervalFrame frameAt(int interval) {
+        int k = clamp(interval, 0, maxComputedInterval);
+        return new IntervalFrame(
+                k,
+                flights,
+                scenario,
+                arrivalSpanMinutes,
+                intervalMinutes,
+                counterIds(),
+                transitDelayMinutes,
+                frameViews,
+                historyQueuedTicket,
+                historyServedTicket,
+                historyQueuedCheckpoint,
+                historyServedCheckpoint,
+                historyHoldRooms,
+                // series past the current interval are still valid up to maxComputedInterval
+                heldUpsByInterval.getRecorded(k),
+                ticketQueuedByInterval.getRecorded(k),
+                checkpointQueuedByInterval.getRecorded(k),
+                holdRoomTotalByInterval.getRecorded(k)
+        );
+    }
+
+    private int[] counterIds() {
+        int[] ids = new int[counterConfigs.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = counterConfigs.get(i).getId();
+        return ids;
+    }
+
+    private void publishFrame() {
+        latestFrame.set(frameAt(currentInterval));
     }
 
     // === ACCESSORS & UTILITY ===
 
+    /** Passengers of flight {@code flightOrdinal} who have arrived so far. */
+    public int getArrivedCount(int flightOrdinal) {
+        return passengers.passengersOf(flightOrdinal).size();
+    }
+
+    /**
+     * Passengers of flight {@code flightOrdinal} who missed it (0 until its
+     * boarding close). The close flags everyone of the flight, so those who
+     * reached the hold room are told apart by their entry minute.
+     */
+    public int getMissedCount(int flightOrdinal) {
+        IntRingBuffer ids = passengers.passengersOf(flightOrdinal);
+        int missed = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            int p = ids.get(i);
+            if (passengers.isMissed(p) && passengers.holdRoomEntryMinute(p) < 0) missed++;
+        }
+        return missed;
+    }
+
+    /**
+     * Outcome of the run so far: per-flight arrivals and misses, the stage
+     * peaks of the queue series, and the waits of every passenger in a hold
+     * room plus those still queued (counted up to now). Passengers who missed
+     * their flight count as missed and with their waits up to its boarding
+     * close, so a configuration that loses its queues to closes does not
+     * report short waits.
+     */
+    public RunMetrics getMetrics() {
+        int[] arrived = new int[flightArray.length];
+        int[] missed = new int[flightArray.length];
+        for (int fi = 0; fi < flightArray.length; fi++) {
+            arrived[fi] = getArrivedCount(fi);
+            missed[fi] = getMissedCount(fi);
+        }
+        int peakTicket = 0;
+        int peakCheckpoint = 0;
+        for (int k = 0; k <= currentInterval; k++) {
+            peakTicket = Math.max(peakTicket, ticketQueuedByInterval.get(k));
+            peakCheckpoint = Math.max(peakCheckpoint, checkpointQueuedByInterval.get(k));
+        }
+        // hold rooms: both stages are done, so the recorded minutes are final
+        RunMetrics.Waits ticketWaits = new RunMetrics.Waits();
+        RunMetrics.Waits checkpointWaits = new RunMetrics.Waits();
+        for (IntRingBuffer room : holdRoomLines) {
+            for (int i = 0; i < room.size(); i++) {
+                int p = room.get(i);
+                if (passengers.isInPerson(p)) {
+                    ticketWaits.add(passengers.ticketCompletionMinute(p) - passengers.arrivalMinute(p));
+                }
+                checkpointWaits.add(passengers.checkpointCompletionMinute(p) - passengers.checkpointEntryMinute(p));
+            }
+        }
+        for (IntRingBuffer line : ticketLines) {
+            for (int i = 0; i < line.size(); i++) {
+                ticketWaits.add(currentInterval - passengers.arrivalMinute(line.get(i)));
+            }
+        }
+        for (IntRingBuffer line : checkpointLines) {
+            for (int i = 0; i < line.size(); i++) {
+                checkpointWaits.add(currentInterval - passengers.checkpointEntryMinute(line.get(i)));
+            }
+        }
+        for (int fi = 0; fi < flightArray.length; fi++) {
+            if (missed[fi] > 0) addMissedWaits(fi, ticketWaits, checkpointWaits);
+        }
+        return new RunMetrics(arrived, missed, peakTicket, peakCheckpoint, ticketWaits, checkpointWaits);
+    }
+
+    /**
+     * Waits of the passengers who missed flight {@code fi}, each stage counted
+     * until the passenger left it or the flight closed. Those still in transit
+     * to the checkpoint at the close never queued there. Unset minutes read 0,
+     * so a finished stage is told by where the passenger went next.
+     */
+    private void addMissedWaits(int fi, RunMetrics.Waits ticketWaits, RunMetrics.Waits checkpointWaits) {
+        int close = scenario.getCloseMinute(fi);
+        IntRingBuffer ids = passengers.passengersOf(fi);
+        for (int i = 0; i < ids.size(); i++) {
+            int p = ids.get(i);
+            if (!passengers.isMissed(p) || passengers.holdRoomEntryMinute(p) >= 0) continue;
+            if (passengers.isInPerson(p)) {
+                boolean ticketed = passengers.isTicketVisible(p) || passengers.checkpointLine(p) >= 0;
+                int left = ticketed ? passengers.ticketCompletionMinute(p) : close;
+                ticketWaits.add(Math.min(left, close) - passengers.arrivalMinute(p));
+            }
+            int entry = passengers.checkpointEntryMinute(p);
+            if (passengers.checkpointLine(p) >= 0 && entry <= close) {
+                // cleared minute 0 would have reached the hold room unless it closed first
+                int done = passengers.checkpointCompletionMinute(p);
+                boolean cleared = done >= entry && (done > 0 || holdDelayMinutes > close);
+                checkpointWaits.add((cleared ? Math.min(done, close) : close) - entry);
+            }
+        }
+    }
+
+    /**
+     * Minutes the longest-waiting passenger now in a checkpoint line has waited
+     * (0 when the lines are empty). Lines are FIFO, so only heads are checked.
+     */
+    public int getLongestCheckpointWait() {
+        int longest = 0;
+        for (IntRingBuffer line : checkpointLines) {
+            if (!line.isEmpty()) {
+                longest = Math.max(longest, currentInterval - passengers.checkpointEntryMinute(line.get(0)));
+            }
+        }
+        return longest;
+    }
+
     /** flights whose boarding closed this tick */
     public List<Flight> getFlightsJustClosed() {
         return new ArrayList<>(justClosedFlights);
     }
 
     public void removeMissedPassengers() {
-        ticketLines.forEach(line -> line.removeIf(Passenger::isMissed));
-        completedTicketLines.forEach(line -> line.removeIf(Passenger::isMissed));
-        checkpointLines.forEach(line -> line.removeIf(Passenger::isMissed));
-        completedCheckpointLines.forEach(line -> line.removeIf(Passenger::isMissed));
+        // between steps: the purge belongs to the last recorded step
+        int step = currentInterval - 1;
+        purgeMissed(ticketLines, historyQueuedTicket, step);
+        purgeMissed(completedTicketLines, historyServedTicket, step);
+        purgeMissed(checkpointLines, historyQueuedCheckpoint, step);
+        purgeMissed(completedCheckpointLines, historyServedCheckpoint, step);
+    }
+
+    /**
+     * Boarding closed: flag every passenger of the flight still in the system.
+     * Until the close, each of them sits in a ticket, completed-ticket,
+     * checkpoint or completed-checkpoint line, so the per-flight index in the
+     * passenger table is exactly the set the old four-family scan found.
+     * Passengers in transit are purged from their completed-ticket line now and
+     * from the checkpoint line they reach later (see the transfer phase).
+     */
+    private void markFlightMissed(int flightOrdinal, IntervalDelta delta) {
+        IntRingBuffer ids = passengers.passengersOf(flightOrdinal);
+        for (int i = 0; i < ids.size(); i++) {
+            int p = ids.get(i);
+            if (passengers.isMissed(p)) continue;
+            if (delta != null) delta.markMissed(p);
+            passengers.setMissed(p, true);
+            markLinesDirty(p);
+        }
     }
 
-    // deep-copy helper for UI history (unchanged behavior)
-    private List<List<Passenger>> deepCopyPassengerLists(List<LinkedList<Passenger>> original) {
-        List<List<Passenger>> copy = new ArrayList<>();
-        for (LinkedList<Passenger> line : original) {
-            copy.add(new ArrayList<>(line));
+    /** Remember which lines now hold a missed passenger (the missed flag is the tombstone). */
+    private void markLinesDirty(int p) {
+        int counter = passengers.ticketLine(p);
+        if (counter >= 0) dirtyCounters.set(counter);
+        int checkpoint = passengers.checkpointLine(p);
+        if (checkpoint >= 0) dirtyCheckpoints.set(checkpoint);
+    }
+
+    /** Compact the lines holding tombstones; every other line is left untouched. */
+    private void purgeDirtyLines(int minute, IntervalDelta delta) {
+        for (int c = dirtyCounters.nextSetBit(0); c >= 0; c = dirtyCounters.nextSetBit(c + 1)) {
+            purgeMissed(ticketLines.get(c), historyQueuedTicket, minute, delta);
+        }
+        for (int c = dirtyCounters.nextSetBit(0); c >= 0; c = dirtyCounters.nextSetBit(c + 1)) {
+            purgeMissed(completedTicketLines.get(c), historyServedTicket, minute, delta);
+        }
+        for (int c = dirtyCheckpoints.nextSetBit(0); c >= 0; c = dirtyCheckpoints.nextSetBit(c + 1)) {
+            purgeMissed(checkpointLines.get(c), historyQueuedCheckpoint, minute, delta);
+        }
+        for (int c = dirtyCheckpoints.nextSetBit(0); c >= 0; c = dirtyCheckpoints.nextSetBit(c + 1)) {
+            purgeMissed(completedCheckpointLines.get(c), historyServedCheckpoint, minute, delta);
+        }
+        dirtyCounters.clear();
+        dirtyCheckpoints.clear();
+    }
+
+    private void purgeMissed(List<IntRingBuffer> lines, LineHistory history, int step) {
+        for (IntRingBuffer line : lines) purgeMissed(line, history, step, null);
+    }
+
+    /**
+     * Remove missed passengers, journaling each removal index so it can be
+     * reinserted on undo, and telling the line history after which step they left.
+     */
+    private void purgeMissed(IntRingBuffer line, LineHistory history, int step, IntervalDelta delta) {
+        line.removeIf(passengers::isMissed, (index, p) -> {
+            if (delta != null) delta.purge(line, index, p);
+            if (recordsHistory()) history.purged(p, step);
+        });
+    }
+
+    private static int[][] toIdArrays(List<IntRingBuffer> original) {
+        int[][] copy = new int[original.size()][];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = original.get(i).toArray();
         }
         return copy;
     }
 
+    /** Drop UI history recorded for steps at or after {@code fromStep} (re-simulation overwrites them). */
+    private void trimHistory(int fromStep) {
+        historyServedTicket.trim(fromStep);
+        historyQueuedTicket.trim(fromStep);
+        historyServedCheckpoint.trim(fromStep);
+        historyQueuedCheckpoint.trim(fromStep);
+        historyHoldRooms.trim(fromStep);
+    }
+
+
     // === CLEAR HISTORY ===
     private void clearHistory() {
         historyArrivals.clear();
@@ -738,59 +1566,67 @@ public class SimulationEngine {
         Arrays.fill(checkpointProgress, 0);
         pendingToCP.clear();
         pendingToHold.clear();
-        ticketCompletedVisible.clear();
-        holdRoomLines.forEach(LinkedList::clear);
+        holdRoomLines.forEach(IntRingBuffer::clear);
     }
 
     // ============================
     // Snapshot copy helpers
     // ============================
 
-    private static List<LinkedList<Passenger>> deepCopyLinkedLists(List<LinkedList<Passenger>> original) {
-        List<LinkedList<Passenger>> copy = new ArrayList<>(original.size());
-        for (LinkedList<Passenger> line : original) {
-            copy.add(new LinkedList<>(line));
-        }
-        return copy;
-    }
-
     /**
-     * Restore list contents without replacing the LinkedList objects.
-     * This avoids UI/components holding stale list references.
+     * Restore line contents without replacing the buffer objects.
+     * This avoids UI/components holding stale line references.
      */
-    private static void restoreLinkedListsInPlace(List<LinkedList<Passenger>> target,
-                                                 List<LinkedList<Passenger>> source) {
-        if (target.size() != source.size()) {
-            // fallback (shouldn't happen): rebuild
-            target.clear();
-            for (LinkedList<Passenger> src : source) {
-                target.add(new LinkedList<>(src));
-            }
-            return;
-        }
+    private static void restoreLinesInPlace(List<IntRingBuffer> target, int[][] source) {
         for (int i = 0; i < target.size(); i++) {
-            LinkedList<Passenger> t = target.get(i);
-            t.clear();
-            t.addAll(source.get(i));
+            target.get(i).setAll(source[i]);
         }
     }
 
-    private static Map<Integer, List<Passenger>> deepCopyPendingMap(Map<Integer, List<Passenger>> original) {
-        Map<Integer, List<Passenger>> copy = new HashMap<>();
-        for (Map.Entry<Integer, List<Passenger>> e : original.entrySet()) {
-            copy.put(e.getKey(), new ArrayList<>(e.getValue()));
+    /**
+     * Freeze the run into an immutable {@link SimulationResult}. Call at the
+     * furthest computed interval (normally right after the run finishes); the
+     * engine can be rewound and replayed afterwards without affecting it.
+     */
+    public SimulationResult toResult() {
+        if (rewindMode == RewindMode.NONE) {
+            throw new IllegalStateException("RewindMode.NONE keeps no history for a result");
         }
-        return copy;
+        if (currentInterval != maxComputedInterval) {
+            throw new IllegalStateException("Result must be taken at the last computed interval ("
+                    + maxComputedInterval + "), engine is at " + currentInterval);
+        }
+        PassengerTable frozen = new PassengerTable(flightArray);
+        frozen.restore(passengers.snapshot());
+        return new SimulationResult(
+                flights,
+                scenario,
+                arrivalSpanMinutes,
+                intervalMinutes,
+                transitDelayMinutes,
+                counterIds(),
+                minuteArrivalsMap,
+                frozen,
+                historyServedTicket.copy(),
+                historyQueuedTicket.copy(),
+                historyServedCheckpoint.copy(),
+                historyQueuedCheckpoint.copy(),
+                historyHoldRooms.copy(),
+                heldUpsByInterval.copy(),
+                ticketQueuedByInterval.copy(),
+                checkpointQueuedByInterval.copy(),
+                holdRoomTotalByInterval.copy()
+        );
     }
 
     // === HISTORY GETTERS ===
-    public List<List<List<Passenger>>> getHistoryServedTicket() { return historyServedTicket; }
-    public List<List<List<Passenger>>> getHistoryQueuedTicket() { return historyQueuedTicket; }
+    public List<List<List<Passenger>>> getHistoryServedTicket() { return historyServedTicket.view(passengers); }
+    public List<List<List<Passenger>>> getHistoryQueuedTicket() { return historyQueuedTicket.view(passengers); }
     public List<List<List<Passenger>>> getHistoryOnlineArrivals() { return historyOnlineArrivals; }
     public List<List<List<Passenger>>> getHistoryFromTicketArrivals() { return historyFromTicketArrivals; }
-    public List<List<List<Passenger>>> getHistoryServedCheckpoint() { return historyServedCheckpoint; }
-    public List<List<List<Passenger>>> getHistoryQueuedCheckpoint() { return historyQueuedCheckpoint; }
-    public List<List<List<Passenger>>> getHistoryHoldRooms() { return historyHoldRooms; }
+    public List<List<List<Passenger>>> getHistoryServedCheckpoint() { return historyServedCheckpoint.view(passengers); }
+    public List<List<List<Passenger>>> getHistoryQueuedCheckpoint() { return historyQueuedCheckpoint.view(passengers); }
+    public List<List<List<Passenger>>> getHistoryHoldRooms() { return historyHoldRooms.view(passengers); }
 
     // === PUBLIC GETTERS ===
     public List<Flight> getFlights() { return flights; }
@@ -798,17 +1634,20 @@ public class SimulationEngine {
     public int getInterval() { return intervalMinutes; }
     public int getTotalIntervals() { return totalIntervals; }
     public int getCurrentInterval() { return currentInterval; }
-    public List<LinkedList<Passenger>> getTicketLines() { return ticketLines; }
-    public List<LinkedList<Passenger>> getCheckpointLines() { return checkpointLines; }
-    public List<LinkedList<Passenger>> getCompletedTicketLines() { return completedTicketLines; }
-    public List<LinkedList<Passenger>> getCompletedCheckpointLines() { return completedCheckpointLines; }
-    public List<LinkedList<Passenger>> getHoldRoomLines() { return holdRoomLines; }
+    public List<List<Passenger>> getTicketLines() { return PassengerListView.ofLines(passengers, ticketLines); }
+    public List<List<Passenger>> getCheckpointLines() { return PassengerListView.ofLines(passengers, checkpointLines); }
+    public List<List<Passenger>> getCompletedTicketLines() { return PassengerListView.ofLines(passengers, completedTicketLines); }
+    public List<List<Passenger>> getCompletedCheckpointLines() { return PassengerListView.ofLines(passengers, completedCheckpointLines); }
+    public List<List<Passenger>> getHoldRoomLines() { return PassengerListView.ofLines(passengers, holdRoomLines); }
+    public CompiledScenario getScenario() { return scenario; }
+    /** Per-minute arrivals by flight; the arrays are shared with other engines and must not be modified. */
     public Map<Flight, int[]> getMinuteArrivalsMap() { return Collections.unmodifiableMap(minuteArrivalsMap); }
     public int getTransitDelayMinutes() { return transitDelayMinutes; }
     public int getHoldDelayMinutes() { return holdDelayMinutes; }
 
     public int getHoldRoomCellSize(Flight f) {
-        return holdRoomCellSize.getOrDefault(f, GridRenderer.MIN_CELL_SIZE);
+        int fi = scenario.ordinalOf(f);
+        return fi < 0 ? GridRenderer.MIN_CELL_SIZE : scenario.getHoldRoomCellSize(fi);
     }
 
     public List<TicketCounterConfig> getCounterConfigs() {
@@ -817,9 +1656,11 @@ public class SimulationEngine {
 
     public List<Passenger> getVisibleCompletedTicketLine(int idx) {
         List<Passenger> visible = new ArrayList<>();
-        for (Passenger p : completedTicketLines.get(idx)) {
-            if (ticketCompletedVisible.contains(p)) {
-                visible.add(p);
+        IntRingBuffer line = completedTicketLines.get(idx);
+        for (int i = 0; i < line.size(); i++) {
+            int p = line.get(i);
+            if (passengers.isTicketVisible(p)) {
+                visible.add(passengers.view(p));
             }
         }
         return visible;
@@ -827,14 +1668,19 @@ public class SimulationEngine {
 
     public List<Passenger> getCheckpointLine() {
         List<Passenger> all = new ArrayList<>();
-        for (LinkedList<Passenger> line : checkpointLines) {
-            all.addAll(line);
+        for (IntRingBuffer line : checkpointLines) {
+            for (int i = 0; i < line.size(); i++) all.add(passengers.view(line.get(i)));
         }
         return all;
     }
 
     public Map<Integer, Integer> getHoldUpsByInterval() {
-        return new LinkedHashMap<>(heldUpsByInterval); // protect original
+        return heldUpsByInterval.toMap(); // protect original
+    }
+
+    /** Passengers still queued (ticket + checkpoint) after the step ending at {@code intervalIndex}. */
+    public int getHoldUpsAtInterval(int intervalIndex) {
+        return heldUpsByInterval.get(intervalIndex);
     }
 
     // ============================
@@ -843,42 +1689,39 @@ public class SimulationEngine {
 
     /** Waiting passengers in all ticket queues at a given interval index. */
     public int getTicketQueuedAtInterval(int intervalIndex) {
-        Integer v = ticketQueuedByInterval.get(intervalIndex);
-        return v == null ? 0 : v;
+        return ticketQueuedByInterval.get(intervalIndex);
     }
 
     /** Waiting passengers in all checkpoint queues at a given interval index. */
     public int getCheckpointQueuedAtInterval(int intervalIndex) {
-        Integer v = checkpointQueuedByInterval.get(intervalIndex);
-        return v == null ? 0 : v;
+        return checkpointQueuedByInterval.get(intervalIndex);
     }
 
     /** Total passengers currently in all hold rooms at a given interval index. */
     public int getHoldRoomTotalAtInterval(int intervalIndex) {
-        Integer v = holdRoomTotalByInterval.get(intervalIndex);
-        return v == null ? 0 : v;
+        return holdRoomTotalByInterval.get(intervalIndex);
     }
 
     /** Optional: expose full maps if you ever want to export/inspect them. */
     public Map<Integer, Integer> getTicketQueuedByInterval() {
-        return new LinkedHashMap<>(ticketQueuedByInterval);
+        return ticketQueuedByInterval.toMap();
     }
     public Map<Integer, Integer> getCheckpointQueuedByInterval() {
-        return new LinkedHashMap<>(checkpointQueuedByInterval);
+        return checkpointQueuedByInterval.toMap();
     }
     public Map<Integer, Integer> getHoldRoomTotalByInterval() {
-        return new LinkedHashMap<>(holdRoomTotalByInterval);
+        return holdRoomTotalByInterval.toMap();
     }
 
     /** Record totals for the CURRENT interval index into the 3 new series. */
     private void recordQueueTotalsForCurrentInterval() {
-        int ticketWaiting = ticketLines.stream().mapToInt(List::size).sum();
-        int checkpointWaiting = checkpointLines.stream().mapToInt(List::size).sum();
-        int holdTotal = holdRoomLines.stream().mapToInt(List::size).sum();
+        int ticketWaiting = ticketLines.stream().mapToInt(IntRingBuffer::size).sum();
+        int checkpointWaiting = checkpointLines.stream().mapToInt(IntRingBuffer::size).sum();
+        int holdTotal = holdRoomLines.stream().mapToInt(IntRingBuffer::size).sum();
 
-        ticketQueuedByInterval.put(currentInterval, ticketWaiting);
-        checkpointQueuedByInterval.put(currentInterval, checkpointWaiting);
-        holdRoomTotalByInterval.put(currentInterval, holdTotal);
+        ticketQueuedByInterval.set(currentInterval, ticketWaiting);
+        checkpointQueuedByInterval.set(currentInterval, checkpointWaiting);
+        holdRoomTotalByInterval.set(currentInterval, holdTotal);
     }
 
     // === ARRIVALS METRICS (for live graph) ===
@@ -888,23 +1731,16 @@ public class SimulationEngine {
      * This matches the same indexing logic used in simulateInterval().
      */
     public int getTotalArrivalsAtMinute(int minuteSinceGlobalStart) {
-        int sum = 0;
-
-        for (Flight f : flights) {
-            int[] perMin = minuteArrivalsMap.get(f);
-            if (perMin == null) continue;
-
-            long offset = Duration.between(
-                    globalStart,
-                    f.getDepartureTime().minusMinutes(arrivalSpanMinutes)
-            ).toMinutes();
+        return scenario.getTotalArrivalsAt(minuteSinceGlobalStart);
+    }
 
-            int idx = minuteSinceGlobalStart - (int) offset;
-            if (idx >= 0 && idx < perMin.length) {
-                sum += perMin[idx];
-            }
-        }
-        return sum;
+    /**
+     * Total passenger arrivals from {@code from} (inclusive) to {@code to}
+     * (exclusive) on the run's day, e.g. 06:00 to 07:15. Reads the running
+     * totals built with the schedule, so it costs the same for any range.
+     */
+    public int getTotalArrivalsBetween(LocalTime from, LocalTime to) {
+        return scenario.getTotalArrivalsBetween(scenario.minuteOf(from), scenario.minuteOf(to));
     }
 
     /**
@@ -0,0 +1,143 @@
+package sim.service;
+
+import sim.model.Flight;
+import sim.model.Passenger;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable outcome of one complete simulation run.
+ *
+ * Produced once by {@link SimulationEngine#toResult()} and shared by every
+ * read-only view (data tables, flight summary, flight snapshots). The history is
+ * a copy of the engine's line histories over a private copy of the passenger
+ * table, so the live view can keep rewinding and replaying its engine without
+ * changing what the result shows.
+ */
+public final class SimulationResult {
+    private final List<Flight> flights;
+    private final CompiledScenario scenario;
+    private final int arrivalSpanMinutes;
+    private final int intervalMinutes;
+    private final int transitDelayMinutes;
+    private final int[] counterIds;
+    private final int totalIntervals;
+    private final Map<Flight, int[]> minuteArrivalsMap;
+
+    // frozen copy of the engine's table as of the last interval
+    private final PassengerTable passengers;
+    private final PassengerViewCache views;
+
+    private final LineHistory historyServedTicket;
+    private final LineHistory historyQueuedTicket;
+    private final LineHistory historyServedCheckpoint;
+    private final LineHistory historyQueuedCheckpoint;
+    private final LineHistory historyHoldRooms;
+
+    private final IntSeries heldUpsByInterval;
+    private final IntSeries ticketQueuedByInterval;
+    private final IntSeries checkpointQueuedByInterval;
+    private final IntSeries holdRoomTotalByInterval;
+
+    SimulationResult(List<Flight> flights,
+                     CompiledScenario scenario,
+                     int arrivalSpanMinutes,
+                     int intervalMinutes,
+                     int transitDelayMinutes,
+                     int[] counterIds,
+                     Map<Flight, int[]> minuteArrivalsMap,
+                     PassengerTable passengers,
+                     LineHistory historyServedTicket,
+                     LineHistory historyQueuedTicket,
+                     LineHistory historyServedCheckpoint,
+                     LineHistory historyQueuedCheckpoint,
+                     LineHistory historyHoldRooms,
+                     IntSeries heldUpsByInterval,
+                     IntSeries ticketQueuedByInterval,
+                     IntSeries checkpointQueuedByInterval,
+                     IntSeries holdRoomTotalByInterval) {
+        this.flights = Collections.unmodifiableList(new ArrayList<>(flights));
+        this.scenario = scenario;
+        this.arrivalSpanMinutes = arrivalSpanMinutes;
+        this.intervalMinutes = intervalMinutes;
+        this.transitDelayMinutes = transitDelayMinutes;
+        this.counterIds = counterIds;
+        this.totalIntervals = scenario.getTotalIntervals();
+        this.minuteArrivalsMap = Collections.unmodifiableMap(new LinkedHashMap<>(minuteArrivalsMap));
+        this.passengers = passengers;
+        this.views = new PassengerViewCache(passengers);
+
+        // private copies handed over by the engine (history and series), never written again
+        this.historyServedTicket = historyServedTicket;
+        this.historyQueuedTicket = historyQueuedTicket;
+        this.historyServedCheckpoint = historyServedCheckpoint;
+        this.historyQueuedCheckpoint = historyQueuedCheckpoint;
+        this.historyHoldRooms = historyHoldRooms;
+
+        this.heldUpsByInterval = heldUpsByInterval;
+        this.ticketQueuedByInterval = ticketQueuedByInterval;
+        this.checkpointQueuedByInterval = checkpointQueuedByInterval;
+        this.holdRoomTotalByInterval = holdRoomTotalByInterval;
+    }
+
+    // === SCHEDULE ===
+    public List<Flight> getFlights() { return flights; }
+    public CompiledScenario getScenario() { return scenario; }
+    public LocalTime getGlobalStart() { return scenario.getGlobalStart(); }
+    public int getArrivalSpan() { return arrivalSpanMinutes; }
+    public int getInterval() { return intervalMinutes; }
+    public int getTotalIntervals() { return totalIntervals; }
+    public Map<Flight, int[]> getMinuteArrivalsMap() { return minuteArrivalsMap; }
+
+    // === HISTORY (same shape as the engine's history getters) ===
+    public List<List<List<Passenger>>> getHistoryServedTicket() { return historyServedTicket.view(passengers); }
+    public List<List<List<Passenger>>> getHistoryQueuedTicket() { return historyQueuedTicket.view(passengers); }
+    public List<List<List<Passenger>>> getHistoryServedCheckpoint() { return historyServedCheckpoint.view(passengers); }
+    public List<List<List<Passenger>>> getHistoryQueuedCheckpoint() { return historyQueuedCheckpoint.view(passengers); }
+    public List<List<List<Passenger>>> getHistoryHoldRooms() { return historyHoldRooms.view(passengers); }
+
+    /**
+     * Read-only view of {@code interval} (clamped to the recorded run), with
+     * every passenger as they finished the run. Views share this result's caches,
+     * so build them on one thread (the EDT); the views themselves are immutable.
+     */
+    public EngineView viewAt(int interval) {
+        int k = Math.max(0, Math.min(interval, historyQueuedTicket.size()));
+        return new IntervalFrame(
+                k,
+                flights,
+                scenario,
+                arrivalSpanMinutes,
+                intervalMinutes,
+                counterIds,
+                transitDelayMinutes,
+                views,
+                historyQueuedTicket,
+                historyServedTicket,
+                historyQueuedCheckpoint,
+                historyServedCheckpoint,
+                historyHoldRooms,
+                heldUpsByInterval.get(k),
+                ticketQueuedByInterval.get(k),
+                checkpointQueuedByInterval.get(k),
+                holdRoomTotalByInterval.get(k)
+        );
+    }
+
+    // === PER-INTERVAL SERIES (0 where nothing was recorded) ===
+    public int getHoldUpsAtInterval(int intervalIndex) { return heldUpsByInterval.get(intervalIndex); }
+    public int getTicketQueuedAtInterval(int intervalIndex) { return ticketQueuedByInterval.get(intervalIndex); }
+    public int getCheckpointQueuedAtInterval(int intervalIndex) { return checkpointQueuedByInterval.get(intervalIndex); }
+    public int getHoldRoomTotalAtInterval(int intervalIndex) { return holdRoomTotalByInterval.get(intervalIndex); }
+
+    // boxed copies, for charts and exports that take a Map
+    public Map<Integer, Integer> getHoldUpsByInterval() { return heldUpsByInterval.toMap(); }
+    public Map<Integer, Integer> getTicketQueuedByInterval() { return ticketQueuedByInterval.toMap(); }
+    public Map<Integer, Integer> getCheckpointQueuedByInterval() { return checkpointQueuedByInterval.toMap(); }
+    public Map<Integer, Integer> getHoldRoomTotalByInterval() { return holdRoomTotalByInterval.toMap(); }
+}
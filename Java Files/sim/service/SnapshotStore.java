@@ -0,0 +1,88 @@
+package sim.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keyframe store for engine snapshots.
+ *
+ * Only every K-th interval is kept as a full keyframe. When the estimated
+ * retained size goes over the heap budget, K doubles and keyframes that are no
+ * longer on the K grid are dropped, so memory stays capped no matter how long
+ * the run is. Interval 0 is always kept.
+ */
+final class SnapshotStore<S> {
+    private final TreeMap<Integer, S> keyframes = new TreeMap<>();
+    private final Map<Integer, Long> sizes = new TreeMap<>();
+    private final ToLongFunction<S> sizeEstimator;
+
+    private long budgetBytes;
+    private long retainedBytes = 0;
+    private int keyframeInterval = 1;
+
+    SnapshotStore(long budgetBytes, ToLongFunction<S> sizeEstimator) {
+        this.budgetBytes = Math.max(1, budgetBytes);
+        this.sizeEstimator = sizeEstimator;
+    }
+
+    /** True if interval {@code t} falls on the current keyframe grid. */
+    boolean shouldCapture(int t) {
+        return t % keyframeInterval == 0;
+    }
+
+    void put(int t, S snapshot) {
+        remove(t);
+        long size = sizeEstimator.applyAsLong(snapshot);
+        keyframes.put(t, snapshot);
+        sizes.put(t, size);
+        retainedBytes += size;
+        enforceBudget();
+    }
+
+    /** Nearest keyframe at or before {@code t}, or null when empty. */
+    Map.Entry<Integer, S> floor(int t) {
+        return keyframes.floorEntry(t);
+    }
+
+    /** Drop every keyframe after interval {@code t} (a new future is being simulated). */
+    void truncateAfter(int t) {
+        while (!keyframes.isEmpty() && keyframes.lastKey() > t) {
+            remove(keyframes.lastKey());
+        }
+    }
+
+    void clear() {
+        keyframes.clear();
+        sizes.clear();
+        retainedBytes = 0;
+        keyframeInterval = 1;
+    }
+
+    void setBudgetBytes(long budgetBytes) {
+        this.budgetBytes = Math.max(1, budgetBytes);
+        enforceBudget();
+    }
+
+    long getBudgetBytes() { return budgetBytes; }
+    long getRetainedBytes() { return retainedBytes; }
+    int getKeyframeInterval() { return keyframeInterval; }
+    int size() { return keyframes.size(); }
+
+    private void remove(int t) {
+        if (keyframes.remove(t) != null) {
+            retainedBytes -= sizes.remove(t);
+        }
+    }
+
+    /** Double K and thin the keyframes until we fit the budget (keyframe 0 always survives). */
+    private void enforceBudget() {
+        while (retainedBytes > budgetBytes && keyframes.size() > 1) {
+            keyframeInterval *= 2;
+            Integer[] keys = keyframes.keySet().toArray(new Integer[0]);
+            for (int t : keys) {
+                if (t != 0 && t % keyframeInterval != 0) remove(t);
+            }
+        }
+    }
+}
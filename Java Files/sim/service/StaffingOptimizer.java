@@ -0,0 +1,157 @@
+package sim.service;
+
+import sim.model.Flight;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds the cheapest number of ticket counters and checkpoints that keeps
+ * every flight's missed share and the checkpoint wait within their targets.
+ *
+ * Everything else (rates, allowed flights, in-person share, delays) is the
+ * {@link ParameterSweep#basePoint() base point} of a sweep, with counters
+ * numbered as in {@link ParameterSweep#countersFor}.
+ *
+ * Counter counts are searched in parallel, each on its own: more counters
+ * can make things worse (they send passengers on to the checkpoints sooner),
+ * so one count's answers say nothing about another's. For each, the smallest
+ * feasible checkpoint count is found by binary search, leaning on one
+ * assumption only: with the counters fixed, adding a checkpoint never makes
+ * things worse. The cost of the best plan found so far caps the search. A
+ * candidate run stops at the first boarding close that misses too many, or
+ * the first minute someone has waited too long, so failing runs are mostly
+ * short.
+ *
+ * Runs are deterministic, and the plan (least cost, then fewest counters) does
+ * not depend on the pool size.
+ */
+public final class StaffingOptimizer {
+    private final ParameterSweep setup;
+
+    private double maxMissedFraction = 0.005;
+    private int maxCheckpointWait = Integer.MAX_VALUE;
+    private int maxCounters = 20;
+    private int maxCheckpoints = 20;
+    private double counterCost = 1.0;
+    private double checkpointCost = 1.0;
+
+    public StaffingOptimizer(ParameterSweep setup) {
+        this.setup = setup;
+    }
+
+    // === TARGETS ===
+    /** Most a flight may lose, as a share of its arrivals (default 0.005). */
+    public void setMaxMissedFraction(double fraction) { this.maxMissedFraction = fraction; }
+    /** Longest anyone may wait in a checkpoint line, in minutes (default: no limit). */
+    public void setMaxCheckpointWait(int minutes) { this.maxCheckpointWait = minutes; }
+
+    // === SEARCH SPACE AND COSTS ===
+    public void setMaxCounters(int maxCounters) { this.maxCounters = Math.max(1, maxCounters); }
+    public void setMaxCheckpoints(int maxCheckpoints) { this.maxCheckpoints = Math.max(1, maxCheckpoints); }
+    public void setCosts(double perCounter, double perCheckpoint) {
+        if (perCounter <= 0 || perCheckpoint <= 0) throw new IllegalArgumentException("Costs must be positive");
+        this.counterCost = perCounter;
+        this.checkpointCost = perCheckpoint;
+    }
+
+    public StaffingPlan solve() {
+        return solve(ForkJoinPool.commonPool());
+    }
+
+    /** The cheapest feasible plan within the limits, or null if even the largest misses a target. */
+    public StaffingPlan solve(ForkJoinPool pool) {
+        Search search = new Search();
+        ParallelRange.forEach(pool, maxCounters, i -> search.counters(i + 1));
+        if (search.bestCounters == 0) return null;
+
+        SweepPoint point = point(search.bestCounters, search.bestCheckpoints);
+        SimulationEngine engine = setup.newEngine(point);
+        engine.runAllIntervals();
+        return new StaffingPlan(point, cost(search.bestCounters, search.bestCheckpoints),
+                engine.getMetrics(), search.evaluations.get());
+    }
+
+    private double cost(int counters, int checkpoints) {
+        return counters * counterCost + checkpoints * checkpointCost;
+    }
+
+    private SweepPoint point(int counters, int checkpoints) {
+        SweepPoint base = setup.basePoint();
+        return new SweepPoint(counters,
+                base.getCounterRate(),
+                checkpoints,
+                base.getCheckpointRate(),
+                base.getPercentInPerson(),
+                base.getTransitDelayMinutes(),
+                base.getHoldDelayMinutes());
+    }
+
+    /**
+     * Run one candidate, stopping at the first broken target. Counts as one
+     * evaluation however early it stops.
+     */
+    boolean feasible(int counters, int checkpoints) {
+        SimulationEngine engine = setup.newEngine(point(counters, checkpoints));
+        CompiledScenario scenario = engine.getScenario();
+        while (engine.getCurrentInterval() < engine.getTotalIntervals()) {
+            engine.simulateInterval();
+            if (engine.getLongestCheckpointWait() > maxCheckpointWait) return false;
+            for (Flight f : engine.getFlightsJustClosed()) {
+                int fi = scenario.ordinalOf(f);
+                if (engine.getMissedCount(fi) > maxMissedFraction * engine.getArrivedCount(fi)) return false;
+            }
+        }
+        return true;
+    }
+
+    /** Shared state of one solve(): the best plan so far. */
+    private final class Search {
+        final AtomicInteger evaluations = new AtomicInteger();
+
+        int bestCounters;       // 0 = none yet
+        int bestCheckpoints;
+        double bestCost = Double.POSITIVE_INFINITY;
+
+        /**
+         * Smallest passing checkpoint count for {@code c} counters, offered as
+         * a plan. Bounds come from this count's own runs only; a count cut
+         * short by the cost cap could at best have cost more than the best plan.
+         */
+        void counters(int c) {
+            // first probe the largest checkpoint count that could still pay off
+            int hi = Math.min(maxCheckpoints, affordable(c));   // a count known to pass
+            if (hi < 1 || !probe(c, hi)) return;
+            int lo = 1;
+            while (lo < hi) {
+                if (lo > affordable(c)) return;
+                int mid = (lo + hi) >>> 1;
+                if (probe(c, mid)) hi = mid;
+                else lo = mid + 1;
+            }
+            offer(c, hi);
+        }
+
+        /** Largest checkpoint count that would not cost more than the best plan. */
+        private synchronized int affordable(int c) {
+            if (bestCounters == 0) return maxCheckpoints;
+            double left = bestCost - c * counterCost;
+            return (int) Math.floor(left / checkpointCost + 1e-9);
+        }
+
+        private boolean probe(int c, int k) {
+            evaluations.incrementAndGet();
+            return feasible(c, k);
+        }
+
+        private synchronized void offer(int c, int k) {
+            double cost = cost(c, k);
+            if (bestCounters == 0 || cost < bestCost - 1e-9
+                    || (Math.abs(cost - bestCost) <= 1e-9 && c < bestCounters)) {
+                bestCounters = c;
+                bestCheckpoints = k;
+                bestCost = cost;
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package sim.service;
+
+/**
+ * Cheapest staffing a {@link StaffingOptimizer} found: the counts, their cost,
+ * and the metrics of a full run at those counts. Immutable.
+ */
+public final class StaffingPlan {
+    private final SweepPoint point;
+    private final double cost;
+    private final RunMetrics metrics;
+    private final int evaluations;
+
+    StaffingPlan(SweepPoint point, double cost, RunMetrics metrics, int evaluations) {
+        this.point = point;
+        this.cost = cost;
+        this.metrics = metrics;
+        this.evaluations = evaluations;
+    }
+
+    public int getCounterCount() { return point.getCounterCount(); }
+    public int getCheckpointCount() { return point.getNumCheckpoints(); }
+    public SweepPoint getPoint() { return point; }
+    public double getCost() { return cost; }
+    public RunMetrics getMetrics() { return metrics; }
+    /** Candidate runs the search started, including those cut short. */
+    public int getEvaluations() { return evaluations; }
+
+    @Override
+    public String toString() {
+        return String.format("%d counters + %d checkpoints (cost %.2f, %d runs)",
+                getCounterCount(), getCheckpointCount(), cost, evaluations);
+    }
+}
@@ -0,0 +1,47 @@
+package sim.service;
+
+/**
+ * One configuration of a {@link ParameterSweep}: the values it varies, with
+ * everything else taken from the sweep's base setup. Immutable.
+ */
+public final class SweepPoint {
+    private final int counterCount;
+    private final double counterRate;       // NaN = each counter keeps its base rate
+    private final int numCheckpoints;
+    private final double checkpointRate;
+    private final double percentInPerson;
+    private final int transitDelayMinutes;
+    private final int holdDelayMinutes;
+
+    public SweepPoint(int counterCount,
+                      double counterRate,
+                      int numCheckpoints,
+                      double checkpointRate,
+                      double percentInPerson,
+                      int transitDelayMinutes,
+                      int holdDelayMinutes) {
+        this.counterCount = counterCount;
+        this.counterRate = counterRate;
+        this.numCheckpoints = numCheckpoints;
+        this.checkpointRate = checkpointRate;
+        this.percentInPerson = percentInPerson;
+        this.transitDelayMinutes = transitDelayMinutes;
+        this.holdDelayMinutes = holdDelayMinutes;
+    }
+
+    public int getCounterCount() { return counterCount; }
+    /** Rate given to every counter, or NaN when counters keep their own rates. */
+    public double getCounterRate() { return counterRate; }
+    public int getNumCheckpoints() { return numCheckpoints; }
+    public double getCheckpointRate() { return checkpointRate; }
+    public double getPercentInPerson() { return percentInPerson; }
+    public int getTransitDelayMinutes() { return transitDelayMinutes; }
+    public int getHoldDelayMinutes() { return holdDelayMinutes; }
+
+    @Override
+    public String toString() {
+        return String.format("%d counters @ %s, %d checkpoints @ %.2f, %.0f%% in person, delays %d/%d",
+                counterCount, Double.isNaN(counterRate) ? "base" : String.format("%.2f", counterRate),
+                numCheckpoints, checkpointRate, percentInPerson * 100, transitDelayMinutes, holdDelayMinutes);
+    }
+}
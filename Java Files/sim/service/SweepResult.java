@@ -0,0 +1,57 @@
+package sim.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * The runs of one {@link SweepPoint} (one per replication) and the numbers a
+ * results table shows for it: means for totals, worst cases for peaks and
+ * limits. Immutable.
+ */
+public final class SweepResult {
+    private final SweepPoint point;
+    private final List<RunMetrics> runs;
+
+    SweepResult(SweepPoint point, List<RunMetrics> runs) {
+        this.point = point;
+        this.runs = Collections.unmodifiableList(runs);
+    }
+
+    public SweepPoint getPoint() { return point; }
+    public List<RunMetrics> getRuns() { return runs; }
+
+    public double getMeanTotalMissed() {
+        return runs.stream().mapToInt(RunMetrics::getTotalMissed).average().orElse(0);
+    }
+
+    /** Largest per-flight missed share over every flight and run. */
+    public double getWorstMissedFraction() {
+        return runs.stream().mapToDouble(RunMetrics::getWorstMissedFraction).max().orElse(0);
+    }
+
+    public int getPeakTicketQueued() {
+        return runs.stream().mapToInt(RunMetrics::getPeakTicketQueued).max().orElse(0);
+    }
+
+    public int getPeakCheckpointQueued() {
+        return runs.stream().mapToInt(RunMetrics::getPeakCheckpointQueued).max().orElse(0);
+    }
+
+    public int getMaxTicketWait() {
+        return runs.stream().mapToInt(RunMetrics::getMaxTicketWait).max().orElse(0);
+    }
+
+    public int getMaxCheckpointWait() {
+        return runs.stream().mapToInt(RunMetrics::getMaxCheckpointWait).max().orElse(0);
+    }
+
+    public double getMeanCheckpointWait() {
+        return runs.stream().mapToDouble(RunMetrics::getMeanCheckpointWait).average().orElse(0);
+    }
+
+    /** Spread of one measure over the runs, e.g. {@code r -> r.getMissed(0)}. */
+    public Distribution getDistribution(ToIntFunction<RunMetrics> measure) {
+        return new Distribution(runs.stream().mapToInt(measure).toArray());
+    }
+}
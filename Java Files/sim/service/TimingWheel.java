@@ -0,0 +1,120 @@
+package sim.service;
+
+import java.util.Arrays;
+
+/**
+ * Hashed timing wheel for the fixed-delay transfers (ticket→checkpoint,
+ * checkpoint→hold-room).
+ *
+ * Every transfer is due at most {@code maxDelay} minutes ahead, so a ring of
+ * {@code maxDelay + 1} (rounded up to a power of two) primitive buckets covers
+ * all outstanding due minutes without collisions. Buckets are reused slot by
+ * slot: scheduling and draining allocate nothing once a bucket has grown to
+ * its working size.
+ */
+final class TimingWheel {
+    private final int mask;
+    private final int[][] ids;     // passenger ids per slot
+    private final int[] sizes;     // used length of each slot
+    private final int[] due;       // due minute of each non-empty slot
+
+    TimingWheel(int maxDelay) {
+        int slots = Integer.highestOneBit(Math.max(1, maxDelay + 1) * 2 - 1);
+        this.mask = slots - 1;
+        this.ids = new int[slots][8];
+        this.sizes = new int[slots];
+        this.due = new int[slots];
+    }
+
+    /** Schedule passenger {@code id} to move at {@code minute}. */
+    void schedule(int minute, int id) {
+        int s = minute & mask;
+        int n = sizes[s];
+        if (n == 0) due[s] = minute;
+        if (n == ids[s].length) ids[s] = Arrays.copyOf(ids[s], n * 2);
+        ids[s][n] = id;
+        sizes[s] = n + 1;
+    }
+
+    /** Number of passengers due at {@code minute}. */
+    int sizeAt(int minute) {
+        int s = minute & mask;
+        return sizes[s] > 0 && due[s] == minute ? sizes[s] : 0;
+    }
+
+    /** The i-th passenger due at {@code minute}, in scheduling order. */
+    int get(int minute, int i) {
+        return ids[minute & mask][i];
+    }
+
+    /** Copy of the bucket due at {@code minute} (journal use). */
+    int[] copyAt(int minute) {
+        return Arrays.copyOf(ids[minute & mask], sizeAt(minute));
+    }
+
+    /** Drop the bucket due at {@code minute} once it has been processed. */
+    void clearAt(int minute) {
+        if (sizeAt(minute) > 0) sizes[minute & mask] = 0;
+    }
+
+    /** Undo the latest {@link #schedule} for {@code minute}. */
+    void removeLast(int minute) {
+        if (sizeAt(minute) > 0) sizes[minute & mask]--;
+    }
+
+    /** Put a drained bucket back (journal undo). */
+    void restoreAt(int minute, int[] bucket) {
+        int s = minute & mask;
+        sizes[s] = 0;
+        for (int id : bucket) schedule(minute, id);
+    }
+
+    /** Earliest due minute at or after {@code from}, or {@link EventCalendar#NONE}. */
+    int nextDue(int from) {
+        int next = EventCalendar.NONE;
+        for (int s = 0; s < sizes.length; s++) {
+            if (sizes[s] > 0 && due[s] >= from && due[s] < next) next = due[s];
+        }
+        return next;
+    }
+
+    void clear() {
+        Arrays.fill(sizes, 0);
+    }
+
+    // ============================
+    // Snapshots (plain array copies)
+    // ============================
+
+    static final class Snapshot {
+        final int[][] ids;
+        final int[] sizes;
+        final int[] due;
+
+        private Snapshot(TimingWheel w) {
+            ids = new int[w.ids.length][];
+            for (int s = 0; s < ids.length; s++) ids[s] = Arrays.copyOf(w.ids[s], w.sizes[s]);
+            sizes = w.sizes.clone();
+            due = w.due.clone();
+        }
+
+        long estimateBytes() {
+            long bytes = 64 + sizes.length * 24L;
+            for (int n : sizes) bytes += n * 4L;
+            return bytes;
+        }
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    void restore(Snapshot snap) {
+        for (int s = 0; s < sizes.length; s++) {
+            if (ids[s].length < snap.sizes[s]) ids[s] = new int[snap.sizes[s]];
+            System.arraycopy(snap.ids[s], 0, ids[s], 0, snap.sizes[s]);
+        }
+        System.arraycopy(snap.sizes, 0, sizes, 0, sizes.length);
+        System.arraycopy(snap.due, 0, due, 0, due.length);
+    }
+}
@@ -76,11 +76,13 @@ public class ArrivalsGraphPanel extends JPanel {
     public void syncWithEngine() {
         int maxComputed = engine.getMaxComputedInterval();
 
-        // append only new points (O(1) per interval)
-        for (int i = plottedMaxInterval + 1; i <= maxComputed; i++) {
-            int y = engine.getTotalArrivalsAtInterval(i);
-            series.add(i, y);
-            plottedMaxInterval = i;
+        // append only new points (O(1) per interval), then redraw once
+        if (maxComputed > plottedMaxInterval) {
+            for (int i = plottedMaxInterval + 1; i <= maxComputed; i++) {
+                series.add(i, engine.getTotalArrivalsAtInterval(i), false);
+            }
+            plottedMaxInterval = maxComputed;
+            series.fireSeriesChanged();
         }
 
         setViewedInterval(engine.getCurrentInterval());
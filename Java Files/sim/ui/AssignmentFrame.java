@@ -0,0 +1,127 @@
+package sim.ui;
+
+import sim.service.AssignmentOptimizer;
+import sim.service.AssignmentResult;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs an {@link AssignmentOptimizer} off the EDT and streams each new best
+ * counter-to-flight assignment into the ticket counter table as it is found.
+ * Stop keeps the best found so far.
+ */
+public class AssignmentFrame extends JFrame {
+    private final AssignmentOptimizer optimizer;
+    private final TicketCounterPanel counterPanel;
+
+    private final JTextField iterationsField;
+    private final JTextField chainsField;
+    private final JTextField seedField;
+    private final JTextField missedWeightField;
+    private final JTextField peakWeightField;
+
+    private final JButton runButton = new JButton("Optimize");
+    private final JLabel bestLabel = new JLabel("No assignment yet");
+    private final JLabel startLabel = new JLabel(" ");
+    private SwingWorker<AssignmentResult, AssignmentResult> worker;
+
+    public AssignmentFrame(AssignmentOptimizer optimizer, TicketCounterPanel counterPanel) {
+        super("Optimize Counter Assignment");
+        this.optimizer = optimizer;
+        this.counterPanel = counterPanel;
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout());
+
+        JPanel inputs = new JPanel(new GridLayout(5, 2, 5, 5));
+        inputs.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+        iterationsField   = addLabeledField(inputs, "Moves per Chain:", "2000");
+        chainsField       = addLabeledField(inputs, "Chains (0 = one per core):", "0");
+        seedField         = addLabeledField(inputs, "Seed:", "1");
+        missedWeightField = addLabeledField(inputs, "Weight / Missed Passenger:", "1.0");
+        peakWeightField   = addLabeledField(inputs, "Weight / Peak Ticket Queue:", "0.1");
+        add(inputs, BorderLayout.NORTH);
+
+        JPanel status = new JPanel(new GridLayout(2, 1, 5, 5));
+        status.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+        status.add(startLabel);
+        status.add(bestLabel);
+        add(status, BorderLayout.CENTER);
+
+        runButton.addActionListener(e -> onRun());
+        JPanel south = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        south.add(runButton);
+        add(south, BorderLayout.SOUTH);
+
+        pack();
+        setLocationRelativeTo(null);
+    }
+
+    private static JTextField addLabeledField(JPanel panel, String label, String value) {
+        panel.add(new JLabel(label));
+        JTextField field = new JTextField(value, 8);
+        panel.add(field);
+        return field;
+    }
+
+    private void onRun() {
+        if (worker != null) {
+            optimizer.stop();
+            return;
+        }
+        try {
+            optimizer.setIterations(Integer.parseInt(iterationsField.getText().trim()));
+            optimizer.setChains(Integer.parseInt(chainsField.getText().trim()));
+            optimizer.setSeed(Long.parseLong(seedField.getText().trim()));
+            optimizer.setWeights(Double.parseDouble(missedWeightField.getText().trim()),
+                                 Double.parseDouble(peakWeightField.getText().trim()));
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Invalid Setting", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        startLabel.setText(" ");
+        bestLabel.setText("Running...");
+        runButton.setText("Stop");
+
+        worker = new SwingWorker<AssignmentResult, AssignmentResult>() {
+            @Override
+            protected AssignmentResult doInBackground() {
+                return optimizer.solve(ForkJoinPool.commonPool(), this::publish);
+            }
+
+            @Override
+            protected void process(List<AssignmentResult> chunk) {
+                // the first one published is a chain's starting point: the current assignment
+                if (startLabel.getText().trim().isEmpty()) startLabel.setText("Current: " + chunk.get(0));
+                show(chunk.get(chunk.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                worker = null;
+                runButton.setText("Optimize");
+                try {
+                    show(get());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    JOptionPane.showMessageDialog(AssignmentFrame.this, String.valueOf(ex.getCause()),
+                            "Optimizer Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void show(AssignmentResult best) {
+        if (counterPanel.applyAssignment(best.getAllowedFlights())) {
+            bestLabel.setText("Best: " + best);
+        } else {
+            bestLabel.setText("Best: " + best + " (counters changed; not applied)");
+        }
+    }
+}
@@ -2,18 +2,19 @@ package sim.ui;
 
 import sim.model.Flight;
 import sim.model.Passenger;
-import sim.service.SimulationEngine;
+import sim.service.EngineView;
 
 import javax.swing.*;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Panel displaying checkpoint lines with scrollable grids.
  */
 public class CheckpointLinesPanel extends JPanel {
-    private final SimulationEngine engine;
+    private final Supplier<EngineView> views;   // the interval to paint
     private final int[] checkpointQueuedOffsets;
     private final int[] checkpointServedOffsets;
     private final List<Rectangle> clickableAreas;
@@ -21,22 +22,23 @@ public class CheckpointLinesPanel extends JPanel {
     private final List<Rectangle> counterAreas;
     private final Flight filterFlight;
 
-    public CheckpointLinesPanel(SimulationEngine engine,
+    public CheckpointLinesPanel(Supplier<EngineView> views,
                                 List<Rectangle> clickableAreas,
                                 List<Passenger> clickablePassengers,
                                 Flight filterFlight) {
-        this.engine = engine;
+        this.views = views;
         this.clickableAreas = clickableAreas;
         this.clickablePassengers = clickablePassengers;
         this.counterAreas = new ArrayList<>();            // << new list for counters
         this.filterFlight = filterFlight;
-        this.checkpointQueuedOffsets = new int[engine.getCheckpointLines().size()];
-        this.checkpointServedOffsets = new int[engine.getCheckpointLines().size()];
+        int lineCount = views.get().getCheckpointLineCount();
+        this.checkpointQueuedOffsets = new int[lineCount];
+        this.checkpointServedOffsets = new int[lineCount];
         setFocusable(true);
 
         // install shared scroll handler
         ScrollMouseHandler handler = new ScrollMouseHandler.CheckpointScrollHandler(
-            engine, clickableAreas, clickablePassengers,
+            views, clickableAreas, clickablePassengers,
             checkpointQueuedOffsets, checkpointServedOffsets,
             filterFlight,
             counterAreas
@@ -52,7 +54,7 @@ public class CheckpointLinesPanel extends JPanel {
         GridRenderer.renderCheckpointLines(
             this,
             g,
-            engine,
+            views.get(),
             checkpointQueuedOffsets,
             checkpointServedOffsets,
             clickableAreas,
@@ -67,14 +69,7 @@ public class CheckpointLinesPanel extends JPanel {
      *         across all history intervals.
      */
     public int getMaxQueuedForLine(int lineIdx) {
-        int max = 0;
-        for (List<List<Passenger>> interval : engine.getHistoryQueuedCheckpoint()) {
-            int sz = interval.get(lineIdx).size();
-            if (sz > max) {
-                max = sz;
-            }
-        }
-        return max;
+        return views.get().getPeakQueuedCheckpoint(lineIdx);
     }
 
     /**
@@ -84,7 +79,7 @@ public class CheckpointLinesPanel extends JPanel {
     @Override
     public Dimension getPreferredSize() {
         int width = super.getPreferredSize().width;
-        int lines = engine.getCheckpointLines().size();
+        int lines = checkpointQueuedOffsets.length;
         int height = 50 + lines * GridRenderer.MIN_LINE_SPACING + 50;
         return new Dimension(width, height);
     }
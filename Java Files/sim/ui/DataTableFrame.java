@@ -1,8 +1,8 @@
 package sim.ui;
 
-import sim.model.Flight;
 import sim.model.Passenger;
-import sim.service.SimulationEngine;
+import sim.service.CompiledScenario;
+import sim.service.SimulationResult;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
@@ -13,27 +13,18 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
 
 public class DataTableFrame extends JFrame {
     private final JTabbedPane tabbedPane;
 
-    public DataTableFrame(SimulationEngine engine) {
+    public DataTableFrame(SimulationResult result) {
         super("Interval Data");
         setDefaultCloseOperation(DISPOSE_ON_CLOSE);
 
-        // Run full simulation to populate history and arrivals
-        engine.runAllIntervals();
-
-        // Prepare time headers
-        List<Flight> flights = engine.getFlights();
-        LocalTime firstDep = flights.stream()
-            .map(Flight::getDepartureTime)
-            .min(LocalTime::compareTo)
-            .orElse(LocalTime.MIDNIGHT);
-        LocalTime startTime = firstDep.minusMinutes(engine.getArrivalSpan());
-        int interval = engine.getInterval();
-        int totalIntervals = engine.getTotalIntervals();
+        // Prepare time headers (the run itself happened once, before this frame)
+        LocalTime startTime = result.getGlobalStart();
+        int interval = result.getInterval();
+        int totalIntervals = result.getTotalIntervals();
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("HH:mm");
 
         // Create tabbed pane
@@ -41,7 +32,7 @@ public class DataTableFrame extends JFrame {
 
         // Arrivals tab
         JTable arrivalsTable = new JTable(
-            new ArrivalsTableModel(engine, startTime, fmt)
+            new ArrivalsTableModel(result, startTime, fmt)
         );
         configureTable(arrivalsTable);
         tabbedPane.addTab("Arrivals", new JScrollPane(arrivalsTable));
@@ -49,7 +40,7 @@ public class DataTableFrame extends JFrame {
         // Ticket Queue tab
         JTable ticketQueueTable = new JTable(
             new BaseHistoryTableModel(
-                engine.getHistoryQueuedTicket(),
+                result.getHistoryQueuedTicket(),
                 "Ticket Queue",
                 startTime,
                 interval,
@@ -63,7 +54,7 @@ public class DataTableFrame extends JFrame {
         // Ticket Completed tab
         JTable ticketCompletedTable = new JTable(
             new BaseHistoryTableModel(
-                engine.getHistoryServedTicket(),
+                result.getHistoryServedTicket(),
                 "Ticket Completed",
                 startTime,
                 interval,
@@ -77,7 +68,7 @@ public class DataTableFrame extends JFrame {
         // Checkpoint Queue tab
         JTable checkpointQueueTable = new JTable(
             new BaseHistoryTableModel(
-                engine.getHistoryQueuedCheckpoint(),
+                result.getHistoryQueuedCheckpoint(),
                 "Checkpoint Queue",
                 startTime,
                 interval,
@@ -91,7 +82,7 @@ public class DataTableFrame extends JFrame {
         // Checkpoint Completed tab
         JTable checkpointCompletedTable = new JTable(
             new BaseHistoryTableModel(
-                engine.getHistoryServedCheckpoint(),
+                result.getHistoryServedCheckpoint(),
                 "Checkpoint Completed",
                 startTime,
                 interval,
@@ -200,47 +191,41 @@ public class DataTableFrame extends JFrame {
         return need ? "\"" + t + "\"" : t;
     }
 
+    /**
+     * One row per flight plus a total row, one column per minute of the run.
+     * Cells are read from the compiled schedule's arrival timeline when shown,
+     * so the tab opens at once for any number of flights.
+     */
     private static class ArrivalsTableModel extends AbstractTableModel {
+        private final CompiledScenario scenario;
         private final String[] columnNames;
-        private final Object[][] data;
 
         public ArrivalsTableModel(
-            SimulationEngine engine,
+            SimulationResult result,
             LocalTime startTime,
             DateTimeFormatter fmt
         ) {
-            List<Flight> flights = engine.getFlights();
-            int totalMinutes = Math.max(engine.getArrivalSpan() - 20, 0);
+            scenario = result.getScenario();
+            int totalMinutes = scenario.getTotalIntervals();
             columnNames = new String[totalMinutes + 1];
             columnNames[0] = "Time";
             for (int m = 0; m < totalMinutes; m++) {
                 columnNames[m + 1] = startTime.plusMinutes(m + 1).format(fmt);
             }
-            data = new Object[flights.size() + 1][totalMinutes + 1];
-            Map<Flight, int[]> perMin = engine.getMinuteArrivalsMap();
-            int row = 0;
-            for (Flight f : flights) {
-                data[row][0] = "Arrivals - " + f.getFlightNumber();
-                int[] arr = perMin.getOrDefault(f, new int[totalMinutes]);
-                for (int m = 0; m < totalMinutes; m++) {
-                    data[row][m + 1] = arr[m];
-                }
-                row++;
-            }
-            data[row][0] = "Total Arrivals";
-            for (int m = 0; m < totalMinutes; m++) {
-                int sum = 0;
-                for (Flight f : flights) {
-                    sum += perMin.getOrDefault(f, new int[totalMinutes])[m];
-                }
-                data[row][m + 1] = sum;
-            }
         }
 
-        @Override public int getRowCount() { return data.length; }
+        @Override public int getRowCount() { return scenario.getFlightCount() + 1; }
         @Override public int getColumnCount() { return columnNames.length; }
         @Override public String getColumnName(int col) { return columnNames[col]; }
-        @Override public Object getValueAt(int row, int col) { return data[row][col]; }
+
+        @Override
+        public Object getValueAt(int row, int col) {
+            boolean total = row == scenario.getFlightCount();
+            if (col == 0) {
+                return total ? "Total Arrivals" : "Arrivals - " + scenario.getFlight(row).getFlightNumber();
+            }
+            return total ? scenario.getTotalArrivalsAt(col - 1) : scenario.getArrivalsAt(row, col - 1);
+        }
     }
 
     private static class BaseHistoryTableModel extends AbstractTableModel {
@@ -2,52 +2,56 @@ package sim.ui;
 
 import sim.model.Flight;
 import sim.model.Passenger;
+import sim.service.EngineView;
 import sim.service.SimulationEngine;
+import sim.service.SimulationResult;
 
 import javax.swing.*;
 import java.awt.*;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
+/**
+ * One flight's passengers at one interval, drawn from a fixed {@link EngineView}.
+ * The view never moves, so any number of snapshots can be open at different
+ * intervals while the live view keeps running.
+ */
 public class FlightSnapshotFrame extends JFrame {
-    private final SimulationEngine engine;
-    private final int step;
+    private final EngineView view;
 
     /**
-     * Legacy constructor: shows snapshot at the most recently closed interval.
+     * Legacy constructor: shows snapshot at the engine's current interval.
      */
     public FlightSnapshotFrame(SimulationEngine engine, Flight flight) {
-        this(engine, flight, Math.max(0, engine.getCurrentInterval() - 1));
+        this(engine.viewAt(engine.getCurrentInterval()), flight);
     }
 
     /**
-     * New full constructor: show snapshot at a specific history step.
-     * @param engine the simulation engine (must have runAllIntervals() beforehand)
+     * Show a finished run at a specific history step.
+     * @param result the finished run
      * @param flight the flight to filter by
      * @param step   the interval index into the history lists
      */
-    public FlightSnapshotFrame(SimulationEngine engine, Flight flight, int step) {
-        super("Snapshot — Flight " + flight.getFlightNumber());
-        this.engine = engine;
-        this.step   = Math.max(0, step);
-
-        // Bump engine.currentInterval so that the panels pick up the correct history step.
-        // (Panels typically render step = engine.getCurrentInterval() - 1)
-        try {
-            Field curr = SimulationEngine.class.getDeclaredField("currentInterval");
-            curr.setAccessible(true);
-            curr.setInt(engine, this.step + 1);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    public FlightSnapshotFrame(SimulationResult result, Flight flight, int step) {
+        // panels render step = view interval - 1
+        this(result.viewAt(Math.max(0, step) + 1), flight);
+    }
 
+    /**
+     * @param view   the interval to show
+     * @param flight the flight to filter by
+     */
+    public FlightSnapshotFrame(EngineView view, Flight flight) {
+        super("Snapshot — Flight " + flight.getFlightNumber());
+        this.view = view;
         initUI(flight);
     }
 
     private void initUI(Flight flight) {
         setDefaultCloseOperation(DISPOSE_ON_CLOSE);
         setLayout(new BorderLayout(5, 5));
+        Supplier<EngineView> views = () -> view;
 
         // --- Compute panel widths exactly as in SimulationFrame ---
         int cellW      = 60 / 3;                    // 3 rows per column
@@ -61,7 +65,7 @@ public class FlightSnapshotFrame extends JFrame {
         // --- Ticket panel ---
         List<Rectangle> areas1 = new ArrayList<>();
         List<Passenger> pass1  = new ArrayList<>();
-        TicketLinesPanel ticketPanel = new TicketLinesPanel(engine, areas1, pass1, flight);
+        TicketLinesPanel ticketPanel = new TicketLinesPanel(views, areas1, pass1, flight);
         ticketPanel.setPreferredSize(
             new Dimension(panelWidth, ticketPanel.getPreferredSize().height)
         );
@@ -74,7 +78,7 @@ public class FlightSnapshotFrame extends JFrame {
         // --- Checkpoint panel ---
         List<Rectangle> areas2 = new ArrayList<>();
         List<Passenger> pass2  = new ArrayList<>();
-        CheckpointLinesPanel checkpointPanel = new CheckpointLinesPanel(engine, areas2, pass2, flight);
+        CheckpointLinesPanel checkpointPanel = new CheckpointLinesPanel(views, areas2, pass2, flight);
         checkpointPanel.setPreferredSize(
             new Dimension(panelWidth, checkpointPanel.getPreferredSize().height)
         );
@@ -85,7 +89,7 @@ public class FlightSnapshotFrame extends JFrame {
         );
 
         // --- Hold-rooms panel ---
-        HoldRoomsPanel holdPanel = new HoldRoomsPanel(engine, flight);
+        HoldRoomsPanel holdPanel = new HoldRoomsPanel(views, flight);
         JScrollPane holdScroll = new JScrollPane(
             holdPanel,
             JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
@@ -92,6 +92,17 @@ public class FlightTableModel extends AbstractTableModel {
     }
 
 
+    /**
+     * Replace every row with {@code newFlights} in one model event. The list
+     * object itself is kept: the counter editor holds on to it.
+     */
+    public void setFlights(List<Flight> newFlights) {
+        flights.clear();
+        flights.addAll(newFlights);
+        fireTableDataChanged();
+    }
+
+
     public void removeFlight(int idx) {
         flights.remove(idx);
         fireTableRowsDeleted(idx, idx);
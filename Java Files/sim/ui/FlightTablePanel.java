@@ -56,4 +56,5 @@ addBtn.addActionListener(e -> model.addFlight(
 
 
     public List<Flight> getFlights() { return model.getFlights(); }
+    public void setFlights(List<Flight> flights) { model.setFlights(flights); }
 }
@@ -2,11 +2,11 @@ package sim.ui;
 
 import sim.model.Flight;
 import sim.model.Passenger;
-import sim.service.SimulationEngine;
+import sim.service.CompiledScenario;
+import sim.service.SimulationResult;
 
 import javax.swing.*;
 import java.awt.*;
-import java.time.Duration;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -14,33 +14,33 @@ import java.util.List;
 public class FlightsSummaryFrame extends JFrame {
     private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
 
-    public FlightsSummaryFrame(SimulationEngine engine) {
+    /**
+     * @param result the finished run; counts, close steps and snapshots are read from it
+     */
+    public FlightsSummaryFrame(SimulationResult result) {
         super("All Flights Summary");
         setDefaultCloseOperation(DISPOSE_ON_CLOSE);
         setLayout(new BorderLayout(10, 10));
 
-        List<Flight> flights = engine.getFlights();
+        // Flight ordinals and close minutes come precomputed from the run's scenario
+        CompiledScenario scenario = result.getScenario();
+        int flightCount = scenario.getFlightCount();
 
-        // Recompute the global simulation start time (same logic as other UIs)
-        LocalTime firstDep = flights.stream()
-            .map(Flight::getDepartureTime)
-            .min(LocalTime::compareTo)
-            .orElse(LocalTime.MIDNIGHT);
-        LocalTime globalStart = firstDep.minusMinutes(engine.getArrivalSpan());
-
-        int cols = Math.min(4, flights.size()); // up to 4 per row
+        int cols = Math.min(4, flightCount); // up to 4 per row
         JPanel grid = new JPanel(new GridLayout(0, cols, 10, 10));
 
         // Determine the latest history step we can safely display (clamp)
-        int maxHistoryStep = getMaxHistoryStep(engine);
+        int maxHistoryStep = getMaxHistoryStep(result);
+
+        for (int flightIdx = 0; flightIdx < flightCount; flightIdx++) {
+            Flight f = scenario.getFlight(flightIdx);
 
-        for (Flight f : flights) {
             // Boarding-close time = departure - 20
-            LocalTime closeTime = f.getDepartureTime().minusMinutes(20);
+            LocalTime closeTime = f.getDepartureTime().minusMinutes(CompiledScenario.BOARDING_CLOSE_MINUTES);
 
             // In SimulationEngine, "minute" is currentInterval (1 tick = 1 minute),
-            // and closeIdx is computed as minutes between globalStart and (dep-20).
-            int closeStep = (int) Duration.between(globalStart, closeTime).toMinutes();
+            // and the close minute is counted from the global start.
+            int closeStep = scenario.getCloseMinute(flightIdx);
 
             // Clamp step to history bounds (protects against partial runs)
             int step = Math.max(0, Math.min(closeStep, maxHistoryStep));
@@ -49,23 +49,14 @@ public class FlightsSummaryFrame extends JFrame {
             String madeText = "";
             try {
                 int total = (int) Math.round(f.getSeats() * f.getFillPercent());
-                int flightIdx = flights.indexOf(f);
 
                 int made = 0;
-                if (engine.getHistoryHoldRooms() != null
-                    && step < engine.getHistoryHoldRooms().size()
-                    && flightIdx >= 0
-                    && step >= 0) {
-
-                    List<List<Passenger>> holdAtStep = engine.getHistoryHoldRooms().get(step);
+                List<List<List<Passenger>>> holdHistory = result.getHistoryHoldRooms();
+                if (step < holdHistory.size()) {
+                    List<List<Passenger>> holdAtStep = holdHistory.get(step);
                     if (flightIdx < holdAtStep.size()) {
                         made = holdAtStep.get(flightIdx).size();
                     }
-                } else {
-                    // fallback (should rarely be needed)
-                    if (flightIdx >= 0 && flightIdx < engine.getHoldRoomLines().size()) {
-                        made = engine.getHoldRoomLines().get(flightIdx).size();
-                    }
                 }
                 madeText = String.format("  (%d/%d)", made, total);
             } catch (Exception ignored) {
@@ -85,7 +76,7 @@ public class FlightsSummaryFrame extends JFrame {
             btn.addActionListener(e -> {
                 // Show the snapshot at the boarding-close history step.
                 // FlightSnapshotFrame will also clamp internally as an extra safeguard.
-                new FlightSnapshotFrame(engine, f, step).setVisible(true);
+                new FlightSnapshotFrame(result, f, step).setVisible(true);
             });
 
             grid.add(btn);
@@ -107,16 +98,12 @@ public class FlightsSummaryFrame extends JFrame {
      * Compute the safest maximum step that exists across the key history lists.
      * This keeps snapshots from trying to index beyond recorded history.
      */
-    private int getMaxHistoryStep(SimulationEngine engine) {
-        try {
-            int a = engine.getHistoryQueuedTicket() != null ? engine.getHistoryQueuedTicket().size() : 0;
-            int b = engine.getHistoryQueuedCheckpoint() != null ? engine.getHistoryQueuedCheckpoint().size() : 0;
-            int c = engine.getHistoryHoldRooms() != null ? engine.getHistoryHoldRooms().size() : 0;
-
-            int min = Math.min(a, Math.min(b, c));
-            return Math.max(0, min - 1);
-        } catch (Exception ex) {
-            return 0;
-        }
+    private int getMaxHistoryStep(SimulationResult result) {
+        int a = result.getHistoryQueuedTicket().size();
+        int b = result.getHistoryQueuedCheckpoint().size();
+        int c = result.getHistoryHoldRooms().size();
+
+        int min = Math.min(a, Math.min(b, c));
+        return Math.max(0, min - 1);
     }
 }
@@ -1,5 +1,7 @@
 package sim.ui;
 
+import sim.service.Scenario;
+
 import javax.swing.*;
 import java.awt.*;
 
@@ -50,6 +52,16 @@ intervalField.setForeground(Color.BLACK); // keep text readable
         return field;
     }
 
+    /** Show a loaded scenario's parameters (the interval stays fixed at 1). */
+    public void apply(Scenario scenario) {
+        percentInPersonField.setText(String.valueOf(scenario.getPercentInPerson()));
+        checkpointsField.setText(String.valueOf(scenario.getNumCheckpoints()));
+        rateCheckpointField.setText(String.valueOf(scenario.getCheckpointRate()));
+        arrivalSpanField.setText(String.valueOf(scenario.getArrivalSpanMinutes()));
+        transitDelayField.setText(String.valueOf(scenario.getTransitDelayMinutes()));
+        holdroomDelayField.setText(String.valueOf(scenario.getHoldDelayMinutes()));
+    }
+
     public int getHoldroomDelayMinutes() {
         return Integer.parseInt(holdroomDelayField.getText());
     }
@@ -2,14 +2,20 @@ package sim.ui;
 
 import sim.model.Flight;
 import sim.model.Passenger;
-import sim.service.SimulationEngine;
+import sim.service.CompiledScenario;
+import sim.service.EngineView;
 
 import javax.swing.JComponent;
 import javax.swing.JViewport;
 import java.awt.*;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Paints the ticket, checkpoint and hold-room grids from one {@link EngineView}.
+ * Views are fixed at their interval, so painting never reads state the engine is changing.
+ */
 public class GridRenderer {
     private static final int ROWS = 3;
     public static final int COLS = 15;
@@ -27,7 +33,7 @@ public class GridRenderer {
      */
     public static void renderTicketLines(JComponent panel,
                                          Graphics g,
-                                         SimulationEngine engine,
+                                         EngineView frame,
                                          int[] queuedOffsets,
                                          int[] servedOffsets,
                                          List<Rectangle> clickableAreas,
@@ -49,10 +55,9 @@ public class GridRenderer {
         int gridWidth = COLS * cellW;
         int trackH = cellW / 2;
 
-        int step = engine.getCurrentInterval() - 1;
-        if (step < 0) return;
+        if (frame == null || frame.getCurrentInterval() < 1) return;
 
-        int lines = engine.getTicketLines().size();
+        int lines = frame.getTicketLineCount();
         int rawSpace = lines > 1 ? (bottom - top) / (lines - 1) : 0;
         int space = Math.max(rawSpace, MIN_LINE_SPACING);
 
@@ -63,14 +68,14 @@ public class GridRenderer {
             g.setColor(Color.BLACK);
             g.drawRect(boxX, boxY, boxSize, boxSize);
             counterAreas.add(new Rectangle(boxX, boxY, boxSize, boxSize));
-            String label = String.valueOf(engine.getCounterConfigs().get(i).getId());
+            String label = String.valueOf(frame.getCounterId(i));
             FontMetrics fm = g.getFontMetrics();
             int tw = fm.stringWidth(label), th = fm.getAscent();
             int tx = boxX + (boxSize - tw) / 2, ty = boxY + (boxSize + th) / 2;
             g.drawString(label, tx, ty);
             
             g.setColor(Color.YELLOW);
-            List<Passenger> fullQ = engine.getHistoryQueuedTicket().get(step).get(i);
+            List<Passenger> fullQ = frame.getQueuedTicket().get(i);
             List<Passenger> queued = filterFlight == null
                 ? fullQ
                 : fullQ.stream().filter(p -> p.getFlight() == filterFlight).collect(Collectors.toList());
@@ -94,16 +99,11 @@ public class GridRenderer {
             }
 
             g.setColor(Color.GREEN);
-            List<Passenger> fullS;
-            if (filterFlight == null) {
-                fullS = engine.getVisibleCompletedTicketLine(i);
-            } else {
-                int delay = engine.getTransitDelayMinutes();
-                fullS = engine.getHistoryServedTicket().get(step).get(i).stream()
-                    .filter(p -> p.getFlight() == filterFlight)
-                    .filter(p -> p.getTicketCompletionMinute() + delay > step)
-                    .collect(Collectors.toList());
-            }
+            // only those still walking to the checkpoint
+            List<Passenger> fullVS = frame.getVisibleServedTicket().get(i);
+            List<Passenger> fullS = filterFlight == null
+                ? fullVS
+                : fullVS.stream().filter(p -> p.getFlight() == filterFlight).collect(Collectors.toList());
             int startXs = boxX + boxSize + (COLS - 1) * cellW;
 
             int fullColsS = (fullS.size() + ROWS - 1) / ROWS;
@@ -131,7 +131,7 @@ public class GridRenderer {
      */
     public static void renderCheckpointLines(JComponent panel,
                                              Graphics g,
-                                             SimulationEngine engine,
+                                             EngineView frame,
                                              int[] queuedOffsets,
                                              int[] servedOffsets,
                                              List<Rectangle> clickableAreas,
@@ -153,10 +153,9 @@ public class GridRenderer {
         int gridW = COLS * cellW;
         int trackH = cellW / 2;
 
-        int step = engine.getCurrentInterval() - 1;
-        if (step < 0) return;
+        if (frame == null || frame.getCurrentInterval() < 1) return;
 
-        int lines = engine.getCheckpointLines().size();
+        int lines = frame.getCheckpointLineCount();
         int rawSpace = lines > 1 ? (bottom - top) / (lines - 1) : 0;
         int space = Math.max(rawSpace, MIN_LINE_SPACING);
 
@@ -176,7 +175,7 @@ public class GridRenderer {
             g.drawString(lbl, x2, y2);
 
             g.setColor(Color.YELLOW);
-            List<Passenger> fullQC = engine.getHistoryQueuedCheckpoint().get(step).get(i);
+            List<Passenger> fullQC = frame.getQueuedCheckpoint().get(i);
             List<Passenger> queuedC = filterFlight == null
                 ? fullQC
                 : fullQC.stream().filter(p -> p.getFlight() == filterFlight).collect(Collectors.toList());
@@ -202,7 +201,7 @@ public class GridRenderer {
             }
 
             g.setColor(Color.GREEN);
-            List<Passenger> fullSC = engine.getHistoryServedCheckpoint().get(step).get(i);
+            List<Passenger> fullSC = frame.getServedCheckpoint().get(i);
             List<Passenger> servedC = filterFlight == null
                 ? fullSC
                 : fullSC.stream().filter(p -> p.getFlight() == filterFlight).collect(Collectors.toList());
@@ -277,18 +276,18 @@ public class GridRenderer {
      */
     public static void renderHoldRooms(JComponent panel,
                                        Graphics g,
-                                       SimulationEngine engine,
+                                       EngineView frame,
                                        List<Rectangle> clickableAreas,
                                        List<Passenger> clickablePassengers,
                                        Flight filterFlight) {
         clickableAreas.clear();
         clickablePassengers.clear();
 
-        int step = engine.getCurrentInterval() - 1;
-        if (step < 0) return;
+        if (frame == null || frame.getCurrentInterval() < 1) return;
 
         // snapshot of hold-room contents at this step
-        List<List<Passenger>> snapshot = engine.getHistoryHoldRooms().get(step);
+        List<List<Passenger>> snapshot = frame.getHoldRooms();
+        CompiledScenario scenario = frame.getScenario();
 
         // compute how many rows per column will fit _visibly_ in the scroll viewport
         int availableHeight;
@@ -312,15 +311,13 @@ public class GridRenderer {
             g.setColor(Color.BLACK);
             g.drawRect(boxX, boxY, HOLD_BOX_SIZE, HOLD_BOX_SIZE);
 
-            Flight f = engine.getFlights().get(i);
-            List<Passenger> full = filterFlight == null
+            // hold room i only ever holds flight i's passengers
+            List<Passenger> full = filterFlight == null || scenario.ordinalOf(filterFlight) == i
                 ? snapshot.get(i)
-                : snapshot.get(i).stream()
-                          .filter(p -> p.getFlight() == filterFlight)
-                          .collect(Collectors.toList());
+                : Collections.emptyList();
 
             // fixed cell size per flight
-            int cellSize = engine.getHoldRoomCellSize(f);
+            int cellSize = scenario.getHoldRoomCellSize(i);
 
             for (int idx = 0; idx < full.size(); idx++) {
                 int rows = Math.max(1, GridRenderer.HOLD_BOX_SIZE / cellSize);
@@ -2,7 +2,7 @@ package sim.ui;
 
 import sim.model.Flight;
 import sim.model.Passenger;
-import sim.service.SimulationEngine;
+import sim.service.EngineView;
 
 import javax.swing.*;
 import java.awt.*;                // <— this brings in Rectangle, Dimension, Graphics, etc.
@@ -12,26 +12,27 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class HoldRoomsPanel extends JPanel {
     private static final int HOLD_BOX_SIZE = GridRenderer.HOLD_BOX_SIZE;
     private static final int HOLD_GAP      = GridRenderer.HOLD_GAP;
 
-    private final SimulationEngine engine;
+    private final Supplier<EngineView> views;   // the interval to paint
     private final Flight           filterFlight;
     private final List<Rectangle>  clickableAreas;
     private final List<Passenger>  clickablePassengers;
 
-    public HoldRoomsPanel(SimulationEngine engine,
+    public HoldRoomsPanel(Supplier<EngineView> views,
                             List<Rectangle> clickableAreas,
                             List<Passenger> clickablePassengers,
                             Flight filterFlight) {
-        this.engine              = engine;
+        this.views               = views;
         this.filterFlight        = filterFlight;
         this.clickableAreas      = clickableAreas;
         this.clickablePassengers = clickablePassengers;
 
-        int count  = engine.getFlights().size();
+        int count  = views.get().getFlights().size();
         int width  = HOLD_GAP + count * (HOLD_BOX_SIZE + HOLD_GAP);
         int height = HOLD_BOX_SIZE + 2 * HOLD_GAP;
         setPreferredSize(new Dimension(width, height));
@@ -50,15 +51,15 @@ public class HoldRoomsPanel extends JPanel {
         });
     }
 
-    public HoldRoomsPanel(SimulationEngine engine, Flight filterFlight) {
-        this(engine, new ArrayList<>(), new ArrayList<>(), filterFlight);
+    public HoldRoomsPanel(Supplier<EngineView> views, Flight filterFlight) {
+        this(views, new ArrayList<>(), new ArrayList<>(), filterFlight);
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         GridRenderer.renderHoldRooms(
-            this, g, engine,
+            this, g, views.get(),
             clickableAreas, clickablePassengers,
             filterFlight
         );
@@ -69,7 +70,7 @@ public class HoldRoomsPanel extends JPanel {
         LocalTime simStart = p.getFlight()
 
             .getDepartureTime()
-            .minusMinutes(engine.getArrivalSpan());
+            .minusMinutes(views.get().getArrivalSpan());
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("HH:mm");
 
         StringBuilder msg = new StringBuilder();
@@ -1,26 +1,45 @@
 package sim.ui;
 
+import sim.model.ArrivalProfile;
+import sim.model.EmpiricalCurve;
 import sim.model.Flight;
+import sim.service.ArrivalCurveFile;
+import sim.service.AssignmentOptimizer;
+import sim.service.CsvScheduleImporter;
+import sim.service.ParameterSweep;
+import sim.service.Scenario;
+import sim.service.ScenarioFile;
 import sim.service.SimulationEngine;
-import sim.ui.TicketCounterConfig;
+import sim.service.SimulationResult;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 public class MainFrame extends JFrame {
     private GlobalInputPanel   globalInputPanel;
     private FlightTablePanel   flightTablePanel;
     private TicketCounterPanel ticketCounterPanel;
     private JButton            startSimulationButton;
+    private JButton            sweepButton;
+    private JButton            optimizeButton;
+    private File               scenarioDirectory;
 
     public MainFrame() {
         super("Airport Ticket Counter Setup");
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setLayout(new BorderLayout());
         initializeComponents();
+        setJMenuBar(createMenuBar());
         pack();
         setLocationRelativeTo(null);
     }
@@ -31,6 +50,10 @@ public class MainFrame extends JFrame {
         ticketCounterPanel = new TicketCounterPanel(flightTablePanel.getFlights());
         startSimulationButton = new JButton("Start Simulation");
         startSimulationButton.addActionListener(e -> onStartSimulation());
+        sweepButton = new JButton("Parameter Sweep...");
+        sweepButton.addActionListener(e -> onParameterSweep());
+        optimizeButton = new JButton("Optimize Counters...");
+        optimizeButton.addActionListener(e -> onOptimizeCounters());
 
         // North: global settings
         add(globalInputPanel, BorderLayout.NORTH);
@@ -41,83 +64,283 @@ public class MainFrame extends JFrame {
         tabs.addTab("Ticket Counters", ticketCounterPanel);
         add(tabs, BorderLayout.CENTER);
 
-        // South: launch button
-        add(startSimulationButton, BorderLayout.SOUTH);
+        // South: launch buttons
+        JPanel buttons = new JPanel(new GridLayout(1, 3, 5, 5));
+        buttons.add(startSimulationButton);
+        buttons.add(sweepButton);
+        buttons.add(optimizeButton);
+        add(buttons, BorderLayout.SOUTH);
     }
 
-    private void onStartSimulation() {
+    private JMenuBar createMenuBar() {
+        JMenu file = new JMenu("File");
+        JMenuItem open = new JMenuItem("Open Scenario...");
+        open.addActionListener(e -> onOpenScenario());
+        JMenuItem save = new JMenuItem("Save Scenario...");
+        save.addActionListener(e -> onSaveScenario());
+        JMenuItem importCsv = new JMenuItem("Import Flights from CSV...");
+        importCsv.addActionListener(e -> onImportCsv());
+        JMenuItem importCurves = new JMenuItem("Import Arrival Curves...");
+        importCurves.addActionListener(e -> onImportCurves());
+        file.add(open);
+        file.add(save);
+        file.addSeparator();
+        file.add(importCsv);
+        file.add(importCurves);
+        JMenuBar bar = new JMenuBar();
+        bar.add(file);
+        return bar;
+    }
+
+    /** Load a scenario file (text or binary) into the setup panels, one table event each. */
+    private void onOpenScenario() {
+        JFileChooser chooser = new JFileChooser(scenarioDirectory);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        scenarioDirectory = chooser.getCurrentDirectory();
+        try {
+            Scenario scenario = ScenarioFile.read(chooser.getSelectedFile().toPath());
+            globalInputPanel.apply(scenario);
+            flightTablePanel.setFlights(scenario.getFlights());
+            ticketCounterPanel.setCounters(scenario.getCounters());
+        } catch (IOException | IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, String.valueOf(ex.getMessage()),
+                "Cannot Open Scenario", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /** Save the setup; a name ending in .scnb gets the binary form, anything else text. */
+    private void onSaveScenario() {
+        JFileChooser chooser = new JFileChooser(scenarioDirectory);
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        scenarioDirectory = chooser.getCurrentDirectory();
+        try {
+            ScenarioFile.write(currentScenario(), chooser.getSelectedFile().toPath());
+        } catch (IOException | IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, String.valueOf(ex.getMessage()),
+                "Cannot Save Scenario", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Replace the flights with those of a schedule export, optionally one
+     * date and some terminals only. Counter restrictions named the old
+     * flights, so every counter goes back to accepting all.
+     */
+    private void onImportCsv() {
+        JFileChooser chooser = new JFileChooser(scenarioDirectory);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        scenarioDirectory = chooser.getCurrentDirectory();
+
+        JTextField dateField = new JTextField(10);
+        JTextField terminalsField = new JTextField(10);
+        JPanel filters = new JPanel(new GridLayout(2, 2, 5, 5));
+        filters.add(new JLabel("Date (yyyy-MM-dd, blank = all):"));
+        filters.add(dateField);
+        filters.add(new JLabel("Terminals (comma-separated, blank = all):"));
+        filters.add(terminalsField);
+        if (JOptionPane.showConfirmDialog(this, filters, "Import Filters",
+                JOptionPane.OK_CANCEL_OPTION) != JOptionPane.OK_OPTION) return;
+
+        try {
+            CsvScheduleImporter importer = new CsvScheduleImporter();
+            String date = dateField.getText().trim();
+            if (!date.isEmpty()) importer.setDate(LocalDate.parse(date));
+            String terminals = terminalsField.getText().trim();
+            if (!terminals.isEmpty()) importer.setTerminals(terminals.split("\\s*,\\s*"));
+
+            List<Flight> flights = importer.read(chooser.getSelectedFile().toPath());
+            flightTablePanel.setFlights(flights);
+            int counters = ticketCounterPanel.getCounters().size();
+            ticketCounterPanel.applyAssignment(Collections.nCopies(counters, Collections.<Flight>emptySet()));
+            JOptionPane.showMessageDialog(this,
+                "Imported " + flights.size() + " of " + importer.getRowsScanned() + " flights.",
+                "Import Flights", JOptionPane.INFORMATION_MESSAGE);
+        } catch (IOException | IllegalArgumentException | DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(this, String.valueOf(ex.getMessage()),
+                "Cannot Import Flights", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Read measured show-up curves, then attach them to flights by departure
+     * window and flight-number prefix, one rule at a time until Close.
+     */
+    private void onImportCurves() {
+        JFileChooser chooser = new JFileChooser(scenarioDirectory);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        scenarioDirectory = chooser.getCurrentDirectory();
+        List<EmpiricalCurve> curves;
+        try {
+            curves = ArrivalCurveFile.read(chooser.getSelectedFile().toPath());
+        } catch (IOException | IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, String.valueOf(ex.getMessage()),
+                "Cannot Import Curves", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        JComboBox<ArrivalProfile> curveBox = new JComboBox<>();
+        curveBox.addItem(ArrivalProfile.NORMAL);
+        for (EmpiricalCurve c : curves) curveBox.addItem(c);
+        if (!curves.isEmpty()) curveBox.setSelectedIndex(1);
+        JTextField fromField = new JTextField(6);
+        JTextField toField = new JTextField(6);
+        JTextField prefixField = new JTextField(6);
+        JLabel status = new JLabel("Read " + curves.size() + " curves.");
+        JPanel rule = new JPanel(new GridLayout(5, 2, 5, 5));
+        rule.add(new JLabel("Curve:"));
+        rule.add(curveBox);
+        rule.add(new JLabel("Departing from (HH:mm, blank = any):"));
+        rule.add(fromField);
+        rule.add(new JLabel("Departing until (HH:mm, blank = any):"));
+        rule.add(toField);
+        rule.add(new JLabel("Flight numbers starting with:"));
+        rule.add(prefixField);
+        rule.add(status);
+
+        Object[] options = { "Attach", "Close" };
+        while (JOptionPane.showOptionDialog(this, rule, "Attach Arrival Curves", JOptionPane.DEFAULT_OPTION,
+                JOptionPane.PLAIN_MESSAGE, null, options, options[0]) == 0) {
+            try {
+                String from = fromField.getText().trim();
+                String to = toField.getText().trim();
+                int changed = ArrivalCurveFile.attach(flightTablePanel.getFlights(),
+                        (ArrivalProfile) curveBox.getSelectedItem(),
+                        from.isEmpty() ? null : LocalTime.parse(from),
+                        to.isEmpty() ? null : LocalTime.parse(to),
+                        prefixField.getText().trim());
+                status.setText(curveBox.getSelectedItem() + " attached to " + changed + " flights.");
+            } catch (DateTimeParseException ex) {
+                status.setText("Times are HH:mm.");
+            }
+        }
+    }
+
+    /** Open a sweep window over the current setup (its axes start at these values). */
+    private void onParameterSweep() {
+        if (!checkSetup()) return;
+        try {
+            new SweepFrame(currentScenario().copy().toSweep()).setVisible(true);
+        } catch (Exception ex) {
+            showSimulationError(ex);
+        }
+    }
+
+    /** Search the counters' allowed flights; the best so far shows up in the counter table. */
+    private void onOptimizeCounters() {
+        if (!checkSetup()) return;
+        try {
+            new AssignmentFrame(new AssignmentOptimizer(newSweep()), ticketCounterPanel).setVisible(true);
+        } catch (Exception ex) {
+            showSimulationError(ex);
+        }
+    }
+
+    /** A sweep whose base point is the current setup. */
+    private ParameterSweep newSweep() {
+        return currentScenario().toSweep();
+    }
+
+    /** The setup panels' contents; the flights are the table's own objects. */
+    private Scenario currentScenario() {
+        Scenario scenario = new Scenario(flightTablePanel.getFlights(), ticketCounterPanel.getCounters());
+        scenario.setPercentInPerson(globalInputPanel.getPercentInPerson());
+        scenario.setNumCheckpoints(globalInputPanel.getNumCheckpoints());
+        scenario.setCheckpointRate(globalInputPanel.getRatePerCheckpoint());
+        scenario.setArrivalSpanMinutes(globalInputPanel.getArrivalSpanMinutes());
+        scenario.setIntervalMinutes(globalInputPanel.getIntervalMinutes());
+        scenario.setTransitDelayMinutes(globalInputPanel.getTransitDelayMinutes());
+        scenario.setHoldDelayMinutes(globalInputPanel.getHoldroomDelayMinutes());
+        return scenario;
+    }
+
+    /** Warn and return false unless there is at least one flight and one counter. */
+    private boolean checkSetup() {
         if (flightTablePanel.getFlights().isEmpty()) {
             JOptionPane.showMessageDialog(this,
                 "Please add at least one flight before starting simulation.",
                 "No Flights Defined",
                 JOptionPane.WARNING_MESSAGE);
-            return;
+            return false;
         }
-
-        List<TicketCounterConfig> counters = ticketCounterPanel.getCounters();
-        if (counters.isEmpty()) {
+        if (ticketCounterPanel.getCounters().isEmpty()) {
             JOptionPane.showMessageDialog(this,
                 "Please add at least one ticket counter before starting simulation.",
                 "No Counters Defined",
                 JOptionPane.WARNING_MESSAGE);
-            return;
+            return false;
         }
+        return true;
+    }
+
+    private void onStartSimulation() {
+        if (!checkSetup()) return;
 
         try {
-            double percentInPerson   = globalInputPanel.getPercentInPerson();
-            if (percentInPerson < 0 || percentInPerson > 1)
-                throw new IllegalArgumentException("Percent in person must be between 0 and 1");
-
-            int    numCheckpoints    = globalInputPanel.getNumCheckpoints();
-            double ratePerCheckpoint = globalInputPanel.getRatePerCheckpoint();
-            int    arrivalSpan       = globalInputPanel.getArrivalSpanMinutes();
-            int    interval          = globalInputPanel.getIntervalMinutes();
-            int    transitDelay      = globalInputPanel.getTransitDelayMinutes();
-            int    holdDelay         = globalInputPanel.getHoldroomDelayMinutes(); // new
-            List<Flight> flights     = flightTablePanel.getFlights();
-
-            // build the pre-run engine for the data table (populate its history)
-            SimulationEngine tableEngine = new SimulationEngine(
-                percentInPerson,
-                counters,
-                numCheckpoints,
-                ratePerCheckpoint,
-                arrivalSpan,
-                interval,
-                transitDelay,
-                holdDelay,      // pass hold-room delay here
-                flights
-            );
-            // ◀– run all intervals to fill history before showing table
-            tableEngine.runAllIntervals();
-
-            // build the fresh engine for live animation
-            SimulationEngine simEngine = new SimulationEngine(
-                percentInPerson,
-                counters,
-                numCheckpoints,
-                ratePerCheckpoint,
-                arrivalSpan,
-                interval,
-                transitDelay,
-                holdDelay,      // and here
-                flights
-            );
+            // the run reads its own copy, so the tables stay editable meanwhile
+            Scenario setup = currentScenario().copy();
 
-            new DataTableFrame(tableEngine).setVisible(true);
-            new SimulationFrame(simEngine).setVisible(true);
+            // one engine, run once in the background; every window reads its result
+            SimulationEngine engine = new SimulationEngine(
+                setup.getPercentInPerson(),
+                setup.getCounters(),
+                setup.getNumCheckpoints(),
+                setup.getCheckpointRate(),
+                setup.getArrivalSpanMinutes(),
+                setup.getIntervalMinutes(),
+                setup.getTransitDelayMinutes(),
+                setup.getHoldDelayMinutes(),
+                setup.getFlights()
+            );
+            engine.setNextEventMode(true);
+            startRun(engine);
 
         } catch (Exception ex) {
-            ex.printStackTrace();  // print full stack trace to console
-            StringWriter sw = new StringWriter();
-            ex.printStackTrace(new PrintWriter(sw));
-            JTextArea area = new JTextArea(sw.toString(), 20, 60);
-            area.setEditable(false);
-            JOptionPane.showMessageDialog(this,
-                new JScrollPane(area),
-                "Simulation Error",
-                JOptionPane.ERROR_MESSAGE);
+            showSimulationError(ex);
         }
     }
-}
 
+    /** Run {@code engine} on a worker with a cancellable progress dialog, then open the views. */
+    private void startRun(SimulationEngine engine) {
+        startSimulationButton.setEnabled(false);
+
+        ProgressMonitor monitor = new ProgressMonitor(this,
+            "Running simulation...", null, 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+
+        SimulationRunWorker worker = new SimulationRunWorker(engine);
+        worker.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) {
+                monitor.setProgress((Integer) evt.getNewValue());
+                if (monitor.isCanceled()) worker.cancel(false);
+            } else if ("state".equals(evt.getPropertyName())
+                    && evt.getNewValue() == SwingWorker.StateValue.DONE) {
+                monitor.close();
+                startSimulationButton.setEnabled(true);
+                if (worker.isCancelled()) return;
+                try {
+                    SimulationResult result = worker.get();
+                    new DataTableFrame(result).setVisible(true);
+                    new SimulationFrame(worker.getEngine(), result).setVisible(true);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    showSimulationError(cause instanceof Exception ? (Exception) cause : ex);
+                }
+            }
+        });
+        worker.execute();
+    }
+
+    private void showSimulationError(Exception ex) {
+        ex.printStackTrace();  // print full stack trace to console
+        StringWriter sw = new StringWriter();
+        ex.printStackTrace(new PrintWriter(sw));
+        JTextArea area = new JTextArea(sw.toString(), 20, 60);
+        area.setEditable(false);
+        JOptionPane.showMessageDialog(this,
+            new JScrollPane(area),
+            "Simulation Error",
+            JOptionPane.ERROR_MESSAGE);
+    }
+}
@@ -2,6 +2,7 @@ package sim.ui;
 
 import sim.model.Flight;
 import sim.service.SimulationEngine;
+import sim.service.SimulationResult;
 
 import javax.swing.*;
 import javax.swing.event.ChangeEvent;
@@ -46,20 +47,27 @@ public class SimulationFrame extends JFrame {
     // track, for each flight, the interval index at which it closed
     private final Map<Flight,Integer> closeSteps = new LinkedHashMap<>();
 
-    // track whether we have finished at least once (enables Summary permanently)
-    private boolean simulationCompleted = false;
+    // track whether we have finished at least once (enables Summary permanently);
+    // a precomputed run counts as finished, since the summary reads its result
+    private boolean simulationCompleted;
 
-    public SimulationFrame(SimulationEngine engine) {
+    /**
+     * @param engine an engine that has already computed {@code result}; stepping,
+     *               AutoRun and scrubbing replay its recorded intervals
+     * @param result the finished run, shared with the summary and data views
+     */
+    public SimulationFrame(SimulationEngine engine, SimulationResult result) {
         super("Simulation View");
         setDefaultCloseOperation(DISPOSE_ON_CLOSE);
         setLayout(new BorderLayout());
 
-        // compute start time
-        LocalTime firstDep = engine.getFlights().stream()
-            .map(Flight::getDepartureTime)
-            .min(LocalTime::compareTo)
-            .orElse(LocalTime.MIDNIGHT);
-        startTime = firstDep.minusMinutes(engine.getArrivalSpan());
+        simulationCompleted = engine.getMaxComputedInterval() >= engine.getTotalIntervals();
+
+        // the grids paint the engine's latest published frame, never its live lists
+        engine.setPublishFrames(true);
+
+        // start time comes from the run's compiled schedule
+        startTime = result.getGlobalStart();
 
         // === Top panel with BoxLayout for precise width control ===
         JPanel topPanel = new JPanel();
@@ -107,7 +115,7 @@ public class SimulationFrame extends JFrame {
 
         // Ticket panel
         TicketLinesPanel ticketPanel = new TicketLinesPanel(
-            engine, new ArrayList<>(), new ArrayList<>(), null
+            engine::getLatestFrame, new ArrayList<>(), new ArrayList<>(), null
         );
         Dimension tPref = ticketPanel.getPreferredSize();
         ticketPanel.setPreferredSize(new Dimension(panelW, tPref.height));
@@ -119,7 +127,7 @@ public class SimulationFrame extends JFrame {
         // Checkpoint panel
         split.add(Box.createHorizontalStrut(gutter));
         CheckpointLinesPanel cpPanel = new CheckpointLinesPanel(
-            engine, new ArrayList<>(), new ArrayList<>(), null
+            engine::getLatestFrame, new ArrayList<>(), new ArrayList<>(), null
         );
         Dimension cPref = cpPanel.getPreferredSize();
         cpPanel.setPreferredSize(new Dimension(panelW, cPref.height));
@@ -130,7 +138,7 @@ public class SimulationFrame extends JFrame {
         // Hold-rooms panel
         split.add(Box.createHorizontalStrut(gutter));
         HoldRoomsPanel holdPanel = new HoldRoomsPanel(
-            engine, new ArrayList<>(), new ArrayList<>(), null
+            engine::getLatestFrame, new ArrayList<>(), new ArrayList<>(), null
         );
         split.add(holdPanel);
 
@@ -175,7 +183,7 @@ SwingUtilities.invokeLater(() -> mainSplit.setDividerLocation(520));
         pausePlayBtn = new JButton("Pause");
         summaryBtn   = new JButton("Summary");
 
-        summaryBtn.setEnabled(false);
+        summaryBtn.setEnabled(simulationCompleted);
         pausePlayBtn.setVisible(false);
 
         btnPanel.add(autoRunBtn);
@@ -194,7 +202,7 @@ SwingUtilities.invokeLater(() -> mainSplit.setDividerLocation(520));
         // === Tabs: Timeline + Graphs (same area as timeline) ===
         JPanel timelineAndGraphContainer = new JPanel(new BorderLayout(8, 6));
         timelineAndGraphContainer.setBorder(
-            BorderFactory.createTitledBorder("Timeline (rewind / review computed intervals)")
+            BorderFactory.createTitledBorder("Timeline (scrub anywhere in the computed run)")
         );
 
         JTabbedPane tabs = new JTabbedPane();
@@ -207,10 +215,12 @@ SwingUtilities.invokeLater(() -> mainSplit.setDividerLocation(520));
         intervalLabel.setPreferredSize(new Dimension(260, 20));
         intervalLabel.setHorizontalAlignment(SwingConstants.LEFT);
 
-        timelineSlider = new JSlider(0, Math.max(0, engine.getMaxComputedInterval()), 0);
+        // a precomputed run starts at full length, so size the ticks for it now
+        int initialMax = Math.max(0, engine.getMaxComputedInterval());
+        timelineSlider = new JSlider(0, initialMax, 0);
         timelineSlider.setPaintTicks(true);
         timelineSlider.setPaintLabels(true);
-        timelineSlider.setMajorTickSpacing(10);
+        timelineSlider.setMajorTickSpacing(computeMajorTickSpacing(initialMax));
         timelineSlider.setMinorTickSpacing(1);
 
         // Initial label table (will be rebuilt dynamically in refreshUI)
@@ -259,7 +269,7 @@ SwingUtilities.invokeLater(() -> mainSplit.setDividerLocation(520));
 
         // Summary button
         summaryBtn.addActionListener(e ->
-            new FlightsSummaryFrame(engine).setVisible(true)
+            new FlightsSummaryFrame(result).setVisible(true)
         );
 
         // Helper: refresh UI from engine state
@@ -351,7 +361,7 @@ SwingUtilities.invokeLater(() -> mainSplit.setDividerLocation(520));
             for (Flight f : newlyClosed) {
                 int total = (int)Math.round(f.getSeats() * f.getFillPercent());
                 int idx   = engine.getFlights().indexOf(f);
-                int made  = engine.getHoldRoomLines().get(idx).size();
+                int made  = engine.getLatestFrame().getHoldRooms().get(idx).size();
                 JOptionPane.showMessageDialog(
                         SimulationFrame.this,
                         String.format("%s: %d of %d made their flight.",
@@ -423,7 +433,8 @@ SwingUtilities.invokeLater(() -> mainSplit.setDividerLocation(520));
             if (timelineProgrammaticUpdate) return;
 
             // only commit jump when user releases the slider thumb
-            if (timelineSlider.getValueIsAdjusting()) {
+            // (a precomputed run restores each step in place, so it follows the thumb live)
+            if (timelineSlider.getValueIsAdjusting() && !simulationCompleted) {
                 intervalLabel.setText("Interval: " + timelineSlider.getValue()
                         + " / " + engine.getTotalIntervals());
 
@@ -0,0 +1,41 @@
+package sim.ui;
+
+import sim.service.SimulationEngine;
+import sim.service.SimulationResult;
+
+import javax.swing.*;
+
+/**
+ * Runs one full simulation off the EDT.
+ *
+ * Progress (0–100) is published through {@link #setProgress}; cancelling the
+ * worker stops between intervals. On success the engine is rewound to interval 0,
+ * so the live view replays the recorded run instead of simulating it again.
+ */
+public class SimulationRunWorker extends SwingWorker<SimulationResult, Void> {
+    private final SimulationEngine engine;
+
+    public SimulationRunWorker(SimulationEngine engine) {
+        this.engine = engine;
+    }
+
+    /** The engine being run; only touch it from the EDT once the worker is done. */
+    public SimulationEngine getEngine() {
+        return engine;
+    }
+
+    @Override
+    protected SimulationResult doInBackground() {
+        int total = engine.getTotalIntervals();
+        while (engine.getCurrentInterval() < total) {
+            if (isCancelled()) return null;
+            engine.computeNextInterval();
+            setProgress(100 * engine.getCurrentInterval() / Math.max(1, total));
+        }
+        SimulationResult result = engine.toResult();
+
+        // hand the live view a rewound engine; stepping forward restores recorded intervals
+        engine.goToInterval(0);
+        return result;
+    }
+}
@@ -0,0 +1,168 @@
+package sim.ui;
+
+import sim.service.ParameterSweep;
+import sim.service.SweepResult;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Capacity-planning window: value lists or ranges for each sweep axis, a Run
+ * button, and a sortable table that fills in as configurations finish.
+ *
+ * Each field takes comma-separated values and ranges, e.g. {@code 1, 2, 4} or
+ * {@code 2..8} or {@code 0.5..2 step 0.25}. The sweep runs on the common
+ * fork-join pool, off the EDT. Each run gets its own copy of the sweep, so
+ * points of a cancelled run that are still finishing never see the next
+ * run's values.
+ */
+public class SweepFrame extends JFrame {
+    private final ParameterSweep baseSweep;   // copied for each run, never run itself
+
+    private final JTextField countersField;
+    private final JTextField counterRateField;
+    private final JTextField checkpointsField;
+    private final JTextField checkpointRateField;
+    private final JTextField percentInPersonField;
+    private final JTextField transitDelayField;
+    private final JTextField holdDelayField;
+    private final JTextField replicationsField;
+    private final JTextField seedField;
+
+    private final JButton runButton = new JButton("Run Sweep");
+    private final JProgressBar progressBar = new JProgressBar(0, 100);
+    private final SweepTableModel tableModel = new SweepTableModel();
+    private SwingWorker<List<SweepResult>, SweepResult> worker;
+
+    /** {@code sweep} carries the base setup; its axes start at the base values. */
+    public SweepFrame(ParameterSweep sweep) {
+        super("Parameter Sweep");
+        this.baseSweep = sweep;
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout());
+
+        JPanel inputs = new JPanel(new GridLayout(9, 2, 5, 5));
+        countersField        = addLabeledField(inputs, "# of Ticket Counters:", join(sweep.getCounterCounts()));
+        counterRateField     = addLabeledField(inputs, "Counter Rate (blank = per counter):", "");
+        checkpointsField     = addLabeledField(inputs, "# of Checkpoints:", join(sweep.getCheckpointCounts()));
+        checkpointRateField  = addLabeledField(inputs, "Rate / Checkpoint (per min):", join(sweep.getCheckpointRates()));
+        percentInPersonField = addLabeledField(inputs, "% In Person (0-1):", join(sweep.getPercentsInPerson()));
+        transitDelayField    = addLabeledField(inputs, "Transit Delay (min):", join(sweep.getTransitDelays()));
+        holdDelayField       = addLabeledField(inputs, "Hold-room Delay (min):", join(sweep.getHoldDelays()));
+        replicationsField    = addLabeledField(inputs, "Replications (1 = deterministic):", "1");
+        seedField            = addLabeledField(inputs, "Seed:", "1");
+
+        JPanel north = new JPanel(new BorderLayout(5, 5));
+        north.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+        north.add(inputs, BorderLayout.CENTER);
+        north.add(new JLabel("Values: 1, 2, 4   Ranges: 2..8   Steps: 0.5..2 step 0.25"), BorderLayout.SOUTH);
+        add(north, BorderLayout.NORTH);
+
+        JTable table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        progressBar.setStringPainted(true);
+        runButton.addActionListener(e -> onRun());
+        JPanel south = new JPanel(new BorderLayout(5, 5));
+        south.add(progressBar, BorderLayout.CENTER);
+        south.add(runButton, BorderLayout.EAST);
+        add(south, BorderLayout.SOUTH);
+
+        setSize(1100, 650);
+        setLocationRelativeTo(null);
+    }
+
+    private static JTextField addLabeledField(JPanel panel, String label, String value) {
+        panel.add(new JLabel(label));
+        JTextField field = new JTextField(value);
+        panel.add(field);
+        return field;
+    }
+
+    private void onRun() {
+        if (worker != null) {
+            worker.cancel(false);
+            return;
+        }
+        ParameterSweep sweep = baseSweep.copy();
+        try {
+            sweep.setCounterCounts(ParameterSweep.parseWholeAxis(countersField.getText()));
+            String rates = counterRateField.getText().trim();
+            sweep.setCounterRates(rates.isEmpty() ? new double[] { Double.NaN } : ParameterSweep.parseAxis(rates));
+            sweep.setCheckpointCounts(ParameterSweep.parseWholeAxis(checkpointsField.getText()));
+            sweep.setCheckpointRates(ParameterSweep.parseAxis(checkpointRateField.getText()));
+            sweep.setPercentsInPerson(ParameterSweep.parseAxis(percentInPersonField.getText()));
+            sweep.setTransitDelays(ParameterSweep.parseWholeAxis(transitDelayField.getText()));
+            sweep.setHoldDelays(ParameterSweep.parseWholeAxis(holdDelayField.getText()));
+            sweep.setReplications(Integer.parseInt(replicationsField.getText().trim()),
+                                  Long.parseLong(seedField.getText().trim()));
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Invalid Sweep", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        int total = sweep.size();
+        tableModel.clear();
+        progressBar.setValue(0);
+        progressBar.setString("0 / " + total);
+        runButton.setText("Cancel");
+
+        AtomicInteger done = new AtomicInteger();
+        worker = new SwingWorker<List<SweepResult>, SweepResult>() {
+            @Override
+            protected List<SweepResult> doInBackground() {
+                return sweep.run(ForkJoinPool.commonPool(), result -> {
+                    // stops the remaining points; the pool rethrows it here
+                    if (isCancelled()) throw new CancellationException();
+                    publish(result);
+                    setProgress(100 * done.incrementAndGet() / total);
+                });
+            }
+
+            @Override
+            protected void process(List<SweepResult> chunk) {
+                // a point may finish just after Cancel; the table may already be the next run's
+                if (isCancelled()) return;
+                chunk.forEach(tableModel::addResult);
+                progressBar.setValue(getProgress());
+                progressBar.setString(tableModel.getRowCount() + " / " + total);
+            }
+
+            @Override
+            protected void done() {
+                worker = null;
+                runButton.setText("Run Sweep");
+                if (isCancelled()) return;
+                try {
+                    get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    JOptionPane.showMessageDialog(SweepFrame.this, String.valueOf(ex.getCause()),
+                            "Sweep Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    // === VALUE LISTS ===
+
+    private static String join(int[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int v : values) sb.append(sb.length() > 0 ? ", " : "").append(v);
+        return sb.toString();
+    }
+
+    private static String join(double[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (double v : values) sb.append(sb.length() > 0 ? ", " : "").append(v);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package sim.ui;
+
+import sim.service.SweepPoint;
+import sim.service.SweepResult;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Results table of a parameter sweep: one row per evaluated configuration,
+ * added as the points finish (EDT only).
+ */
+public class SweepTableModel extends AbstractTableModel {
+    private final String[] columns = {
+        "Counters", "Counter Rate", "Checkpoints", "Checkpoint Rate", "% In Person",
+        "Transit (min)", "Hold (min)", "Missed", "Worst Flight Missed %",
+        "Peak Ticket Queue", "Peak Checkpoint Queue", "Max Checkpoint Wait", "Mean Checkpoint Wait"
+    };
+    private final List<SweepResult> rows = new ArrayList<>();
+
+    public void addResult(SweepResult result) {
+        rows.add(result);
+        fireTableRowsInserted(rows.size() - 1, rows.size() - 1);
+    }
+
+    public void clear() {
+        rows.clear();
+        fireTableDataChanged();
+    }
+
+    public List<SweepResult> getResults() {
+        return rows;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int col) {
+        return columns[col];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int col) {
+        switch (col) {
+            case 0: case 2: case 5: case 6: case 9: case 10: case 11:
+                return Integer.class;
+            case 1:
+                return String.class;
+            default:
+                return Double.class;
+        }
+    }
+
+    @Override
+    public Object getValueAt(int row, int col) {
+        SweepResult r = rows.get(row);
+        SweepPoint p = r.getPoint();
+        switch (col) {
+            case 0:  return p.getCounterCount();
+            case 1:  return Double.isNaN(p.getCounterRate()) ? "per counter" : String.valueOf(p.getCounterRate());
+            case 2:  return p.getNumCheckpoints();
+            case 3:  return p.getCheckpointRate();
+            case 4:  return p.getPercentInPerson();
+            case 5:  return p.getTransitDelayMinutes();
+            case 6:  return p.getHoldDelayMinutes();
+            case 7:  return r.getMeanTotalMissed();
+            case 8:  return Math.round(r.getWorstMissedFraction() * 1000) / 10.0;
+            case 9:  return r.getPeakTicketQueued();
+            case 10: return r.getPeakCheckpointQueued();
+            case 11: return r.getMaxCheckpointWait();
+            case 12: return Math.round(r.getMeanCheckpointWait() * 10) / 10.0;
+            default: return null;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.List;
+import java.util.Set;
 
 
 /**
@@ -52,4 +53,13 @@ public class TicketCounterPanel extends JPanel {
     public List<TicketCounterConfig> getCounters() {
         return model.getCounters();
         }
+
+    public void setCounters(List<TicketCounterConfig> counters) {
+        model.setCounters(counters);
+    }
+
+    /** Show an optimized assignment; false if counters were added or removed since. */
+    public boolean applyAssignment(List<Set<Flight>> allowedFlights) {
+        return model.applyAllowedFlights(allowedFlights);
+    }
 }
@@ -121,6 +121,28 @@ public class TicketCounterTableModel extends AbstractTableModel {
     }
 
 
+    /** Replace every row with {@code newCounters} in one model event. */
+    public void setCounters(List<TicketCounterConfig> newCounters) {
+        counters.clear();
+        counters.addAll(newCounters);
+        fireTableDataChanged();
+    }
+
+
+    /**
+     * Replace every counter's allowed flights, in counter order (empty = all).
+     * Returns false and changes nothing if the counter count no longer matches.
+     */
+    public boolean applyAllowedFlights(List<Set<Flight>> allowed) {
+        if (allowed.size() != counters.size()) return false;
+        for (int i = 0; i < counters.size(); i++) {
+            counters.get(i).setAllowedFlights(allowed.get(i));
+        }
+        if (!counters.isEmpty()) fireTableRowsUpdated(0, counters.size() - 1);
+        return true;
+    }
+
+
     /** Returns the user‐configured counters. */
     public List<TicketCounterConfig> getCounters() {
         return new ArrayList<>(counters);
@@ -2,18 +2,19 @@ package sim.ui;
 
 import sim.model.Flight;
 import sim.model.Passenger;
-import sim.service.SimulationEngine;
+import sim.service.EngineView;
 
 import javax.swing.*;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Panel displaying ticket lines with scrollable grids.
  */
 public class TicketLinesPanel extends JPanel {
-    private final SimulationEngine engine;
+    private final Supplier<EngineView> views;   // the interval to paint
     private final int[] queuedOffsets;
     private final int[] servedOffsets;
     private final List<Rectangle> clickableAreas;
@@ -21,22 +22,23 @@ public class TicketLinesPanel extends JPanel {
     private final List<Rectangle> counterAreas;
     private final Flight filterFlight;
 
-    public TicketLinesPanel(SimulationEngine engine,
+    public TicketLinesPanel(Supplier<EngineView> views,
                              List<Rectangle> clickableAreas,
                              List<Passenger> clickablePassengers,
                              Flight filterFlight) {
-        this.engine = engine;
+        this.views = views;
         this.clickableAreas = clickableAreas;
         this.clickablePassengers = clickablePassengers;
         this.counterAreas = new ArrayList<>();          // << new list for counters
         this.filterFlight = filterFlight;
-        this.queuedOffsets = new int[engine.getTicketLines().size()];
-        this.servedOffsets = new int[engine.getTicketLines().size()];
+        int lineCount = views.get().getTicketLineCount();
+        this.queuedOffsets = new int[lineCount];
+        this.servedOffsets = new int[lineCount];
         setFocusable(true);
 
         // install shared scroll handler
         ScrollMouseHandler handler = new ScrollMouseHandler.TicketScrollHandler(
-            engine, clickableAreas, clickablePassengers,
+            views, clickableAreas, clickablePassengers,
             queuedOffsets, servedOffsets,
             filterFlight,
             counterAreas
@@ -52,7 +54,7 @@ public class TicketLinesPanel extends JPanel {
         GridRenderer.renderTicketLines(
             this,
             g,
-            engine,
+            views.get(),
             queuedOffsets,
             servedOffsets,
             clickableAreas,
@@ -67,15 +69,7 @@ public class TicketLinesPanel extends JPanel {
      *         across all history intervals.
      */
     public int getMaxQueuedForLine(int lineIdx) {
-        int max = 0;
-        // iterate through each saved interval of queued-ticket history
-        for (List<List<Passenger>> interval : engine.getHistoryQueuedTicket()) {
-            int sz = interval.get(lineIdx).size();
-            if (sz > max) {
-                max = sz;
-            }
-        }
-        return max;
+        return views.get().getPeakQueuedTicket(lineIdx);
     }
 
     /**
@@ -87,7 +81,7 @@ public class TicketLinesPanel extends JPanel {
         // keep current width calculation
         int width = super.getPreferredSize().width;
         // number of ticket lines
-        int lines = engine.getTicketLines().size();
+        int lines = queuedOffsets.length;
         // 50px top + 50px bottom margins
         int height = 50 + lines * GridRenderer.MIN_LINE_SPACING + 50;
         return new Dimension(width, height);